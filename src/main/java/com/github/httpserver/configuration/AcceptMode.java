@@ -0,0 +1,17 @@
+package com.github.httpserver.configuration;
+
+/**
+ * AcceptMode holds constants for the possible ways in which the server accepts client connections.
+ */
+public enum AcceptMode {
+    /**
+     * A single server socket is served by one acceptor thread that hands accepted connections over
+     * to the event loops.
+     */
+    ACCEPTOR,
+    /**
+     * Every event loop owns a server socket bound to the same port with SO_REUSEPORT, so that the
+     * operating system distributes incoming connections among the event loops.
+     */
+    REUSE_PORT
+}
@@ -7,6 +7,10 @@ import org.yaml.snakeyaml.Yaml;
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 
 /**
@@ -23,6 +27,52 @@ public class Configuration {
      * The default source path is "www".
      * <p>
      * The default root resource is "index.html".
+     * <p>
+     * The default number of worker threads equals the number of available processors.
+     * <p>
+     * The default accept mode is {@link AcceptMode#ACCEPTOR}.
+     * <p>
+     * The default engine is {@link ServerEngine#SELECTOR}.
+     * <p>
+     * By default, requests are handled on the event loop threads (no request handler threads).
+     * <p>
+     * The default request queue capacity is 1024.
+     * <p>
+     * The default maximum request header size is 8192 bytes.
+     * <p>
+     * The default content cache size is 64 MiB.
+     * <p>
+     * The default maximum size of a cached file is 1 MiB.
+     * <p>
+     * The default ETag strategy is {@link ETagStrategy#CONTENT_HASH}.
+     * <p>
+     * By default, the document root is not warmed up before the server accepts requests.
+     * <p>
+     * By default, no files are preloaded into the content cache during warm-up because of their size.
+     * <p>
+     * By default, no resources are pinned for preloading during warm-up.
+     * <p>
+     * By default, the document root is not watched and requested files are checked on the file system.
+     * <p>
+     * By default, missing resources are not remembered.
+     * <p>
+     * The default number of remembered missing resources is 10000.
+     * <p>
+     * By default, content types are determined by the built-in MIME type table only.
+     * <p>
+     * The default header read timeout is 10 seconds.
+     * <p>
+     * The default idle timeout of persistent connections is 60 seconds.
+     * <p>
+     * The default write timeout is 30 seconds.
+     * <p>
+     * The default maximum number of requests per connection is 1000.
+     * <p>
+     * By default, the age of connections is not limited.
+     * <p>
+     * The default maximum number of concurrently open client connections is 10000.
+     * <p>
+     * The default listen backlog of the server socket is 1024 connections.
      */
     public static final Configuration DEFAULT = new Configuration();
 
@@ -33,15 +83,131 @@ public class Configuration {
     /**
      * The default path from where the server serves static files via HTTP.
      */
-    private static final String DEFAULT_SOURCE_PATH = "www";
+    static final String DEFAULT_SOURCE_PATH = "www";
     /**
      * The default resource that the server returns in case that "/" is requested by the client.
      */
-    private static final String DEFAULT_ROOT_RESOURCE = "index.html";
+    static final String DEFAULT_ROOT_RESOURCE = "index.html";
+    /**
+     * The default number of event loop threads that handle client connections.
+     */
+    static final int DEFAULT_WORKER_THREADS = Runtime.getRuntime().availableProcessors();
+    /**
+     * The default way in which the server accepts client connections.
+     */
+    static final AcceptMode DEFAULT_ACCEPT_MODE = AcceptMode.ACCEPTOR;
+    /**
+     * The default I/O model that the server uses to serve client connections.
+     */
+    static final ServerEngine DEFAULT_ENGINE = ServerEngine.SELECTOR;
+    /**
+     * The default number of threads that requests are handled on, with zero meaning the event loop threads.
+     */
+    static final int DEFAULT_REQUEST_HANDLER_THREADS = 0;
+    /**
+     * The default number of requests that may wait for a free request handler thread.
+     */
+    static final int DEFAULT_REQUEST_QUEUE_CAPACITY = 1024;
+    /**
+     * The default maximum size in bytes of a request line together with all request header entries.
+     */
+    static final int DEFAULT_MAX_REQUEST_HEADER_SIZE = 8192;
+    /**
+     * The default number of bytes of file contents that are cached in memory.
+     */
+    static final int DEFAULT_CONTENT_CACHE_SIZE = 64 * 1024 * 1024;
+    /**
+     * The default maximum size in bytes of a file whose contents are cached in memory.
+     */
+    static final int DEFAULT_CONTENT_CACHE_MAX_FILE_SIZE = 1024 * 1024;
+    /**
+     * The default way in which the ETags of files are derived.
+     */
+    static final ETagStrategy DEFAULT_ETAG_STRATEGY = ETagStrategy.CONTENT_HASH;
+    /**
+     * The default indicator if the document root is warmed up before the server accepts requests.
+     */
+    static final boolean DEFAULT_WARM_UP = false;
+    /**
+     * The default maximum size in bytes of a file whose contents are preloaded during warm-up.
+     */
+    static final int DEFAULT_WARM_UP_PRELOAD_MAX_FILE_SIZE = 0;
+    /**
+     * The default resources whose contents are preloaded during warm-up regardless of their size, as long as
+     * they fit into the content cache.
+     */
+    static final List<String> DEFAULT_WARM_UP_PINNED_RESOURCES = List.of();
+    /**
+     * The default indicator if the document root is watched for changes.
+     */
+    static final boolean DEFAULT_WATCH_DOCUMENT_ROOT = false;
+    /**
+     * The default time in milliseconds for which a missing resource is remembered.
+     */
+    static final int DEFAULT_NOT_FOUND_CACHE_TTL = 0;
+    /**
+     * The default maximum number of remembered missing resources.
+     */
+    static final int DEFAULT_NOT_FOUND_CACHE_SIZE = 10000;
+    /**
+     * The default mappings of file extensions to content types.
+     */
+    static final Map<String, String> DEFAULT_MIME_TYPES = Map.of();
+    /**
+     * The default time in milliseconds in which a client has to send a complete request header section.
+     */
+    static final int DEFAULT_HEADER_READ_TIMEOUT = 10000;
+    /**
+     * The default time in milliseconds after which an idle persistent connection is closed.
+     */
+    static final int DEFAULT_IDLE_TIMEOUT = 60000;
+    /**
+     * The default time in milliseconds after which a connection whose client stopped reading its response is closed.
+     */
+    static final int DEFAULT_WRITE_TIMEOUT = 30000;
+    /**
+     * The default maximum number of requests answered over a single persistent connection.
+     */
+    static final int DEFAULT_MAX_REQUESTS_PER_CONNECTION = 1000;
+    /**
+     * The default time in milliseconds after which a persistent connection is closed, with zero meaning no limit.
+     */
+    static final int DEFAULT_MAX_CONNECTION_AGE = 0;
+    /**
+     * The default maximum number of concurrently open client connections, with zero meaning no limit.
+     */
+    static final int DEFAULT_MAX_CONNECTIONS = 10000;
+    /**
+     * The default maximum number of pending connections queued by the kernel for the server socket.
+     */
+    static final int DEFAULT_LISTEN_BACKLOG = 1024;
 
     private final int port;
     private final String sourcePath;
     private final String rootResource;
+    private final int workerThreads;
+    private final AcceptMode acceptMode;
+    private final ServerEngine engine;
+    private final int requestHandlerThreads;
+    private final int requestQueueCapacity;
+    private final int maxRequestHeaderSize;
+    private final int contentCacheSize;
+    private final int contentCacheMaxFileSize;
+    private final ETagStrategy eTagStrategy;
+    private final boolean warmUp;
+    private final int warmUpPreloadMaxFileSize;
+    private final List<String> warmUpPinnedResources;
+    private final boolean watchDocumentRoot;
+    private final int notFoundCacheTtl;
+    private final int notFoundCacheSize;
+    private final Map<String, String> mimeTypes;
+    private final int headerReadTimeout;
+    private final int idleTimeout;
+    private final int writeTimeout;
+    private final int maxRequestsPerConnection;
+    private final int maxConnectionAge;
+    private final int maxConnections;
+    private final int listenBacklog;
 
     /**
      * Constructs a configuration by setting the default values for all parameters.
@@ -50,6 +216,29 @@ public class Configuration {
         this.port = DEFAULT_PORT;
         this.sourcePath = DEFAULT_SOURCE_PATH;
         this.rootResource = DEFAULT_ROOT_RESOURCE;
+        this.workerThreads = DEFAULT_WORKER_THREADS;
+        this.acceptMode = DEFAULT_ACCEPT_MODE;
+        this.engine = DEFAULT_ENGINE;
+        this.requestHandlerThreads = DEFAULT_REQUEST_HANDLER_THREADS;
+        this.requestQueueCapacity = DEFAULT_REQUEST_QUEUE_CAPACITY;
+        this.maxRequestHeaderSize = DEFAULT_MAX_REQUEST_HEADER_SIZE;
+        this.contentCacheSize = DEFAULT_CONTENT_CACHE_SIZE;
+        this.contentCacheMaxFileSize = DEFAULT_CONTENT_CACHE_MAX_FILE_SIZE;
+        this.eTagStrategy = DEFAULT_ETAG_STRATEGY;
+        this.warmUp = DEFAULT_WARM_UP;
+        this.warmUpPreloadMaxFileSize = DEFAULT_WARM_UP_PRELOAD_MAX_FILE_SIZE;
+        this.warmUpPinnedResources = DEFAULT_WARM_UP_PINNED_RESOURCES;
+        this.watchDocumentRoot = DEFAULT_WATCH_DOCUMENT_ROOT;
+        this.notFoundCacheTtl = DEFAULT_NOT_FOUND_CACHE_TTL;
+        this.notFoundCacheSize = DEFAULT_NOT_FOUND_CACHE_SIZE;
+        this.mimeTypes = DEFAULT_MIME_TYPES;
+        this.headerReadTimeout = DEFAULT_HEADER_READ_TIMEOUT;
+        this.idleTimeout = DEFAULT_IDLE_TIMEOUT;
+        this.writeTimeout = DEFAULT_WRITE_TIMEOUT;
+        this.maxRequestsPerConnection = DEFAULT_MAX_REQUESTS_PER_CONNECTION;
+        this.maxConnectionAge = DEFAULT_MAX_CONNECTION_AGE;
+        this.maxConnections = DEFAULT_MAX_CONNECTIONS;
+        this.listenBacklog = DEFAULT_LISTEN_BACKLOG;
     }
 
     /**
@@ -63,6 +252,63 @@ public class Configuration {
         this.port = port;
         this.sourcePath = sourcePath;
         this.rootResource = rootResource;
+        this.workerThreads = DEFAULT_WORKER_THREADS;
+        this.acceptMode = DEFAULT_ACCEPT_MODE;
+        this.engine = DEFAULT_ENGINE;
+        this.requestHandlerThreads = DEFAULT_REQUEST_HANDLER_THREADS;
+        this.requestQueueCapacity = DEFAULT_REQUEST_QUEUE_CAPACITY;
+        this.maxRequestHeaderSize = DEFAULT_MAX_REQUEST_HEADER_SIZE;
+        this.contentCacheSize = DEFAULT_CONTENT_CACHE_SIZE;
+        this.contentCacheMaxFileSize = DEFAULT_CONTENT_CACHE_MAX_FILE_SIZE;
+        this.eTagStrategy = DEFAULT_ETAG_STRATEGY;
+        this.warmUp = DEFAULT_WARM_UP;
+        this.warmUpPreloadMaxFileSize = DEFAULT_WARM_UP_PRELOAD_MAX_FILE_SIZE;
+        this.warmUpPinnedResources = DEFAULT_WARM_UP_PINNED_RESOURCES;
+        this.watchDocumentRoot = DEFAULT_WATCH_DOCUMENT_ROOT;
+        this.notFoundCacheTtl = DEFAULT_NOT_FOUND_CACHE_TTL;
+        this.notFoundCacheSize = DEFAULT_NOT_FOUND_CACHE_SIZE;
+        this.mimeTypes = DEFAULT_MIME_TYPES;
+        this.headerReadTimeout = DEFAULT_HEADER_READ_TIMEOUT;
+        this.idleTimeout = DEFAULT_IDLE_TIMEOUT;
+        this.writeTimeout = DEFAULT_WRITE_TIMEOUT;
+        this.maxRequestsPerConnection = DEFAULT_MAX_REQUESTS_PER_CONNECTION;
+        this.maxConnectionAge = DEFAULT_MAX_CONNECTION_AGE;
+        this.maxConnections = DEFAULT_MAX_CONNECTIONS;
+        this.listenBacklog = DEFAULT_LISTEN_BACKLOG;
+    }
+
+    /**
+     * Constructs a configuration from the parameters set inside a {@link ConfigurationBuilder}.
+     *
+     * @param builder the builder holding all parameters.
+     */
+    Configuration(ConfigurationBuilder builder) {
+        this.port = builder.port;
+        this.sourcePath = builder.sourcePath;
+        this.rootResource = builder.rootResource;
+        this.workerThreads = builder.workerThreads;
+        this.acceptMode = builder.acceptMode;
+        this.engine = builder.engine;
+        this.requestHandlerThreads = builder.requestHandlerThreads;
+        this.requestQueueCapacity = builder.requestQueueCapacity;
+        this.maxRequestHeaderSize = builder.maxRequestHeaderSize;
+        this.contentCacheSize = builder.contentCacheSize;
+        this.contentCacheMaxFileSize = builder.contentCacheMaxFileSize;
+        this.eTagStrategy = builder.eTagStrategy;
+        this.warmUp = builder.warmUp;
+        this.warmUpPreloadMaxFileSize = builder.warmUpPreloadMaxFileSize;
+        this.warmUpPinnedResources = builder.warmUpPinnedResources;
+        this.watchDocumentRoot = builder.watchDocumentRoot;
+        this.notFoundCacheTtl = builder.notFoundCacheTtl;
+        this.notFoundCacheSize = builder.notFoundCacheSize;
+        this.mimeTypes = builder.mimeTypes;
+        this.headerReadTimeout = builder.headerReadTimeout;
+        this.idleTimeout = builder.idleTimeout;
+        this.writeTimeout = builder.writeTimeout;
+        this.maxRequestsPerConnection = builder.maxRequestsPerConnection;
+        this.maxConnectionAge = builder.maxConnectionAge;
+        this.maxConnections = builder.maxConnections;
+        this.listenBacklog = builder.listenBacklog;
     }
 
     /**
@@ -87,11 +333,120 @@ public class Configuration {
             return DEFAULT;
         }
 
-        int port = (int) values.getOrDefault("port", DEFAULT_PORT);
-        String sourcePath = (String) values.getOrDefault("sourcePath", DEFAULT_SOURCE_PATH);
-        String rootResource = (String) values.getOrDefault("rootResource", DEFAULT_ROOT_RESOURCE);
+        return new ConfigurationBuilder()
+                .setPort((int) values.getOrDefault("port", DEFAULT_PORT))
+                .setSourcePath((String) values.getOrDefault("sourcePath", DEFAULT_SOURCE_PATH))
+                .setRootResource((String) values.getOrDefault("rootResource", DEFAULT_ROOT_RESOURCE))
+                .setWorkerThreads((int) values.getOrDefault("workerThreads", DEFAULT_WORKER_THREADS))
+                .setAcceptMode(parseEnum(values.get("acceptMode"), AcceptMode.class, DEFAULT_ACCEPT_MODE))
+                .setEngine(parseEnum(values.get("engine"), ServerEngine.class, DEFAULT_ENGINE))
+                .setRequestHandlerThreads((int) values.getOrDefault("requestHandlerThreads",
+                        DEFAULT_REQUEST_HANDLER_THREADS))
+                .setRequestQueueCapacity((int) values.getOrDefault("requestQueueCapacity",
+                        DEFAULT_REQUEST_QUEUE_CAPACITY))
+                .setMaxRequestHeaderSize((int) values.getOrDefault("maxRequestHeaderSize",
+                        DEFAULT_MAX_REQUEST_HEADER_SIZE))
+                .setContentCacheSize((int) values.getOrDefault("contentCacheSize", DEFAULT_CONTENT_CACHE_SIZE))
+                .setContentCacheMaxFileSize((int) values.getOrDefault("contentCacheMaxFileSize",
+                        DEFAULT_CONTENT_CACHE_MAX_FILE_SIZE))
+                .setETagStrategy(parseEnum(values.get("eTagStrategy"), ETagStrategy.class, DEFAULT_ETAG_STRATEGY))
+                .setWarmUp((boolean) values.getOrDefault("warmUp", DEFAULT_WARM_UP))
+                .setWarmUpPreloadMaxFileSize((int) values.getOrDefault("warmUpPreloadMaxFileSize",
+                        DEFAULT_WARM_UP_PRELOAD_MAX_FILE_SIZE))
+                .setWarmUpPinnedResources(parseStringList(values.get("warmUpPinnedResources"),
+                        DEFAULT_WARM_UP_PINNED_RESOURCES))
+                .setWatchDocumentRoot((boolean) values.getOrDefault("watchDocumentRoot", DEFAULT_WATCH_DOCUMENT_ROOT))
+                .setNotFoundCacheTtl((int) values.getOrDefault("notFoundCacheTtl", DEFAULT_NOT_FOUND_CACHE_TTL))
+                .setNotFoundCacheSize((int) values.getOrDefault("notFoundCacheSize", DEFAULT_NOT_FOUND_CACHE_SIZE))
+                .setMimeTypes(parseStringMap(values.get("mimeTypes"), DEFAULT_MIME_TYPES))
+                .setHeaderReadTimeout((int) values.getOrDefault("headerReadTimeout", DEFAULT_HEADER_READ_TIMEOUT))
+                .setIdleTimeout((int) values.getOrDefault("idleTimeout", DEFAULT_IDLE_TIMEOUT))
+                .setWriteTimeout((int) values.getOrDefault("writeTimeout", DEFAULT_WRITE_TIMEOUT))
+                .setMaxRequestsPerConnection((int) values.getOrDefault("maxRequestsPerConnection",
+                        DEFAULT_MAX_REQUESTS_PER_CONNECTION))
+                .setMaxConnectionAge((int) values.getOrDefault("maxConnectionAge", DEFAULT_MAX_CONNECTION_AGE))
+                .setMaxConnections((int) values.getOrDefault("maxConnections", DEFAULT_MAX_CONNECTIONS))
+                .setListenBacklog((int) values.getOrDefault("listenBacklog", DEFAULT_LISTEN_BACKLOG))
+                .build();
+    }
+
+    /**
+     * Parses a configuration value into an enum constant. The value is matched case-insensitively,
+     * with dashes being treated like underscores. If the value is missing or does not denote a
+     * constant of the enum, the default value is returned.
+     *
+     * @param value        the raw configuration value.
+     * @param enumType     the class of the enum to parse the value into.
+     * @param defaultValue the value to return if the raw value cannot be parsed.
+     * @param <E>          the type of the enum.
+     * @return the parsed enum constant.
+     */
+    private static <E extends Enum<E>> E parseEnum(Object value, Class<E> enumType, E defaultValue) {
+
+        if (value == null) {
+            return defaultValue;
+        }
+
+        try {
+            return Enum.valueOf(enumType, value.toString().trim().replace('-', '_').toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            Logger.warn("Unknown value {} for {} - using default value {}", value, enumType.getSimpleName(),
+                    defaultValue);
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Parses a configuration value into a list of strings. A single value is treated as a list with one
+     * element. If the value is missing, the default value is returned.
+     *
+     * @param value        the raw configuration value.
+     * @param defaultValue the value to return if the raw value is missing.
+     * @return the parsed list.
+     */
+    private static List<String> parseStringList(Object value, List<String> defaultValue) {
 
-        return new Configuration(port, sourcePath, rootResource);
+        if (value == null) {
+            return defaultValue;
+        }
+
+        if (!(value instanceof List)) {
+            return List.of(value.toString());
+        }
+
+        List<String> strings = new ArrayList<>();
+        for (Object element : (List<?>) value) {
+            if (element != null) {
+                strings.add(element.toString());
+            }
+        }
+        return strings;
+    }
+
+    /**
+     * Parses a configuration value into a map of strings. If the value is missing or is not a map, the
+     * default value is returned.
+     *
+     * @param value        the raw configuration value.
+     * @param defaultValue the value to return if the raw value cannot be parsed.
+     * @return the parsed map.
+     */
+    private static Map<String, String> parseStringMap(Object value, Map<String, String> defaultValue) {
+
+        if (!(value instanceof Map)) {
+            if (value != null) {
+                Logger.warn("Unknown value {} for a map - using default value {}", value, defaultValue);
+            }
+            return defaultValue;
+        }
+
+        Map<String, String> strings = new HashMap<>();
+        for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+            if (entry.getKey() != null && entry.getValue() != null) {
+                strings.put(entry.getKey().toString(), entry.getValue().toString());
+            }
+        }
+        return strings;
     }
 
     /**
@@ -120,4 +475,228 @@ public class Configuration {
     public String getRootResource() {
         return rootResource;
     }
+
+    /**
+     * Returns the number of event loop threads that handle client connections.
+     *
+     * @return the number of worker threads as integer.
+     */
+    public int getWorkerThreads() {
+        return workerThreads;
+    }
+
+    /**
+     * Returns the way in which the server accepts client connections.
+     *
+     * @return the accept mode as enum constant.
+     */
+    public AcceptMode getAcceptMode() {
+        return acceptMode;
+    }
+
+    /**
+     * Returns the I/O model that the server uses to serve client connections.
+     *
+     * @return the server engine as enum constant.
+     */
+    public ServerEngine getEngine() {
+        return engine;
+    }
+
+    /**
+     * Returns the number of threads that requests are handled on, with zero meaning that requests are
+     * handled directly on the event loop threads.
+     *
+     * @return the number of request handler threads as integer.
+     */
+    public int getRequestHandlerThreads() {
+        return requestHandlerThreads;
+    }
+
+    /**
+     * Returns the number of requests that may wait for a free request handler thread before the event
+     * loops stop reading from their clients.
+     *
+     * @return the request queue capacity as integer.
+     */
+    public int getRequestQueueCapacity() {
+        return requestQueueCapacity;
+    }
+
+    /**
+     * Returns the maximum size in bytes of a request line together with all request header entries.
+     * Larger requests are answered with '431 Request Header Fields Too Large'.
+     *
+     * @return the maximum request header size as integer.
+     */
+    public int getMaxRequestHeaderSize() {
+        return maxRequestHeaderSize;
+    }
+
+    /**
+     * Returns the maximum number of bytes of file contents that are cached in memory, with zero meaning that
+     * the content cache is disabled.
+     *
+     * @return the content cache size in bytes.
+     */
+    public int getContentCacheSize() {
+        return contentCacheSize;
+    }
+
+    /**
+     * Returns the maximum size in bytes of a file whose contents are cached in memory. Larger files are
+     * always transferred from the file system.
+     *
+     * @return the maximum cached file size in bytes.
+     */
+    public int getContentCacheMaxFileSize() {
+        return contentCacheMaxFileSize;
+    }
+
+    /**
+     * Returns the way in which the server derives the ETags of files.
+     *
+     * @return the ETag strategy as enum constant.
+     */
+    public ETagStrategy getETagStrategy() {
+        return eTagStrategy;
+    }
+
+    /**
+     * Returns an indicator if the document root is walked before the server accepts requests, indexing the ETags
+     * of all files and preloading the contents of selected files into the content cache.
+     *
+     * @return a boolean indicating if warm-up is enabled.
+     */
+    public boolean isWarmUpEnabled() {
+        return warmUp;
+    }
+
+    /**
+     * Returns the maximum size in bytes of a file whose contents are preloaded into the content cache during
+     * warm-up, with zero meaning that files are only preloaded if they are pinned.
+     *
+     * @return the maximum preloaded file size in bytes.
+     */
+    public int getWarmUpPreloadMaxFileSize() {
+        return warmUpPreloadMaxFileSize;
+    }
+
+    /**
+     * Returns the resources whose contents are preloaded into the content cache during warm-up regardless of
+     * their size, as long as they fit into the content cache, given as paths relative to the source path.
+     *
+     * @return the pinned resources as unmodifiable list.
+     */
+    public List<String> getWarmUpPinnedResources() {
+        return warmUpPinnedResources;
+    }
+
+    /**
+     * Returns an indicator if the document root is watched for changes, so that the existence and freshness of
+     * requested files are checked against an index in memory instead of the file system.
+     *
+     * @return a boolean indicating if the document root is watched.
+     */
+    public boolean isDocumentRootWatched() {
+        return watchDocumentRoot;
+    }
+
+    /**
+     * Returns the time in milliseconds for which a requested resource that does not exist is remembered, so that
+     * repeated requests for it are answered without reading the file system. Zero disables remembering.
+     *
+     * @return the time to live of missing resources in milliseconds.
+     */
+    public int getNotFoundCacheTtl() {
+        return notFoundCacheTtl;
+    }
+
+    /**
+     * Returns the maximum number of missing resources that are remembered at the same time.
+     *
+     * @return the maximum number of remembered missing resources.
+     */
+    public int getNotFoundCacheSize() {
+        return notFoundCacheSize;
+    }
+
+    /**
+     * Returns the mappings of file extensions to content types that extend or override the built-in MIME type table.
+     *
+     * @return the mappings as map of file extensions to content types.
+     */
+    public Map<String, String> getMimeTypes() {
+        return mimeTypes;
+    }
+
+    /**
+     * Returns the time in milliseconds in which a client has to send the complete header section of a request once it
+     * sent its first byte, with zero meaning no limit.
+     *
+     * @return the header read timeout in milliseconds.
+     */
+    public int getHeaderReadTimeout() {
+        return headerReadTimeout;
+    }
+
+    /**
+     * Returns the time in milliseconds after which a connection without a pending request or response is closed, with
+     * zero meaning no limit.
+     *
+     * @return the idle timeout in milliseconds.
+     */
+    public int getIdleTimeout() {
+        return idleTimeout;
+    }
+
+    /**
+     * Returns the time in milliseconds after which a connection is closed if its client does not accept any more bytes
+     * of a pending response, with zero meaning no limit.
+     *
+     * @return the write timeout in milliseconds.
+     */
+    public int getWriteTimeout() {
+        return writeTimeout;
+    }
+
+    /**
+     * Returns the maximum number of requests answered over a single connection before it is closed, with zero
+     * meaning no limit.
+     *
+     * @return the maximum number of requests per connection.
+     */
+    public int getMaxRequestsPerConnection() {
+        return maxRequestsPerConnection;
+    }
+
+    /**
+     * Returns the time in milliseconds after which a connection is closed once its current response is written,
+     * with zero meaning no limit.
+     *
+     * @return the maximum connection age in milliseconds.
+     */
+    public int getMaxConnectionAge() {
+        return maxConnectionAge;
+    }
+
+    /**
+     * Returns the maximum number of concurrently open client connections, with zero meaning no limit. Once the limit is
+     * reached, the server stops accepting connections until 90% of the maximum are open again.
+     *
+     * @return the maximum number of open connections.
+     */
+    public int getMaxConnections() {
+        return maxConnections;
+    }
+
+    /**
+     * Returns the maximum number of pending connections queued by the kernel for the server socket, with zero meaning
+     * the default of the platform. The kernel may cap the value, e.g. by somaxconn on Linux.
+     *
+     * @return the listen backlog.
+     */
+    public int getListenBacklog() {
+        return listenBacklog;
+    }
 }
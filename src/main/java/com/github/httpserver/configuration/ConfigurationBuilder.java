@@ -0,0 +1,388 @@
+package com.github.httpserver.configuration;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * ConfigurationBuilder is a builder class for the application configuration. All parameters
+ * are initialized with their default values, so that only the parameters deviating from the
+ * defaults have to be set explicitly.
+ */
+public class ConfigurationBuilder {
+
+    int port;
+    String sourcePath;
+    String rootResource;
+    int workerThreads;
+    AcceptMode acceptMode;
+    ServerEngine engine;
+    int requestHandlerThreads;
+    int requestQueueCapacity;
+    int maxRequestHeaderSize;
+    int contentCacheSize;
+    int contentCacheMaxFileSize;
+    ETagStrategy eTagStrategy;
+    boolean warmUp;
+    int warmUpPreloadMaxFileSize;
+    List<String> warmUpPinnedResources;
+    boolean watchDocumentRoot;
+    int notFoundCacheTtl;
+    int notFoundCacheSize;
+    Map<String, String> mimeTypes;
+    int headerReadTimeout;
+    int idleTimeout;
+    int writeTimeout;
+    int maxRequestsPerConnection;
+    int maxConnectionAge;
+    int maxConnections;
+    int listenBacklog;
+
+    /**
+     * Constructs a new configuration builder and sets the default values for all parameters.
+     */
+    public ConfigurationBuilder() {
+        this.port = Configuration.DEFAULT_PORT;
+        this.sourcePath = Configuration.DEFAULT_SOURCE_PATH;
+        this.rootResource = Configuration.DEFAULT_ROOT_RESOURCE;
+        this.workerThreads = Configuration.DEFAULT_WORKER_THREADS;
+        this.acceptMode = Configuration.DEFAULT_ACCEPT_MODE;
+        this.engine = Configuration.DEFAULT_ENGINE;
+        this.requestHandlerThreads = Configuration.DEFAULT_REQUEST_HANDLER_THREADS;
+        this.requestQueueCapacity = Configuration.DEFAULT_REQUEST_QUEUE_CAPACITY;
+        this.maxRequestHeaderSize = Configuration.DEFAULT_MAX_REQUEST_HEADER_SIZE;
+        this.contentCacheSize = Configuration.DEFAULT_CONTENT_CACHE_SIZE;
+        this.contentCacheMaxFileSize = Configuration.DEFAULT_CONTENT_CACHE_MAX_FILE_SIZE;
+        this.eTagStrategy = Configuration.DEFAULT_ETAG_STRATEGY;
+        this.warmUp = Configuration.DEFAULT_WARM_UP;
+        this.warmUpPreloadMaxFileSize = Configuration.DEFAULT_WARM_UP_PRELOAD_MAX_FILE_SIZE;
+        this.warmUpPinnedResources = Configuration.DEFAULT_WARM_UP_PINNED_RESOURCES;
+        this.watchDocumentRoot = Configuration.DEFAULT_WATCH_DOCUMENT_ROOT;
+        this.notFoundCacheTtl = Configuration.DEFAULT_NOT_FOUND_CACHE_TTL;
+        this.notFoundCacheSize = Configuration.DEFAULT_NOT_FOUND_CACHE_SIZE;
+        this.mimeTypes = Configuration.DEFAULT_MIME_TYPES;
+        this.headerReadTimeout = Configuration.DEFAULT_HEADER_READ_TIMEOUT;
+        this.idleTimeout = Configuration.DEFAULT_IDLE_TIMEOUT;
+        this.writeTimeout = Configuration.DEFAULT_WRITE_TIMEOUT;
+        this.maxRequestsPerConnection = Configuration.DEFAULT_MAX_REQUESTS_PER_CONNECTION;
+        this.maxConnectionAge = Configuration.DEFAULT_MAX_CONNECTION_AGE;
+        this.maxConnections = Configuration.DEFAULT_MAX_CONNECTIONS;
+        this.listenBacklog = Configuration.DEFAULT_LISTEN_BACKLOG;
+    }
+
+    /**
+     * Sets the port at which the server is started.
+     *
+     * @param port the port as integer.
+     * @return the builder.
+     */
+    public ConfigurationBuilder setPort(int port) {
+        this.port = port;
+        return this;
+    }
+
+    /**
+     * Sets the path from where the server serves static files via HTTP.
+     *
+     * @param sourcePath the source path as string.
+     * @return the builder.
+     */
+    public ConfigurationBuilder setSourcePath(String sourcePath) {
+        this.sourcePath = sourcePath;
+        return this;
+    }
+
+    /**
+     * Sets the resource that the server returns in case that "/" is requested by the client.
+     *
+     * @param rootResource the root resource as string.
+     * @return the builder.
+     */
+    public ConfigurationBuilder setRootResource(String rootResource) {
+        this.rootResource = rootResource;
+        return this;
+    }
+
+    /**
+     * Sets the number of event loop threads that handle client connections.
+     *
+     * @param workerThreads the number of worker threads. Values smaller than one are treated as one.
+     * @return the builder.
+     */
+    public ConfigurationBuilder setWorkerThreads(int workerThreads) {
+        this.workerThreads = Math.max(1, workerThreads);
+        return this;
+    }
+
+    /**
+     * Sets the way in which the server accepts client connections.
+     *
+     * @param acceptMode the accept mode as enum constant.
+     * @return the builder.
+     * @throws NullPointerException if the passed accept mode is null.
+     */
+    public ConfigurationBuilder setAcceptMode(AcceptMode acceptMode) {
+        this.acceptMode = Objects.requireNonNull(acceptMode);
+        return this;
+    }
+
+    /**
+     * Sets the I/O model that the server uses to serve client connections.
+     *
+     * @param engine the server engine as enum constant.
+     * @return the builder.
+     * @throws NullPointerException if the passed engine is null.
+     */
+    public ConfigurationBuilder setEngine(ServerEngine engine) {
+        this.engine = Objects.requireNonNull(engine);
+        return this;
+    }
+
+    /**
+     * Sets the number of threads that requests are handled on, with zero meaning that requests are
+     * handled directly on the event loop threads.
+     *
+     * @param requestHandlerThreads the number of request handler threads. Negative values are treated as zero.
+     * @return the builder.
+     */
+    public ConfigurationBuilder setRequestHandlerThreads(int requestHandlerThreads) {
+        this.requestHandlerThreads = Math.max(0, requestHandlerThreads);
+        return this;
+    }
+
+    /**
+     * Sets the number of requests that may wait for a free request handler thread before the event
+     * loops stop reading from their clients.
+     *
+     * @param requestQueueCapacity the request queue capacity. Values smaller than one are treated as one.
+     * @return the builder.
+     */
+    public ConfigurationBuilder setRequestQueueCapacity(int requestQueueCapacity) {
+        this.requestQueueCapacity = Math.max(1, requestQueueCapacity);
+        return this;
+    }
+
+    /**
+     * Sets the maximum size in bytes of a request line together with all request header entries.
+     *
+     * @param maxRequestHeaderSize the maximum request header size. Values smaller than one are treated as one.
+     * @return the builder.
+     */
+    public ConfigurationBuilder setMaxRequestHeaderSize(int maxRequestHeaderSize) {
+        this.maxRequestHeaderSize = Math.max(1, maxRequestHeaderSize);
+        return this;
+    }
+
+    /**
+     * Sets the maximum number of bytes of file contents that are cached in memory, with zero meaning that
+     * file contents are not cached.
+     *
+     * @param contentCacheSize the content cache size in bytes. Negative values are treated as zero.
+     * @return the builder.
+     */
+    public ConfigurationBuilder setContentCacheSize(int contentCacheSize) {
+        this.contentCacheSize = Math.max(0, contentCacheSize);
+        return this;
+    }
+
+    /**
+     * Sets the maximum size in bytes of a file whose contents are cached in memory.
+     *
+     * @param contentCacheMaxFileSize the maximum cached file size in bytes. Negative values are treated as zero.
+     * @return the builder.
+     */
+    public ConfigurationBuilder setContentCacheMaxFileSize(int contentCacheMaxFileSize) {
+        this.contentCacheMaxFileSize = Math.max(0, contentCacheMaxFileSize);
+        return this;
+    }
+
+    /**
+     * Sets the way in which the server derives the ETags of files.
+     *
+     * @param eTagStrategy the ETag strategy as enum constant.
+     * @return the builder.
+     * @throws NullPointerException if the passed ETag strategy is null.
+     */
+    public ConfigurationBuilder setETagStrategy(ETagStrategy eTagStrategy) {
+        this.eTagStrategy = Objects.requireNonNull(eTagStrategy);
+        return this;
+    }
+
+    /**
+     * Sets whether the document root is walked before the server accepts requests, indexing the ETags of
+     * all files and preloading the contents of selected files into the content cache.
+     *
+     * @param warmUp a boolean indicating if warm-up is enabled.
+     * @return the builder.
+     */
+    public ConfigurationBuilder setWarmUp(boolean warmUp) {
+        this.warmUp = warmUp;
+        return this;
+    }
+
+    /**
+     * Sets the maximum size in bytes of a file whose contents are preloaded into the content cache during
+     * warm-up, with zero meaning that files are only preloaded if they are pinned.
+     *
+     * @param warmUpPreloadMaxFileSize the maximum preloaded file size in bytes. Negative values are treated as zero.
+     * @return the builder.
+     */
+    public ConfigurationBuilder setWarmUpPreloadMaxFileSize(int warmUpPreloadMaxFileSize) {
+        this.warmUpPreloadMaxFileSize = Math.max(0, warmUpPreloadMaxFileSize);
+        return this;
+    }
+
+    /**
+     * Sets the resources whose contents are preloaded into the content cache during warm-up regardless of
+     * their size, given as paths relative to the source path.
+     *
+     * @param warmUpPinnedResources the pinned resources as list of paths.
+     * @return the builder.
+     * @throws NullPointerException if the passed list of resources is null.
+     */
+    public ConfigurationBuilder setWarmUpPinnedResources(List<String> warmUpPinnedResources) {
+        this.warmUpPinnedResources = List.copyOf(warmUpPinnedResources);
+        return this;
+    }
+
+    /**
+     * Sets whether the document root is watched for changes, so that the existence and freshness of requested
+     * files are checked against an index in memory instead of the file system.
+     *
+     * @param watchDocumentRoot a boolean indicating if the document root is watched.
+     * @return the builder.
+     */
+    public ConfigurationBuilder setWatchDocumentRoot(boolean watchDocumentRoot) {
+        this.watchDocumentRoot = watchDocumentRoot;
+        return this;
+    }
+
+    /**
+     * Sets the time in milliseconds for which a requested resource that does not exist is remembered, with
+     * zero meaning that missing resources are not remembered.
+     *
+     * @param notFoundCacheTtl the time to live of missing resources in milliseconds. Negative values are treated
+     *                         as zero.
+     * @return the builder.
+     */
+    public ConfigurationBuilder setNotFoundCacheTtl(int notFoundCacheTtl) {
+        this.notFoundCacheTtl = Math.max(0, notFoundCacheTtl);
+        return this;
+    }
+
+    /**
+     * Sets the maximum number of missing resources that are remembered at the same time.
+     *
+     * @param notFoundCacheSize the maximum number of remembered missing resources. Negative values are treated as zero.
+     * @return the builder.
+     */
+    public ConfigurationBuilder setNotFoundCacheSize(int notFoundCacheSize) {
+        this.notFoundCacheSize = Math.max(0, notFoundCacheSize);
+        return this;
+    }
+
+    /**
+     * Sets the mappings of file extensions to content types that extend or override the built-in MIME type table.
+     *
+     * @param mimeTypes the mappings as map of file extensions, e.g. "html", to content types.
+     * @return the builder.
+     * @throws NullPointerException if the passed map of mappings is null.
+     */
+    public ConfigurationBuilder setMimeTypes(Map<String, String> mimeTypes) {
+        this.mimeTypes = Map.copyOf(mimeTypes);
+        return this;
+    }
+
+    /**
+     * Sets the time in milliseconds in which a client has to send the complete header section of a request once it sent
+     * its first byte, with zero meaning no limit.
+     *
+     * @param headerReadTimeout the header read timeout in milliseconds. Negative values are treated as zero.
+     * @return the builder.
+     */
+    public ConfigurationBuilder setHeaderReadTimeout(int headerReadTimeout) {
+        this.headerReadTimeout = Math.max(0, headerReadTimeout);
+        return this;
+    }
+
+    /**
+     * Sets the time in milliseconds after which a connection without a pending request or response is closed, with zero
+     * meaning no limit.
+     *
+     * @param idleTimeout the idle timeout in milliseconds. Negative values are treated as zero.
+     * @return the builder.
+     */
+    public ConfigurationBuilder setIdleTimeout(int idleTimeout) {
+        this.idleTimeout = Math.max(0, idleTimeout);
+        return this;
+    }
+
+    /**
+     * Sets the time in milliseconds after which a connection is closed if its client does not accept any more bytes of
+     * a pending response, with zero meaning no limit.
+     *
+     * @param writeTimeout the write timeout in milliseconds. Negative values are treated as zero.
+     * @return the builder.
+     */
+    public ConfigurationBuilder setWriteTimeout(int writeTimeout) {
+        this.writeTimeout = Math.max(0, writeTimeout);
+        return this;
+    }
+
+    /**
+     * Sets the maximum number of requests answered over a single connection before it is closed, with zero meaning
+     * no limit.
+     *
+     * @param maxRequestsPerConnection the maximum number of requests per connection. Negative values are treated
+     * as zero.
+     * @return the builder.
+     */
+    public ConfigurationBuilder setMaxRequestsPerConnection(int maxRequestsPerConnection) {
+        this.maxRequestsPerConnection = Math.max(0, maxRequestsPerConnection);
+        return this;
+    }
+
+    /**
+     * Sets the time in milliseconds after which a connection is closed once its current response is written, with
+     * zero meaning no limit.
+     *
+     * @param maxConnectionAge the maximum connection age in milliseconds. Negative values are treated as zero.
+     * @return the builder.
+     */
+    public ConfigurationBuilder setMaxConnectionAge(int maxConnectionAge) {
+        this.maxConnectionAge = Math.max(0, maxConnectionAge);
+        return this;
+    }
+
+    /**
+     * Sets the maximum number of concurrently open client connections, with zero meaning no limit.
+     *
+     * @param maxConnections the maximum number of open connections. Negative values are treated as zero.
+     * @return the builder.
+     */
+    public ConfigurationBuilder setMaxConnections(int maxConnections) {
+        this.maxConnections = Math.max(0, maxConnections);
+        return this;
+    }
+
+    /**
+     * Sets the maximum number of pending connections queued by the kernel for the server socket, with zero meaning the
+     * default of the platform.
+     *
+     * @param listenBacklog the listen backlog. Negative values are treated as zero.
+     * @return the builder.
+     */
+    public ConfigurationBuilder setListenBacklog(int listenBacklog) {
+        this.listenBacklog = Math.max(0, listenBacklog);
+        return this;
+    }
+
+    /**
+     * Builds the configuration from the parameters set inside the builder.
+     *
+     * @return the configuration constructed from the builder.
+     */
+    public Configuration build() {
+        return new Configuration(this);
+    }
+}
@@ -0,0 +1,21 @@
+package com.github.httpserver.configuration;
+
+/**
+ * ETagStrategy holds constants for the possible ways in which the server derives the ETags of files.
+ */
+public enum ETagStrategy {
+    /**
+     * A strong ETag is calculated as cryptographic hash of the file contents.
+     */
+    CONTENT_HASH,
+    /**
+     * A strong ETag is calculated as fast, non-cryptographic hash of the file contents. Large files are
+     * hashed in parallel chunks.
+     */
+    FAST_HASH,
+    /**
+     * A weak ETag is built from the size, last modified time and file key (e.g. the inode) of the file,
+     * without reading the file contents.
+     */
+    METADATA
+}
@@ -0,0 +1,16 @@
+package com.github.httpserver.configuration;
+
+/**
+ * ServerEngine holds constants for the possible I/O models that the server uses to serve client connections.
+ */
+public enum ServerEngine {
+    /**
+     * Client connections are multiplexed onto a fixed number of NIO selector event loops.
+     */
+    SELECTOR,
+    /**
+     * Every client connection is served with blocking I/O on a thread of its own. Virtual threads are
+     * used if the Java runtime supports them.
+     */
+    THREAD_PER_CONNECTION
+}
@@ -13,6 +13,16 @@ public class BadRequestException extends HttpException {
 
     private static final HttpStatus STATUS = HttpStatus.HTTP_BAD_REQUEST;
 
+    /**
+     * Constructs a new Bad Request exception by taking a message.
+     *
+     * @param message the message of the exception. This message will be included in the
+     *                body of the HTTP response model constructed by this class.
+     */
+    public BadRequestException(String message) {
+        super(message);
+    }
+
     /**
      * Constructs a new Bad Request exception by taking a message and a cause exception.
      *
@@ -36,6 +36,18 @@ public abstract class HttpException extends Exception {
         super(message);
     }
 
+    /**
+     * Constructs an HTTP exception by taking an error message, without capturing a stack trace. Such
+     * exceptions are cheap to create and are meant for error conditions that are expected to occur
+     * frequently.
+     *
+     * @param message            the message of the exception.
+     * @param writableStackTrace whether the stack trace is captured.
+     */
+    protected HttpException(String message, boolean writableStackTrace) {
+        super(message, null, false, writableStackTrace);
+    }
+
     /**
      * Constructs an HTTP exception without cause exception or message.
      */
@@ -13,6 +13,24 @@ public class NotFoundException extends HttpException {
 
     private static final HttpStatus STATUS = HttpStatus.HTTP_NOT_FOUND;
 
+    /**
+     * The body of responses to requests for missing resources, which is built only once and shared by
+     * all of these responses.
+     */
+    private static final byte[] GENERIC_BODY = new HttpResponseBuilder()
+            .appendBodyAsHTML("h1", STATUS.toString())
+            .build()
+            .getBody();
+
+    /**
+     * Constructs an exception for a missing resource without a specific message. The exception does not
+     * capture a stack trace and is converted into a response with a prebuilt body, so that answering
+     * requests for missing resources is cheap.
+     */
+    public NotFoundException() {
+        super(null, false);
+    }
+
     public NotFoundException(String message) {
         super(message);
     }
@@ -27,10 +45,20 @@ public class NotFoundException extends HttpException {
 
     /**
      * {@inheritDoc}
-     * A general exception message for this error is included in the body.
+     * A general exception message for this error is included in the body. If the exception has no specific
+     * message, the prebuilt body is used.
      */
     @Override
     public HttpResponse toHttpResponse() {
+
+        if (getMessage() == null) {
+            return new HttpResponseBuilder()
+                    .setStatus(STATUS)
+                    .setBody(GENERIC_BODY)
+                    .appendContentLengthHeader()
+                    .build();
+        }
+
         return new HttpResponseBuilder()
                 .setStatus(STATUS)
                 .appendBodyAsHTML("h1", STATUS.toString())
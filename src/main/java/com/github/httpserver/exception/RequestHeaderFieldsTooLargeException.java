@@ -0,0 +1,47 @@
+package com.github.httpserver.exception;
+
+import com.github.httpserver.helper.HttpResponseBuilder;
+import com.github.httpserver.protocol.HttpResponse;
+import com.github.httpserver.protocol.HttpStatus;
+
+/**
+ * RequestHeaderFieldsTooLargeException represents the HTTP error condition 'HTTP 431 Request Header Fields Too Large'
+ * at the server side and contains an utility function to create a corresponding HTTP response model to be
+ * returned to the client.
+ */
+public class RequestHeaderFieldsTooLargeException extends HttpException {
+
+    private static final HttpStatus STATUS = HttpStatus.HTTP_REQUEST_HEADER_FIELDS_TOO_LARGE;
+
+    /**
+     * Constructs a new Request Header Fields Too Large exception by taking the maximum allowed size
+     * of the request header section.
+     *
+     * @param maxHeaderSize the maximum allowed size of the request header section in bytes.
+     */
+    public RequestHeaderFieldsTooLargeException(int maxHeaderSize) {
+        super(String.format("The request header section exceeds the limit of %d bytes", maxHeaderSize));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public HttpStatus getHttpStatus() {
+        return STATUS;
+    }
+
+    /**
+     * {@inheritDoc}
+     * A general exception message for this error is included in the body.
+     */
+    @Override
+    public HttpResponse toHttpResponse() {
+        return new HttpResponseBuilder()
+                .setStatus(STATUS)
+                .appendBodyAsHTML("h1", STATUS.toString())
+                .appendBodyAsHTML("p", getMessage())
+                .appendContentLengthHeader()
+                .build();
+    }
+}
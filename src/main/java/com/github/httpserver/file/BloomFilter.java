@@ -0,0 +1,90 @@
+package com.github.httpserver.file;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * BloomFilter is a probabilistic set of strings. A lookup may report that a string is contained although it
+ * was never added (false positive), but never reports that an added string is not contained. Strings cannot be
+ * removed. The bit positions of a string are derived from its hash code by double hashing.
+ * <p>
+ * Lookups and additions may happen concurrently. A string becomes visible to lookups once its addition has
+ * returned.
+ */
+final class BloomFilter {
+
+    private final AtomicLongArray bits;
+    private final long bitCount;
+    private final int hashCount;
+
+    /**
+     * Constructs an empty bloom filter that is sized for the given number of strings and false positive
+     * probability.
+     *
+     * @param expectedSize             the number of strings that are expected to be added.
+     * @param falsePositiveProbability the probability of false positives once the expected number of strings
+     *                                 has been added.
+     */
+    BloomFilter(int expectedSize, double falsePositiveProbability) {
+        int size = Math.max(1, expectedSize);
+        long optimalBits = (long) Math.ceil(-size * Math.log(falsePositiveProbability) / (Math.log(2) * Math.log(2)));
+        int words = (int) Math.max(1, (optimalBits + Long.SIZE - 1) / Long.SIZE);
+
+        this.bits = new AtomicLongArray(words);
+        this.bitCount = (long) words * Long.SIZE;
+        this.hashCount = (int) Math.max(1, Math.round((double) bitCount / size * Math.log(2)));
+    }
+
+    /**
+     * Adds a string to the filter.
+     *
+     * @param value the string to be added.
+     */
+    void add(String value) {
+        long hash = mix(value.hashCode());
+        int hash1 = (int) hash;
+        int hash2 = (int) (hash >>> 32);
+
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Integer.toUnsignedLong(hash1 + i * hash2) % bitCount;
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+
+            long current = bits.get(word);
+            while ((current & mask) == 0 && !bits.compareAndSet(word, current, current | mask)) {
+                current = bits.get(word);
+            }
+        }
+    }
+
+    /**
+     * Indicates if a string might have been added to the filter.
+     *
+     * @param value the string to be looked up.
+     * @return false if the string has definitely not been added, true if it might have been added.
+     */
+    boolean mightContain(String value) {
+        long hash = mix(value.hashCode());
+        int hash1 = (int) hash;
+        int hash2 = (int) (hash >>> 32);
+
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Integer.toUnsignedLong(hash1 + i * hash2) % bitCount;
+            if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Spreads a 32-bit hash code over 64 bits with the finalizer of MurmurHash3.
+     */
+    private static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xFF51AFD7ED558CCDL;
+        hash ^= hash >>> 33;
+        hash *= 0xC4CEB9FE1A85EC53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
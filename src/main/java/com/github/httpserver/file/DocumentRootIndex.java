@@ -0,0 +1,366 @@
+package com.github.httpserver.file;
+
+import org.tinylog.Logger;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileVisitOption;
+import java.nio.file.FileVisitResult;
+import java.nio.file.FileVisitor;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * DocumentRootIndex keeps the attributes of all files and directories below the document root in memory, so
+ * that requests can be checked for existence and freshness without a system call per request. Once started,
+ * the index is kept up to date by a background thread that watches every directory of the document root with
+ * a {@link WatchService}, which is backed by inotify on Linux. If the watch service reports that events were
+ * lost, the whole document root is scanned again.
+ * <p>
+ * Symbolic links are followed, so that the files below a linked directory are indexed and watched by the path
+ * of the link, while links forming a cycle are skipped. Since the target of a linked file may be located in a
+ * directory that is not watched, the attributes of linked files are always read from the file system. A
+ * directory that is reachable by more than one path shares a single watch key, whose events are applied to
+ * all of its paths.
+ * <p>
+ * Whenever a file is created, modified or deleted, the registered listeners are notified with the path of
+ * the file, so that caches holding information about the file can invalidate it. Since file system events are
+ * delivered asynchronously, a change becomes visible to the index shortly after it happened.
+ * <p>
+ * As long as the index is not started, or for paths outside of the document root, attributes are read from
+ * the file system. Paths inside the document root are looked up exactly as they were produced by resolving
+ * the document root, so that paths containing '.' or '..' segments are not found. The index can be shared by
+ * all threads of the server.
+ */
+public class DocumentRootIndex implements Closeable {
+
+    private final Path documentRoot;
+    private final Map<Path, BasicFileAttributes> entries;
+    private final Set<Path> linkedFiles;
+    private final Map<WatchKey, Set<Path>> watchedDirectories;
+    private final List<Consumer<Path>> listeners;
+    private WatchService watchService;
+    private volatile boolean live;
+
+    /**
+     * Constructs a new index of the given document root. The index is empty until it is started.
+     *
+     * @param documentRoot the directory from where static files are served.
+     * @throws NullPointerException if the passed document root is null.
+     */
+    public DocumentRootIndex(Path documentRoot) {
+        this.documentRoot = Objects.requireNonNull(documentRoot);
+        this.entries = new ConcurrentHashMap<>();
+        this.linkedFiles = ConcurrentHashMap.newKeySet();
+        this.watchedDirectories = new ConcurrentHashMap<>();
+        this.listeners = new CopyOnWriteArrayList<>();
+    }
+
+    /**
+     * Adds a listener that is notified with the path of every file that was created, modified or deleted.
+     * Listeners are called on the watcher thread and should return quickly.
+     *
+     * @param listener the listener to be added.
+     */
+    public void addListener(Consumer<Path> listener) {
+        listeners.add(Objects.requireNonNull(listener));
+    }
+
+    /**
+     * Scans the document root, registers all of its directories with a watch service and starts the
+     * background thread keeping the index up to date. The index answers lookups from memory once this method
+     * returns.
+     *
+     * @throws IOException if the watch service cannot be created or the document root cannot be scanned.
+     */
+    public synchronized void start() throws IOException {
+
+        if (watchService != null) {
+            throw new IllegalStateException("The document root index is already started");
+        }
+
+        watchService = documentRoot.getFileSystem().newWatchService();
+        entries.putAll(scan(documentRoot));
+
+        Thread watcherThread = new Thread(this::watch, "document-root-watcher");
+        watcherThread.setDaemon(true);
+        watcherThread.start();
+
+        live = true;
+        Logger.debug("Watching {} files and directories below {}", entries.size(), documentRoot);
+    }
+
+    /**
+     * Indicates if the index is started and answers lookups from memory.
+     *
+     * @return a boolean indicating if the index is live.
+     */
+    public boolean isLive() {
+        return live;
+    }
+
+    /**
+     * Returns the attributes of a file. If the index is live and the file is located below the document
+     * root, the attributes are looked up in memory. Otherwise, or if the file is a symbolic link, they are read
+     * from the file system.
+     *
+     * @param file the path of the file.
+     * @return the attributes of the file.
+     * @throws NoSuchFileException if the file does not exist.
+     * @throws IOException         if the attributes cannot be read from the file system.
+     */
+    public BasicFileAttributes readAttributes(Path file) throws IOException {
+
+        if (!live || !file.startsWith(documentRoot) || linkedFiles.contains(file)) {
+            return Files.readAttributes(file, BasicFileAttributes.class);
+        }
+
+        BasicFileAttributes attributes = entries.get(file);
+
+        if (attributes == null) {
+            throw new NoSuchFileException(file.toString());
+        }
+
+        return attributes;
+    }
+
+    /**
+     * Returns the paths of all indexed files and directories. The returned set is a live view of the index.
+     *
+     * @return the indexed paths.
+     */
+    public Set<Path> getPaths() {
+        return Collections.unmodifiableSet(entries.keySet());
+    }
+
+    /**
+     * Returns the number of indexed files and directories.
+     *
+     * @return the size of the index.
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Stops watching the document root. Subsequent lookups read attributes from the file system.
+     *
+     * @throws IOException if the watch service cannot be closed.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        live = false;
+
+        if (watchService != null) {
+            watchService.close();
+        }
+    }
+
+    /**
+     * Processes file system events until the watch service is closed.
+     */
+    private void watch() {
+
+        while (true) {
+            WatchKey key;
+
+            try {
+                key = watchService.take();
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                return;
+            }
+
+            Set<Path> directories = watchedDirectories.get(key);
+            boolean overflow = false;
+
+            for (WatchEvent<?> event : key.pollEvents()) {
+                if (event.kind() == StandardWatchEventKinds.OVERFLOW || directories == null) {
+                    overflow = true;
+                    continue;
+                }
+
+                for (Path directory : directories) {
+                    if (event.kind() == StandardWatchEventKinds.ENTRY_DELETE) {
+                        removeTree(directory.resolve((Path) event.context()));
+                    } else {
+                        refresh(directory.resolve((Path) event.context()));
+                    }
+                }
+            }
+
+            if (!key.reset()) {
+                watchedDirectories.remove(key);
+            }
+
+            if (overflow) {
+                rescan();
+            }
+        }
+    }
+
+    /**
+     * Reads the current attributes of a created or modified file. A created directory is scanned, since
+     * files may have been added to it before it was registered with the watch service.
+     */
+    private void refresh(Path file) {
+
+        BasicFileAttributes attributes;
+
+        try {
+            attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        } catch (NoSuchFileException e) {
+            removeTree(file);
+            return;
+        } catch (IOException e) {
+            Logger.debug("Unable to read attributes of {}: {}", file, e.getMessage());
+            return;
+        }
+
+        if (attributes.isDirectory() && !entries.containsKey(file)) {
+            try {
+                Map<Path, BasicFileAttributes> scanned = scan(file);
+                entries.putAll(scanned);
+                scanned.keySet().forEach(this::notifyListeners);
+            } catch (IOException e) {
+                Logger.warn("Unable to scan directory {}: {}", file, e.getMessage());
+            }
+            return;
+        }
+
+        if (Files.isSymbolicLink(file)) {
+            linkedFiles.add(file);
+        } else {
+            linkedFiles.remove(file);
+        }
+
+        entries.put(file, attributes);
+        notifyListeners(file);
+    }
+
+    /**
+     * Removes a deleted file, or a deleted directory together with everything below it.
+     */
+    private void removeTree(Path file) {
+
+        List<Path> removed = new ArrayList<>();
+        entries.keySet().removeIf(path -> path.startsWith(file) && removed.add(path));
+        linkedFiles.removeIf(path -> path.startsWith(file));
+        watchedDirectories.values().forEach(directories -> directories.removeIf(path -> path.startsWith(file)));
+
+        removed.forEach(this::notifyListeners);
+    }
+
+    /**
+     * Scans the whole document root again after events were lost and notifies the listeners of every file
+     * that was created, modified or deleted in the meantime.
+     */
+    private void rescan() {
+
+        Logger.debug("File system events of {} were lost - scanning it again", documentRoot);
+
+        Map<Path, BasicFileAttributes> scanned;
+
+        try {
+            scanned = scan(documentRoot);
+        } catch (IOException e) {
+            Logger.warn("Unable to scan document root {}: {}", documentRoot, e.getMessage());
+            return;
+        }
+
+        List<Path> changed = new ArrayList<>();
+
+        for (Map.Entry<Path, BasicFileAttributes> entry : entries.entrySet()) {
+            BasicFileAttributes current = scanned.get(entry.getKey());
+            if (current == null || !sameVersion(entry.getValue(), current)) {
+                changed.add(entry.getKey());
+            }
+        }
+
+        for (Path path : scanned.keySet()) {
+            if (!entries.containsKey(path)) {
+                changed.add(path);
+            }
+        }
+
+        entries.keySet().retainAll(scanned.keySet());
+        entries.putAll(scanned);
+        linkedFiles.retainAll(scanned.keySet());
+
+        changed.forEach(this::notifyListeners);
+    }
+
+    /**
+     * Collects the attributes of a directory and everything below it into a new map, registering every
+     * directory with the watch service. Symbolic links are followed and linked files are remembered, so that
+     * their attributes are read from the file system.
+     *
+     * @return the attributes of the scanned files and directories by their path.
+     */
+    private Map<Path, BasicFileAttributes> scan(Path directory) throws IOException {
+
+        Map<Path, BasicFileAttributes> scanned = new HashMap<>();
+
+        FileVisitor<Path> visitor = new SimpleFileVisitor<>() {
+
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attributes) throws IOException {
+                WatchKey key = dir.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                        StandardWatchEventKinds.ENTRY_DELETE, StandardWatchEventKinds.ENTRY_MODIFY);
+                watchedDirectories.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet()).add(dir);
+                scanned.put(dir, attributes);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) {
+
+                if (Files.isSymbolicLink(file)) {
+                    linkedFiles.add(file);
+                }
+
+                scanned.put(file, attributes);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed(Path file, IOException e) {
+                // also reached for links to missing targets and for links forming a cycle
+                Logger.debug("Unable to read attributes of {}: {}", file, e.getMessage());
+                return FileVisitResult.CONTINUE;
+            }
+        };
+
+        Files.walkFileTree(directory, EnumSet.of(FileVisitOption.FOLLOW_LINKS), Integer.MAX_VALUE, visitor);
+
+        return scanned;
+    }
+
+    private void notifyListeners(Path file) {
+        for (Consumer<Path> listener : listeners) {
+            listener.accept(file);
+        }
+    }
+
+    private static boolean sameVersion(BasicFileAttributes previous, BasicFileAttributes current) {
+        return previous.size() == current.size() && previous.lastModifiedTime().equals(current.lastModifiedTime());
+    }
+}
@@ -0,0 +1,215 @@
+package com.github.httpserver.file;
+
+import org.tinylog.Logger;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * DocumentRootWarmer prepares the files of the document root for being served before the first request
+ * arrives. It walks the document root in parallel on a fork-join pool, with one task per directory and per
+ * file, and adds the ETag of every regular file to the ETag index. The contents of files up to a configurable
+ * size, and of pinned files regardless of their size, are additionally preloaded into the content cache
+ * together with their content type and last modified date. Pinned files bypass the maximum file size of the
+ * content cache, but still have to fit into its capacity.
+ * <p>
+ * Warm-up is best effort: files that cannot be read are skipped and are handled on request as usual. Symbolic
+ * links to directories are not followed, so that cyclic links cannot make the walk run forever.
+ */
+public class DocumentRootWarmer {
+
+    private final Path documentRoot;
+    private final Set<Path> pinnedFiles;
+    private final long preloadMaxFileSize;
+    private final ETagIndex eTagIndex;
+    private final StaticContentCache contentCache;
+    private final FileInfoRetriever fileInfoRetriever;
+
+    /**
+     * Constructs a new document root warmer.
+     *
+     * @param documentRoot       the directory from where static files are served.
+     * @param pinnedFiles        the paths of the files whose contents are preloaded regardless of their size, as
+     *                           long as they fit into the content cache. The paths have to be resolved in the
+     *                           same way as the paths of requested files.
+     * @param preloadMaxFileSize the maximum size in bytes of a file whose contents are preloaded, with zero
+     *                           meaning that only pinned files are preloaded.
+     * @param eTagIndex          the index the ETags of all files are added to.
+     * @param contentCache       the cache the contents of preloaded files are added to.
+     * @throws NullPointerException if any of the object parameters are null.
+     */
+    public DocumentRootWarmer(Path documentRoot, Set<Path> pinnedFiles, long preloadMaxFileSize,
+                              ETagIndex eTagIndex, StaticContentCache contentCache) {
+        this(documentRoot, pinnedFiles, preloadMaxFileSize, eTagIndex, contentCache, MimeTypes.DEFAULT);
+    }
+
+    /**
+     * Constructs a new document root warmer that determines the content types of preloaded files with the
+     * given MIME type table.
+     *
+     * @param documentRoot       the directory from where static files are served.
+     * @param pinnedFiles        the paths of the files whose contents are preloaded regardless of their size, as
+     *                           long as they fit into the content cache. The paths have to be resolved in the
+     *                           same way as the paths of requested files.
+     * @param preloadMaxFileSize the maximum size in bytes of a file whose contents are preloaded, with zero
+     *                           meaning that only pinned files are preloaded.
+     * @param eTagIndex          the index the ETags of all files are added to.
+     * @param contentCache       the cache the contents of preloaded files are added to.
+     * @param mimeTypes          the table used to look up the content types of preloaded files.
+     * @throws NullPointerException if any of the object parameters are null.
+     */
+    public DocumentRootWarmer(Path documentRoot, Set<Path> pinnedFiles, long preloadMaxFileSize,
+                              ETagIndex eTagIndex, StaticContentCache contentCache, MimeTypes mimeTypes) {
+        this.documentRoot = Objects.requireNonNull(documentRoot);
+        this.pinnedFiles = Set.copyOf(pinnedFiles);
+        this.preloadMaxFileSize = preloadMaxFileSize;
+        this.eTagIndex = Objects.requireNonNull(eTagIndex);
+        this.contentCache = Objects.requireNonNull(contentCache);
+        this.fileInfoRetriever = new HttpFileInfoRetriever(Collections.emptyMap(), eTagIndex, mimeTypes);
+    }
+
+    /**
+     * Walks the document root and warms up all of its files. The method returns once all files have been
+     * processed.
+     *
+     * @return the number of files whose ETags have been indexed.
+     */
+    public int warmUp() {
+
+        if (!Files.isDirectory(documentRoot)) {
+            Logger.warn("Document root {} is not a directory - skipping warm-up", documentRoot);
+            return 0;
+        }
+
+        for (Path pinnedFile : pinnedFiles) {
+            if (!Files.isRegularFile(pinnedFile)) {
+                Logger.warn("Pinned resource {} is not a file", pinnedFile);
+            }
+        }
+
+        long start = System.nanoTime();
+        AtomicInteger indexedFiles = new AtomicInteger();
+        AtomicInteger preloadedFiles = new AtomicInteger();
+
+        ForkJoinPool.commonPool().invoke(new DirectoryTask(documentRoot, indexedFiles, preloadedFiles));
+
+        Logger.info("Warmed up {} files of {} in {} ms, {} of them preloaded", indexedFiles.get(), documentRoot,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), preloadedFiles.get());
+
+        return indexedFiles.get();
+    }
+
+    private boolean isPreloaded(BasicFileAttributes attributes) {
+        return attributes.size() <= preloadMaxFileSize && preloadMaxFileSize > 0;
+    }
+
+    /**
+     * Preloads the contents of a file into the content cache if it is pinned or small enough.
+     *
+     * @return the preloaded contents, or null if the file is not preloaded.
+     */
+    private StaticContent preload(Path file, BasicFileAttributes attributes) throws IOException {
+
+        if (pinnedFiles.contains(file)) {
+            StaticContent content = contentCache.preload(fileInfoRetriever.retrieveFileInfo(file), attributes);
+
+            if (content == null) {
+                Logger.warn("Pinned resource {} does not fit into the content cache", file);
+            }
+            return content;
+        }
+
+        if (isPreloaded(attributes)) {
+            return contentCache.getOrLoad(fileInfoRetriever.retrieveFileInfo(file), attributes);
+        }
+
+        return null;
+    }
+
+    /**
+     * Lists a directory, warming up its files and walking its subdirectories in parallel.
+     */
+    private final class DirectoryTask extends RecursiveAction {
+
+        private final Path directory;
+        private final AtomicInteger indexedFiles;
+        private final AtomicInteger preloadedFiles;
+
+        DirectoryTask(Path directory, AtomicInteger indexedFiles, AtomicInteger preloadedFiles) {
+            this.directory = directory;
+            this.indexedFiles = indexedFiles;
+            this.preloadedFiles = preloadedFiles;
+        }
+
+        @Override
+        protected void compute() {
+
+            List<RecursiveAction> subtasks = new ArrayList<>();
+
+            try (DirectoryStream<Path> entries = Files.newDirectoryStream(directory)) {
+                for (Path entry : entries) {
+                    if (Files.isDirectory(entry, LinkOption.NOFOLLOW_LINKS)) {
+                        subtasks.add(new DirectoryTask(entry, indexedFiles, preloadedFiles));
+                    } else {
+                        subtasks.add(new FileTask(entry, indexedFiles, preloadedFiles));
+                    }
+                }
+            } catch (IOException e) {
+                Logger.warn("Unable to list directory {} during warm-up: {}", directory, e.getMessage());
+            }
+
+            invokeAll(subtasks);
+        }
+    }
+
+    /**
+     * Indexes the ETag of a single file and preloads its contents if selected.
+     */
+    private final class FileTask extends RecursiveAction {
+
+        private final Path file;
+        private final AtomicInteger indexedFiles;
+        private final AtomicInteger preloadedFiles;
+
+        FileTask(Path file, AtomicInteger indexedFiles, AtomicInteger preloadedFiles) {
+            this.file = file;
+            this.indexedFiles = indexedFiles;
+            this.preloadedFiles = preloadedFiles;
+        }
+
+        @Override
+        protected void compute() {
+
+            try {
+                BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+
+                if (!attributes.isRegularFile()) {
+                    return;
+                }
+
+                if (preload(file, attributes) != null) {
+                    preloadedFiles.incrementAndGet();
+                } else {
+                    eTagIndex.getETag(file, attributes);
+                }
+
+                indexedFiles.incrementAndGet();
+            } catch (IOException e) {
+                Logger.debug("Skipping file {} during warm-up: {}", file, e.getMessage());
+            }
+        }
+    }
+}
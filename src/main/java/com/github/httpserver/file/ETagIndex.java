@@ -0,0 +1,257 @@
+package com.github.httpserver.file;
+
+import com.github.httpserver.configuration.ETagStrategy;
+import com.github.httpserver.server.ServerConstants;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * ETagIndex remembers the ETags of files, so that the contents of a file are hashed only once instead of
+ * on every request. An indexed ETag is bound to the size and last modified time of the file at the moment it
+ * was calculated and is only returned as long as the file still has that size and last modified time. Thus,
+ * looking up the ETag of an unchanged file merely costs reading the file attributes.
+ * <p>
+ * How ETags are derived is determined by an {@link ETagStrategy}. With {@link ETagStrategy#METADATA}, weak
+ * ETags are built from the file attributes alone, so that the file contents are never read.
+ * <p>
+ * Strong ETags are the unquoted hex hashes the server has always sent, so that ETags already held by clients
+ * stay valid; {@link EntityTag} compares tags regardless of their quotes. Weak ETags are sent quoted, since
+ * the quotes delimit the opaque tag following the {@code W/} prefix.
+ * <p>
+ * The index can be shared by all threads of the server.
+ */
+public class ETagIndex {
+
+    private final ETagStrategy strategy;
+    private final Map<Path, Entry> entries;
+
+    /**
+     * Constructs a new, empty ETag index that calculates ETags as hashes of the file contents.
+     */
+    public ETagIndex() {
+        this(ETagStrategy.CONTENT_HASH);
+    }
+
+    /**
+     * Constructs a new, empty ETag index.
+     *
+     * @param strategy the strategy determining how ETags are derived.
+     * @throws NullPointerException if the passed strategy is null.
+     */
+    public ETagIndex(ETagStrategy strategy) {
+        this.strategy = Objects.requireNonNull(strategy);
+        this.entries = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Returns the ETag of a file, calculating it only if the file is not indexed yet or has changed
+     * since its ETag was calculated.
+     *
+     * @param file the path of the file.
+     * @return the ETag of the file contents.
+     * @throws IOException if the file cannot be read.
+     */
+    public String getETag(Path file) throws IOException {
+        return getETag(file, Files.readAttributes(file, BasicFileAttributes.class));
+    }
+
+    /**
+     * Returns the ETag of a file with the given current attributes, calculating it only if the file is not
+     * indexed yet or has changed since its ETag was calculated.
+     *
+     * @param file       the path of the file.
+     * @param attributes the current attributes of the file.
+     * @return the ETag of the file contents.
+     * @throws IOException if the file cannot be read.
+     */
+    public String getETag(Path file, BasicFileAttributes attributes) throws IOException {
+
+        String eTag = get(file, attributes);
+
+        if (eTag != null) {
+            return eTag;
+        }
+
+        switch (strategy) {
+            case METADATA:
+                eTag = metadataETag(attributes);
+                put(file, attributes, eTag);
+                return eTag;
+            case FAST_HASH:
+                eTag = FileHasher.toHex(FileHasher.hash(file));
+                break;
+            default:
+                eTag = contentHashETag(file);
+        }
+
+        // only index the ETag if the file did not change while it was hashed
+        BasicFileAttributes currentAttributes = Files.readAttributes(file, BasicFileAttributes.class);
+        if (Entry.matches(attributes, currentAttributes.size(), currentAttributes.lastModifiedTime())) {
+            put(file, attributes, eTag);
+        }
+
+        return eTag;
+    }
+
+    /**
+     * Returns the ETag of a file whose contents have already been read into memory, calculating it from
+     * the given contents only if the file is not indexed yet or has changed since its ETag was calculated.
+     *
+     * @param file       the path of the file.
+     * @param attributes the attributes of the file at the moment its contents were read.
+     * @param contents   the contents of the file.
+     * @return the ETag of the file contents.
+     * @throws IOException if the ETag cannot be calculated.
+     */
+    public String getETag(Path file, BasicFileAttributes attributes, byte[] contents) throws IOException {
+
+        String eTag = get(file, attributes);
+
+        if (eTag != null) {
+            return eTag;
+        }
+
+        switch (strategy) {
+            case METADATA:
+                eTag = metadataETag(attributes);
+                break;
+            case FAST_HASH:
+                eTag = FileHasher.toHex(FileHasher.hash(contents));
+                break;
+            default:
+                try {
+                    eTag = ServerConstants.calculateETag(contents);
+                } catch (NoSuchAlgorithmException e) {
+                    throw new IOException(e);
+                }
+        }
+
+        put(file, attributes, eTag);
+        return eTag;
+    }
+
+    /**
+     * Returns the indexed ETag of a file without calculating it.
+     *
+     * @param file       the path of the file.
+     * @param attributes the current attributes of the file.
+     * @return the indexed ETag, or null if the file is not indexed or has changed since its ETag was indexed.
+     */
+    public String get(Path file, BasicFileAttributes attributes) {
+
+        Entry entry = entries.get(file);
+
+        if (entry == null || !Entry.matches(attributes, entry.size, entry.lastModifiedTime)) {
+            return null;
+        }
+
+        return entry.eTag;
+    }
+
+    /**
+     * Adds the ETag of a file that was calculated elsewhere, e.g. from its contents held in memory.
+     *
+     * @param file       the path of the file.
+     * @param attributes the attributes of the file at the moment its ETag was calculated.
+     * @param eTag       the ETag of the file contents.
+     */
+    public void put(Path file, BasicFileAttributes attributes, String eTag) {
+        entries.put(file, new Entry(attributes.size(), attributes.lastModifiedTime(), eTag));
+    }
+
+    /**
+     * Removes the ETag of a file from the index.
+     *
+     * @param file the path of the file.
+     */
+    public void remove(Path file) {
+        entries.remove(file);
+    }
+
+    /**
+     * Returns the number of indexed files.
+     *
+     * @return the size of the index.
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    private static String contentHashETag(Path file) throws IOException {
+        try {
+            return ServerConstants.calculateETag(file);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IOException(e);
+        }
+    }
+
+    /**
+     * Builds a weak ETag of the form {@code W/"<size>-<mtime>-<file key>"} with hex encoded size and last
+     * modified time. The file key identifies the file on its file system, e.g. by device and inode, and is
+     * omitted if the file system does not provide one.
+     */
+    private static String metadataETag(BasicFileAttributes attributes) {
+
+        StringBuilder eTag = new StringBuilder("W/\"")
+                .append(Long.toHexString(attributes.size()))
+                .append('-')
+                .append(Long.toHexString(attributes.lastModifiedTime().toMillis()));
+
+        Object fileKey = attributes.fileKey();
+        if (fileKey != null) {
+            eTag.append('-');
+            appendFileKey(eTag, fileKey.toString());
+        }
+
+        return eTag.append('"').toString();
+    }
+
+    /**
+     * Appends the string representation of a file key, e.g. {@code (dev=803,ino=1234)}, keeping its letters and
+     * digits and replacing every run of other characters by a single dot, e.g. {@code dev.803.ino.1234}. This
+     * keeps the complete key while only using characters that are valid within an ETag.
+     */
+    private static void appendFileKey(StringBuilder eTag, String fileKey) {
+
+        boolean separate = false;
+
+        for (int i = 0; i < fileKey.length(); i++) {
+            char c = fileKey.charAt(i);
+
+            if ((c >= '0' && c <= '9') || (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z')) {
+                if (separate) {
+                    eTag.append('.');
+                }
+                eTag.append(c);
+                separate = false;
+            } else {
+                separate = eTag.charAt(eTag.length() - 1) != '-';
+            }
+        }
+    }
+
+    private static final class Entry {
+
+        private final long size;
+        private final FileTime lastModifiedTime;
+        private final String eTag;
+
+        Entry(long size, FileTime lastModifiedTime, String eTag) {
+            this.size = size;
+            this.lastModifiedTime = lastModifiedTime;
+            this.eTag = eTag;
+        }
+
+        static boolean matches(BasicFileAttributes attributes, long size, FileTime lastModifiedTime) {
+            return attributes.size() == size && attributes.lastModifiedTime().equals(lastModifiedTime);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.github.httpserver.file;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.StringTokenizer;
+
+/**
+ * EntityTag is the model of an ETag, consisting of an opaque tag and an indicator if the tag is a weak
+ * validator. It implements the strong and weak comparison functions that conditional requests are
+ * evaluated with.
+ *
+ * @see <a href=https://datatracker.ietf.org/doc/html/rfc7232#section-2.3.2>Information about
+ * entity tag comparison</a>
+ */
+public final class EntityTag {
+
+    private static final String WEAK_PREFIX = "W/";
+
+    private final boolean weak;
+    private final String opaqueTag;
+
+    private EntityTag(boolean weak, String opaqueTag) {
+        this.weak = weak;
+        this.opaqueTag = opaqueTag;
+    }
+
+    /**
+     * Parses a single ETag, e.g. {@code "abc"} or {@code W/"abc"}. Quotes around the opaque tag are optional.
+     *
+     * @param value the ETag as string.
+     * @return the parsed entity tag.
+     * @throws NullPointerException if the passed value is null.
+     */
+    public static EntityTag parse(String value) {
+
+        String tag = Objects.requireNonNull(value).trim();
+        boolean weak = tag.startsWith(WEAK_PREFIX);
+
+        if (weak) {
+            tag = tag.substring(WEAK_PREFIX.length());
+        }
+
+        return new EntityTag(weak, tag.replace("\"", ""));
+    }
+
+    /**
+     * Parses a comma-separated list of ETags as sent in the 'If-Match' and 'If-None-Match' headers.
+     *
+     * @param values the header value.
+     * @return the parsed entity tags.
+     */
+    public static List<EntityTag> parseList(String values) {
+
+        List<EntityTag> tags = new ArrayList<>();
+        StringTokenizer tokenizer = new StringTokenizer(values, ",");
+
+        while (tokenizer.hasMoreTokens()) {
+            tags.add(parse(tokenizer.nextToken()));
+        }
+
+        return tags;
+    }
+
+    /**
+     * Indicates if the entity tag is a weak validator.
+     *
+     * @return a boolean indicating if the tag is weak.
+     */
+    public boolean isWeak() {
+        return weak;
+    }
+
+    /**
+     * Returns the opaque tag without quotes and weakness indicator.
+     *
+     * @return the opaque tag as string.
+     */
+    public String getOpaqueTag() {
+        return opaqueTag;
+    }
+
+    /**
+     * Compares this entity tag to another with the strong comparison function, which only matches if
+     * both tags are strong and their opaque tags are equal.
+     *
+     * @param other the entity tag to compare with.
+     * @return a boolean indicating if the tags match.
+     */
+    public boolean strongMatches(EntityTag other) {
+        return !weak && !other.weak && opaqueTag.equals(other.opaqueTag);
+    }
+
+    /**
+     * Compares this entity tag to another with the weak comparison function, which matches if the opaque
+     * tags are equal regardless of either tag being weak.
+     *
+     * @param other the entity tag to compare with.
+     * @return a boolean indicating if the tags match.
+     */
+    public boolean weakMatches(EntityTag other) {
+        return opaqueTag.equals(other.opaqueTag);
+    }
+}
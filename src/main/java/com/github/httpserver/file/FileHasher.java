@@ -0,0 +1,276 @@
+package com.github.httpserver.file;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * FileHasher calculates fast, non-cryptographic hashes of file contents based on the xxHash64 algorithm.
+ * <p>
+ * Contents of up to one chunk are hashed directly. Larger contents are split into chunks of a fixed size,
+ * each chunk is hashed on its own, and the hash of the contents is the hash of the chunk hashes. Thanks to
+ * that tree structure, the chunks of a file are hashed in parallel on a fork-join pool, and a file is read
+ * chunk by chunk through a {@link FileChannel}, so that at most one chunk per hashing thread is held in
+ * memory. Hashing a file yields the same hash as hashing its contents held in memory.
+ * <p>
+ * In addition, the class provides table-driven hex encoding of hash values.
+ */
+public final class FileHasher {
+
+    /**
+     * The size in bytes of the chunks that contents are split into.
+     */
+    static final int CHUNK_SIZE = 1024 * 1024;
+
+    private static final long PRIME64_1 = 0x9E3779B185EBCA87L;
+    private static final long PRIME64_2 = 0xC2B2AE3D27D4EB4FL;
+    private static final long PRIME64_3 = 0x165667B19E3779F9L;
+    private static final long PRIME64_4 = 0x85EBCA77C2B2AE63L;
+    private static final long PRIME64_5 = 0x27D4EB2F165667C5L;
+
+    private static final VarHandle LONG_VIEW = MethodHandles.byteArrayViewVarHandle(long[].class,
+            ByteOrder.LITTLE_ENDIAN);
+    private static final VarHandle INT_VIEW = MethodHandles.byteArrayViewVarHandle(int[].class,
+            ByteOrder.LITTLE_ENDIAN);
+
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    private FileHasher() {
+    }
+
+    /**
+     * Calculates the hash of contents held in memory.
+     *
+     * @param contents the contents to be hashed.
+     * @return the hash value.
+     */
+    public static long hash(byte[] contents) {
+
+        if (contents.length <= CHUNK_SIZE) {
+            return xxHash64(contents, 0, contents.length, 0);
+        }
+
+        long[] chunkHashes = new long[chunkCount(contents.length)];
+        for (int i = 0; i < chunkHashes.length; i++) {
+            int offset = i * CHUNK_SIZE;
+            chunkHashes[i] = xxHash64(contents, offset, Math.min(CHUNK_SIZE, contents.length - offset), 0);
+        }
+
+        return combine(chunkHashes, contents.length);
+    }
+
+    /**
+     * Calculates the hash of a file. The chunks of the file are read and hashed in parallel.
+     *
+     * @param file the path of the file to be hashed.
+     * @return the hash value.
+     * @throws IOException if the file cannot be read.
+     */
+    public static long hash(Path file) throws IOException {
+
+        try (FileChannel fileChannel = FileChannel.open(file, StandardOpenOption.READ)) {
+
+            long size = fileChannel.size();
+
+            if (size <= CHUNK_SIZE) {
+                byte[] contents = new byte[(int) size];
+                readFully(fileChannel, ByteBuffer.wrap(contents), 0);
+                return xxHash64(contents, 0, contents.length, 0);
+            }
+
+            long[] chunkHashes = new long[chunkCount(size)];
+            ChunkHashTask task = new ChunkHashTask(fileChannel, size, chunkHashes, 0, chunkHashes.length);
+            ForkJoinPool.commonPool().invoke(task);
+
+            if (task.failure != null) {
+                throw task.failure;
+            }
+
+            return combine(chunkHashes, size);
+        }
+    }
+
+    /**
+     * Encodes a hash value as hex string of 16 lowercase digits.
+     *
+     * @param value the hash value.
+     * @return the hex representation.
+     */
+    public static String toHex(long value) {
+        char[] hex = new char[16];
+        for (int i = 15; i >= 0; i--) {
+            hex[i] = HEX_DIGITS[(int) (value & 0xF)];
+            value >>>= 4;
+        }
+        return new String(hex);
+    }
+
+    /**
+     * Encodes bytes as hex string of lowercase digits.
+     *
+     * @param bytes the bytes to be encoded.
+     * @return the hex representation.
+     */
+    public static String toHex(byte[] bytes) {
+        char[] hex = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            hex[2 * i] = HEX_DIGITS[(bytes[i] >> 4) & 0xF];
+            hex[2 * i + 1] = HEX_DIGITS[bytes[i] & 0xF];
+        }
+        return new String(hex);
+    }
+
+    /**
+     * Calculates the xxHash64 of a region of a byte array.
+     *
+     * @param input  the byte array.
+     * @param offset the index of the first byte of the region.
+     * @param length the number of bytes of the region.
+     * @param seed   the seed of the hash function.
+     * @return the hash value.
+     */
+    static long xxHash64(byte[] input, int offset, int length, long seed) {
+
+        int end = offset + length;
+        long hash;
+
+        if (length >= 32) {
+            int limit = end - 32;
+            long v1 = seed + PRIME64_1 + PRIME64_2;
+            long v2 = seed + PRIME64_2;
+            long v3 = seed;
+            long v4 = seed - PRIME64_1;
+
+            do {
+                v1 = round(v1, (long) LONG_VIEW.get(input, offset));
+                v2 = round(v2, (long) LONG_VIEW.get(input, offset + 8));
+                v3 = round(v3, (long) LONG_VIEW.get(input, offset + 16));
+                v4 = round(v4, (long) LONG_VIEW.get(input, offset + 24));
+                offset += 32;
+            } while (offset <= limit);
+
+            hash = Long.rotateLeft(v1, 1) + Long.rotateLeft(v2, 7) + Long.rotateLeft(v3, 12)
+                    + Long.rotateLeft(v4, 18);
+            hash = mergeRound(hash, v1);
+            hash = mergeRound(hash, v2);
+            hash = mergeRound(hash, v3);
+            hash = mergeRound(hash, v4);
+        } else {
+            hash = seed + PRIME64_5;
+        }
+
+        hash += length;
+
+        while (offset + 8 <= end) {
+            hash ^= round(0, (long) LONG_VIEW.get(input, offset));
+            hash = Long.rotateLeft(hash, 27) * PRIME64_1 + PRIME64_4;
+            offset += 8;
+        }
+
+        if (offset + 4 <= end) {
+            hash ^= ((int) INT_VIEW.get(input, offset) & 0xFFFFFFFFL) * PRIME64_1;
+            hash = Long.rotateLeft(hash, 23) * PRIME64_2 + PRIME64_3;
+            offset += 4;
+        }
+
+        while (offset < end) {
+            hash ^= (input[offset] & 0xFF) * PRIME64_5;
+            hash = Long.rotateLeft(hash, 11) * PRIME64_1;
+            offset++;
+        }
+
+        hash ^= hash >>> 33;
+        hash *= PRIME64_2;
+        hash ^= hash >>> 29;
+        hash *= PRIME64_3;
+        hash ^= hash >>> 32;
+
+        return hash;
+    }
+
+    private static long round(long accumulator, long input) {
+        accumulator += input * PRIME64_2;
+        accumulator = Long.rotateLeft(accumulator, 31);
+        return accumulator * PRIME64_1;
+    }
+
+    private static long mergeRound(long accumulator, long value) {
+        accumulator ^= round(0, value);
+        return accumulator * PRIME64_1 + PRIME64_4;
+    }
+
+    /**
+     * Combines the hashes of all chunks into the hash of the contents, using the content length as seed.
+     */
+    private static long combine(long[] chunkHashes, long length) {
+        byte[] hashes = new byte[chunkHashes.length * Long.BYTES];
+        for (int i = 0; i < chunkHashes.length; i++) {
+            LONG_VIEW.set(hashes, i * Long.BYTES, chunkHashes[i]);
+        }
+        return xxHash64(hashes, 0, hashes.length, length);
+    }
+
+    private static int chunkCount(long length) {
+        return (int) ((length + CHUNK_SIZE - 1) / CHUNK_SIZE);
+    }
+
+    private static void readFully(FileChannel fileChannel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = fileChannel.read(buffer, position + buffer.position());
+            if (read < 0) {
+                throw new IOException("File was truncated while being hashed");
+            }
+        }
+    }
+
+    /**
+     * Hashes a range of chunks of a file, splitting the range until every task hashes a single chunk.
+     */
+    private static final class ChunkHashTask extends RecursiveAction {
+
+        private final FileChannel fileChannel;
+        private final long size;
+        private final long[] chunkHashes;
+        private final int from;
+        private final int to;
+        private IOException failure;
+
+        ChunkHashTask(FileChannel fileChannel, long size, long[] chunkHashes, int from, int to) {
+            this.fileChannel = fileChannel;
+            this.size = size;
+            this.chunkHashes = chunkHashes;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+
+            if (to - from > 1) {
+                int middle = (from + to) >>> 1;
+                ChunkHashTask left = new ChunkHashTask(fileChannel, size, chunkHashes, from, middle);
+                ChunkHashTask right = new ChunkHashTask(fileChannel, size, chunkHashes, middle, to);
+                invokeAll(left, right);
+                failure = left.failure != null ? left.failure : right.failure;
+                return;
+            }
+
+            long position = (long) from * CHUNK_SIZE;
+            byte[] chunk = new byte[(int) Math.min(CHUNK_SIZE, size - position)];
+
+            try {
+                readFully(fileChannel, ByteBuffer.wrap(chunk), position);
+                chunkHashes[from] = xxHash64(chunk, 0, chunk.length, 0);
+            } catch (IOException e) {
+                failure = e;
+            }
+        }
+    }
+}
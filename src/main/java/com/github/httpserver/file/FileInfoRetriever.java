@@ -2,6 +2,7 @@ package com.github.httpserver.file;
 
 import java.io.IOException;
 import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
 
 /**
  * FileInfoRetriever constructs information of a given file.
@@ -17,4 +18,18 @@ public interface FileInfoRetriever {
      * @throws IOException if the file cannot be read, e.g. when it doesn't exist.
      */
     FileInfo retrieveFileInfo(Path filePath) throws IOException;
+
+    /**
+     * Creates a file information model based of the file at the given path on the local
+     * file system, taking the current attributes of the file into account instead of reading
+     * them from the file system again.
+     *
+     * @param filePath   the path to the local file.
+     * @param attributes the current attributes of the file.
+     * @return the file info to the given file.
+     * @throws IOException if the file cannot be read, e.g. when it doesn't exist.
+     */
+    default FileInfo retrieveFileInfo(Path filePath, BasicFileAttributes attributes) throws IOException {
+        return retrieveFileInfo(filePath);
+    }
 }
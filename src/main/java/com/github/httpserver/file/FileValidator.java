@@ -2,6 +2,7 @@ package com.github.httpserver.file;
 
 import java.io.IOException;
 import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
 
 /**
  * FileValidator validates a file input on a specific condition.
@@ -16,4 +17,17 @@ public interface FileValidator {
      * @throws IOException if the file cannot be read, e.g. when it doesn't exist.
      */
     boolean isValidFile(Path filePath) throws IOException;
+
+    /**
+     * Evaluates the file at the given file path based on specific condition, taking the current attributes
+     * of the file into account instead of reading them from the file system again.
+     *
+     * @param filePath   the path to the file on the local file system.
+     * @param attributes the current attributes of the file.
+     * @return a boolean indicating if the file matches the condition.
+     * @throws IOException if the file cannot be read, e.g. when it doesn't exist.
+     */
+    default boolean isValidFile(Path filePath, BasicFileAttributes attributes) throws IOException {
+        return isValidFile(filePath);
+    }
 }
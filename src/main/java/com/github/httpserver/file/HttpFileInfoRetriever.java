@@ -1,14 +1,12 @@
 package com.github.httpserver.file;
 
+import com.github.httpserver.protocol.HttpDate;
 import com.github.httpserver.protocol.HttpHeader;
 
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.attribute.FileTime;
-import java.time.ZoneOffset;
-import java.time.format.DateTimeFormatter;
-import java.util.Locale;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.Map;
 import java.util.Objects;
 
@@ -21,6 +19,7 @@ import java.util.Objects;
  */
 public class HttpFileInfoRetriever implements FileInfoRetriever {
 
+    private final MimeTypes mimeTypes;
     private FileValidator preconditionValidator;
     private FileValidator modificationValidator;
 
@@ -34,16 +33,45 @@ public class HttpFileInfoRetriever implements FileInfoRetriever {
      *                       when creating the file information.
      */
     public HttpFileInfoRetriever(Map<String, String> requestHeaders) {
+        this(requestHeaders, new ETagIndex());
+    }
+
+    /**
+     * Constructs an HTTP file info retriever by taking the header entries of an HTTP request and an
+     * ETag index that is shared with other components, so that the ETags needed to evaluate 'If-Match'
+     * and 'If-None-Match' conditions are only calculated when a file has changed.
+     *
+     * @param requestHeaders the complete list of HTTP request headers to be taken into account
+     *                       when creating the file information.
+     * @param eTagIndex      the index used to look up the ETags of files.
+     */
+    public HttpFileInfoRetriever(Map<String, String> requestHeaders, ETagIndex eTagIndex) {
+        this(requestHeaders, eTagIndex, MimeTypes.DEFAULT);
+    }
+
+    /**
+     * Constructs an HTTP file info retriever by taking the header entries of an HTTP request, a shared
+     * ETag index and the MIME type table used to determine the content types of files.
+     *
+     * @param requestHeaders the complete list of HTTP request headers to be taken into account
+     *                       when creating the file information.
+     * @param eTagIndex      the index used to look up the ETags of files.
+     * @param mimeTypes      the table used to look up the content types of files.
+     */
+    public HttpFileInfoRetriever(Map<String, String> requestHeaders, ETagIndex eTagIndex, MimeTypes mimeTypes) {
 
         Objects.requireNonNull(requestHeaders);
+        Objects.requireNonNull(eTagIndex);
+        this.mimeTypes = Objects.requireNonNull(mimeTypes);
 
         if (requestHeaders.containsKey(HttpHeader.HEADER_IF_MATCH)) {
-            this.preconditionValidator = new IfMatchValidator(HttpHeader.HEADER_IF_MATCH);
+            this.preconditionValidator = new IfMatchValidator(
+                    requestHeaders.get(HttpHeader.HEADER_IF_MATCH), eTagIndex);
         }
 
         if (requestHeaders.containsKey(HttpHeader.HEADER_IF_NONE_MATCH)) {
             this.modificationValidator = new IfNoneMatchValidator(
-                    requestHeaders.get(HttpHeader.HEADER_IF_NONE_MATCH));
+                    requestHeaders.get(HttpHeader.HEADER_IF_NONE_MATCH), eTagIndex);
         } else if (requestHeaders.containsKey(HttpHeader.HEADER_IF_MODIFIED_SINCE)) {
             this.modificationValidator = new IfModifiedSinceValidator(
                     requestHeaders.get(HttpHeader.HEADER_IF_MODIFIED_SINCE));
@@ -55,26 +83,29 @@ public class HttpFileInfoRetriever implements FileInfoRetriever {
      */
     @Override
     public FileInfo retrieveFileInfo(Path filePath) throws IOException {
+        return retrieveFileInfo(filePath, Files.readAttributes(filePath, BasicFileAttributes.class));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public FileInfo retrieveFileInfo(Path filePath, BasicFileAttributes attributes) throws IOException {
 
         boolean isValid = true;
         boolean isModified = true;
 
         if (preconditionValidator != null) {
-            isValid = preconditionValidator.isValidFile(filePath);
+            isValid = preconditionValidator.isValidFile(filePath, attributes);
         }
 
         if (modificationValidator != null) {
-            isModified = modificationValidator.isValidFile(filePath);
+            isModified = modificationValidator.isValidFile(filePath, attributes);
         }
 
-        String contentType = Files.probeContentType(filePath);
-
-        FileTime lastModified = Files.getLastModifiedTime(filePath);
-
-        DateTimeFormatter formatter = DateTimeFormatter.RFC_1123_DATE_TIME.withZone(ZoneOffset.UTC)
-                .withLocale(Locale.US);
-        String formattedTimestamp = formatter.format(lastModified.toInstant());
+        String contentType = mimeTypes.getContentType(filePath);
+        String lastModified = HttpDate.format(attributes.lastModifiedTime());
 
-        return new FileInfo(isValid, isModified, contentType, formattedTimestamp, filePath);
+        return new FileInfo(isValid, isModified, contentType, lastModified, filePath);
     }
 }
@@ -1,30 +1,42 @@
 package com.github.httpserver.file;
 
-import com.github.httpserver.server.ServerConstants;
 import org.tinylog.Logger;
 
 import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.Path;
-import java.security.NoSuchAlgorithmException;
-import java.util.StringTokenizer;
+import java.nio.file.attribute.BasicFileAttributes;
 
 /**
  * IfMatchValidator is a concrete file validator that evaluates the 'If-Match' condition
  * of an HTTP request, meaning that the file's calculated ETag has to match one of the
- * given ones from the request header value.
+ * given ones from the request header value. ETags are compared with the strong comparison
+ * function, so a file with a weak ETag never fulfills the condition.
  */
 public class IfMatchValidator implements FileValidator {
 
     private final String criterion;
+    private final ETagIndex eTagIndex;
 
     /**
-     * Constructs an If-Match validator with the given criterion.
+     * Constructs an If-Match validator with the given criterion. The ETags of files
+     * are calculated by a private ETag index.
      *
      * @param criterion the raw value of the 'If-Match' HTTP request header entry.
      */
     public IfMatchValidator(String criterion) {
+        this(criterion, new ETagIndex());
+    }
+
+    /**
+     * Constructs an If-Match validator with the given criterion and an ETag index
+     * that is shared with other components.
+     *
+     * @param criterion the raw value of the 'If-Match' HTTP request header entry.
+     * @param eTagIndex the index used to look up the ETags of files.
+     */
+    public IfMatchValidator(String criterion, ETagIndex eTagIndex) {
         this.criterion = criterion;
+        this.eTagIndex = eTagIndex;
     }
 
     /**
@@ -36,6 +48,26 @@ public class IfMatchValidator implements FileValidator {
      */
     @Override
     public boolean isValidFile(Path filePath) throws IOException {
+        return evaluate(filePath, null);
+    }
+
+    /**
+     * Evaluates the 'If-Match' condition on the file at the given path with the given current attributes.
+     *
+     * @param filePath   the path to the file on the local file system.
+     * @param attributes the current attributes of the file.
+     * @return a boolean indicating if the condition is fulfilled.
+     * @throws IOException if the given file cannot be read.
+     */
+    @Override
+    public boolean isValidFile(Path filePath, BasicFileAttributes attributes) throws IOException {
+        return evaluate(filePath, attributes);
+    }
+
+    /**
+     * Evaluates the condition, looking up the attributes of the file if they are not given.
+     */
+    private boolean evaluate(Path filePath, BasicFileAttributes attributes) throws IOException {
 
         // ETag "*" always matches
         if (criterion.equals("*")) {
@@ -44,26 +76,18 @@ public class IfMatchValidator implements FileValidator {
 
         String fileETag;
         try {
-            byte[] fileContents = Files.readAllBytes(filePath);
-            fileETag = ServerConstants.calculateETag(fileContents);
-        } catch (IOException | NoSuchAlgorithmException e) {
+            fileETag = attributes != null
+                    ? eTagIndex.getETag(filePath, attributes) : eTagIndex.getETag(filePath);
+        } catch (IOException e) {
             Logger.warn(e, "Failed to calculate ETag of file {} while validating If-Match header", filePath);
             throw new IOException(e);
         }
 
-        StringTokenizer tokenizer = new StringTokenizer(criterion, ",");
-        while (tokenizer.hasMoreTokens()) {
-
-            String queryETag = tokenizer.nextToken().trim();
-
-            // weak entity tags should never match
-            if (queryETag.startsWith("W/")) {
-                continue;
-            }
-
-            queryETag = queryETag.replace("\"", "");
+        EntityTag fileTag = EntityTag.parse(fileETag);
 
-            if (queryETag.equals(fileETag)) {
+        // the strong comparison is used with If-Match, so weak entity tags never match
+        for (EntityTag queryTag : EntityTag.parseList(criterion)) {
+            if (queryTag.strongMatches(fileTag)) {
                 return true;
             }
         }
@@ -1,16 +1,15 @@
 package com.github.httpserver.file;
 
+import com.github.httpserver.protocol.HttpDate;
 import org.tinylog.Logger;
 
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.nio.file.attribute.FileTime;
-import java.time.ZoneId;
-import java.time.ZonedDateTime;
-import java.time.format.DateTimeFormatter;
-import java.time.temporal.TemporalAccessor;
-import java.util.Locale;
+import java.time.format.DateTimeParseException;
+import java.util.concurrent.TimeUnit;
 
 /**
  * IfModifiedSinceValidator is a concrete file validator that evaluates the 'If-Modified-Since'
@@ -50,12 +49,37 @@ public class IfModifiedSinceValidator implements FileValidator {
             throw new IOException(e);
         }
 
+        return isModifiedSince(fileTime);
+    }
 
-        ZonedDateTime zonedModificationDate = fileTime.toInstant().atZone(ZoneId.systemDefault());
+    /**
+     * Evaluates the 'If-Modified-Since' condition on the file at the given path with the given current
+     * attributes.
+     *
+     * @param filePath   the path to the file on the local file system.
+     * @param attributes the current attributes of the file.
+     * @return a boolean indicating if the condition is fulfilled.
+     */
+    @Override
+    public boolean isValidFile(Path filePath, BasicFileAttributes attributes) {
+        return isModifiedSince(attributes.lastModifiedTime());
+    }
 
-        TemporalAccessor queryDate = DateTimeFormatter.RFC_1123_DATE_TIME.withLocale(Locale.US).parse(criterion);
-        ZonedDateTime zonedQueryDate = ZonedDateTime.from(queryDate);
+    /**
+     * Compares the last modified time of the file with the criterion at the resolution of HTTP dates, i.e.
+     * whole seconds. A criterion that is not a valid date is ignored, as demanded by RFC 7232.
+     */
+    private boolean isModifiedSince(FileTime fileTime) {
+
+        long criterionEpochSecond;
+
+        try {
+            criterionEpochSecond = HttpDate.parseEpochSecond(criterion);
+        } catch (DateTimeParseException e) {
+            Logger.debug("Ignoring invalid If-Modified-Since header {}", criterion);
+            return true;
+        }
 
-        return zonedModificationDate.isAfter(zonedQueryDate);
+        return fileTime.to(TimeUnit.SECONDS) > criterionEpochSecond;
     }
 }
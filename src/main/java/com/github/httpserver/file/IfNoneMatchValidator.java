@@ -1,30 +1,42 @@
 package com.github.httpserver.file;
 
-import com.github.httpserver.server.ServerConstants;
 import org.tinylog.Logger;
 
 import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.Path;
-import java.security.NoSuchAlgorithmException;
-import java.util.StringTokenizer;
+import java.nio.file.attribute.BasicFileAttributes;
 
 /**
  * IfNoneMatchValidator is a concrete file validator that evaluates the 'If-None-Match'
  * condition of an HTTP request, meaning that the file's calculated ETag must not match
- * any one of the given ones from the request header value.
+ * any one of the given ones from the request header value. ETags are compared with the
+ * weak comparison function, so weak and strong ETags are treated alike.
  */
 public class IfNoneMatchValidator implements FileValidator {
 
     private final String criterion;
+    private final ETagIndex eTagIndex;
 
     /**
-     * Constructs an If-None-Match validator with the given criterion.
+     * Constructs an If-None-Match validator with the given criterion. The ETags of files
+     * are calculated by a private ETag index.
      *
      * @param criterion the raw value of the 'If-Match' HTTP request header entry.
      */
     public IfNoneMatchValidator(String criterion) {
+        this(criterion, new ETagIndex());
+    }
+
+    /**
+     * Constructs an If-None-Match validator with the given criterion and an ETag index
+     * that is shared with other components.
+     *
+     * @param criterion the raw value of the 'If-Match' HTTP request header entry.
+     * @param eTagIndex the index used to look up the ETags of files.
+     */
+    public IfNoneMatchValidator(String criterion, ETagIndex eTagIndex) {
         this.criterion = criterion;
+        this.eTagIndex = eTagIndex;
     }
 
     /**
@@ -36,6 +48,26 @@ public class IfNoneMatchValidator implements FileValidator {
      */
     @Override
     public boolean isValidFile(Path filePath) throws IOException {
+        return evaluate(filePath, null);
+    }
+
+    /**
+     * Evaluates the 'If-None-Match' condition on the file at the given path with the given current attributes.
+     *
+     * @param filePath   the path to the file on the local file system.
+     * @param attributes the current attributes of the file.
+     * @return a boolean indicating if the condition is fulfilled.
+     * @throws IOException if the given file cannot be read.
+     */
+    @Override
+    public boolean isValidFile(Path filePath, BasicFileAttributes attributes) throws IOException {
+        return evaluate(filePath, attributes);
+    }
+
+    /**
+     * Evaluates the condition, looking up the attributes of the file if they are not given.
+     */
+    private boolean evaluate(Path filePath, BasicFileAttributes attributes) throws IOException {
 
         // ETag "*" always fails
         if (criterion.equals("*")) {
@@ -44,25 +76,19 @@ public class IfNoneMatchValidator implements FileValidator {
 
         String fileETag;
         try {
-            byte[] fileContents = Files.readAllBytes(filePath);
-            fileETag = ServerConstants.calculateETag(fileContents);
-        } catch (IOException | NoSuchAlgorithmException e) {
+            fileETag = attributes != null
+                    ? eTagIndex.getETag(filePath, attributes) : eTagIndex.getETag(filePath);
+        } catch (IOException e) {
             Logger.warn(e, "Failed to calculate ETag of file {} while validating If-None-Match header",
                     filePath);
             throw new IOException(e);
         }
 
-        StringTokenizer tokenizer = new StringTokenizer(criterion, ",");
-
-        while (tokenizer.hasMoreTokens()) {
-            String queryETag = tokenizer
-                    .nextToken()
-                    .trim()
-                    // weak comparison is always used with If-None-Match
-                    .replace("W/", "")
-                    .replace("\"", "");
+        EntityTag fileTag = EntityTag.parse(fileETag);
 
-            if (queryETag.equals(fileETag)) {
+        // the weak comparison is always used with If-None-Match
+        for (EntityTag queryTag : EntityTag.parseList(criterion)) {
+            if (queryTag.weakMatches(fileTag)) {
                 return false;
             }
         }
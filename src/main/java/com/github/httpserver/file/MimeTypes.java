@@ -0,0 +1,160 @@
+package com.github.httpserver.file;
+
+import org.tinylog.Logger;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * MimeTypes determines the content types of files by their file extension. A built-in table covers the file
+ * types commonly served by web servers and can be extended or overridden by configured mappings. The table is
+ * immutable, so that looking up a content type merely costs hashing the extension.
+ * <p>
+ * Only for extensions missing from the table, the content type is probed via
+ * {@link Files#probeContentType(Path)}, which may read the file or consult system databases. The probed
+ * content type is cached per extension, so that probing happens at most once per extension. Files whose
+ * content type cannot be determined are served as {@value #DEFAULT_CONTENT_TYPE}.
+ * <p>
+ * An instance can be shared by all threads of the server.
+ */
+public class MimeTypes {
+
+    /**
+     * The content type of files whose content type cannot be determined.
+     */
+    public static final String DEFAULT_CONTENT_TYPE = "application/octet-stream";
+
+    private static final Map<String, String> BUILT_IN_TYPES = Map.ofEntries(
+            Map.entry("html", "text/html"),
+            Map.entry("htm", "text/html"),
+            Map.entry("xhtml", "application/xhtml+xml"),
+            Map.entry("css", "text/css"),
+            Map.entry("js", "text/javascript"),
+            Map.entry("mjs", "text/javascript"),
+            Map.entry("json", "application/json"),
+            Map.entry("map", "application/json"),
+            Map.entry("webmanifest", "application/manifest+json"),
+            Map.entry("xml", "application/xml"),
+            Map.entry("rss", "application/rss+xml"),
+            Map.entry("atom", "application/atom+xml"),
+            Map.entry("txt", "text/plain"),
+            Map.entry("csv", "text/csv"),
+            Map.entry("md", "text/markdown"),
+            Map.entry("svg", "image/svg+xml"),
+            Map.entry("png", "image/png"),
+            Map.entry("jpg", "image/jpeg"),
+            Map.entry("jpeg", "image/jpeg"),
+            Map.entry("gif", "image/gif"),
+            Map.entry("webp", "image/webp"),
+            Map.entry("avif", "image/avif"),
+            Map.entry("bmp", "image/bmp"),
+            Map.entry("ico", "image/x-icon"),
+            Map.entry("tif", "image/tiff"),
+            Map.entry("tiff", "image/tiff"),
+            Map.entry("woff", "font/woff"),
+            Map.entry("woff2", "font/woff2"),
+            Map.entry("ttf", "font/ttf"),
+            Map.entry("otf", "font/otf"),
+            Map.entry("eot", "application/vnd.ms-fontobject"),
+            Map.entry("mp3", "audio/mpeg"),
+            Map.entry("ogg", "audio/ogg"),
+            Map.entry("wav", "audio/wav"),
+            Map.entry("mp4", "video/mp4"),
+            Map.entry("webm", "video/webm"),
+            Map.entry("pdf", "application/pdf"),
+            Map.entry("zip", "application/zip"),
+            Map.entry("gz", "application/gzip"),
+            Map.entry("tar", "application/x-tar"),
+            Map.entry("wasm", "application/wasm")
+    );
+
+    /**
+     * Content types determined by the built-in table only, without configured mappings.
+     */
+    public static final MimeTypes DEFAULT = new MimeTypes(Map.of());
+
+    private final Map<String, String> types;
+    private final Map<String, String> probedTypes;
+
+    /**
+     * Constructs a new MIME type table from the built-in table and the given mappings.
+     *
+     * @param mappings mappings of file extensions to content types, which take precedence over the built-in
+     *                 table. Extensions are matched case-insensitively and may be given with a leading dot.
+     */
+    public MimeTypes(Map<String, String> mappings) {
+
+        Map<String, String> table = new HashMap<>(BUILT_IN_TYPES);
+
+        for (Map.Entry<String, String> mapping : mappings.entrySet()) {
+            String extension = mapping.getKey().trim();
+
+            if (extension.startsWith(".")) {
+                extension = extension.substring(1);
+            }
+
+            table.put(extension.toLowerCase(Locale.ROOT), mapping.getValue().trim());
+        }
+
+        this.types = Map.copyOf(table);
+        this.probedTypes = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Returns the content type of a file.
+     *
+     * @param file the path of the file.
+     * @return the content type, never null.
+     */
+    public String getContentType(Path file) {
+
+        String extension = extensionOf(file);
+        String contentType = types.get(extension);
+
+        if (contentType != null) {
+            return contentType;
+        }
+
+        contentType = probedTypes.get(extension);
+
+        if (contentType != null) {
+            return contentType;
+        }
+
+        contentType = probe(file);
+        probedTypes.putIfAbsent(extension, contentType);
+        return contentType;
+    }
+
+    private static String probe(Path file) {
+        try {
+            String contentType = Files.probeContentType(file);
+            return contentType != null ? contentType : DEFAULT_CONTENT_TYPE;
+        } catch (IOException e) {
+            Logger.debug("Unable to probe content type of {}: {}", file, e.getMessage());
+            return DEFAULT_CONTENT_TYPE;
+        }
+    }
+
+    /**
+     * Returns the lowercase extension of a file name, or an empty string if the file name has none.
+     */
+    private static String extensionOf(Path file) {
+
+        Path fileName = file.getFileName();
+
+        if (fileName == null) {
+            return "";
+        }
+
+        String name = fileName.toString();
+        int dot = name.lastIndexOf('.');
+
+        return dot <= 0 ? "" : name.substring(dot + 1).toLowerCase(Locale.ROOT);
+    }
+}
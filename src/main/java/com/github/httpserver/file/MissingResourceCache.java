@@ -0,0 +1,223 @@
+package com.github.httpserver.file;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * MissingResourceCache remembers requested resources that do not exist, so that repeated requests for them,
+ * e.g. by scanners or broken links, are rejected without resolving their path and reading the file system.
+ * Resources are identified by their request path, so that a lookup merely costs hashing a string.
+ * <p>
+ * Two mechanisms are combined:
+ * <ul>
+ * <li>Resources that were found to be missing are remembered for a configurable time to live. Since the
+ * cache is bounded, arbitrary entries are evicted once it is full.</li>
+ * <li>Once the files existing below the document root are tracked, a bloom filter of their request paths
+ * rejects most requests for missing resources even if they were never requested before.</li>
+ * </ul>
+ * Tracking existing files requires that the cache is notified of every file created below the document root,
+ * e.g. by a {@link DocumentRootIndex}, which also invalidates remembered entries. Without such notifications,
+ * a newly created file may be reported missing until its entry expires.
+ * <p>
+ * Request paths that are not in canonical form, e.g. containing '.' or '..' segments, are never reported
+ * missing, since they may resolve to an existing file in a way the cache cannot see. The cache can be shared
+ * by all threads of the server. Request paths are compared case-sensitively, so that on case-insensitive file
+ * systems a request has to match the case of the file name in order to be served while files are tracked.
+ */
+public class MissingResourceCache {
+
+    private static final double FALSE_POSITIVE_PROBABILITY = 0.01;
+    private static final int MIN_EXPECTED_FILES = 1024;
+
+    private final Path documentRoot;
+    private final String rootResource;
+    private final long timeToLiveNanos;
+    private final int maxEntries;
+    private final LongSupplier nanoClock;
+    private final Map<String, Long> missingResources;
+    private volatile BloomFilter existingFiles;
+
+    /**
+     * Constructs a new, empty cache of missing resources.
+     *
+     * @param documentRoot     the directory from where static files are served.
+     * @param rootResource     the resource that is served in case that "/" is requested.
+     * @param timeToLiveMillis the time in milliseconds for which a missing resource is remembered, with zero
+     *                         meaning that missing resources are not remembered.
+     * @param maxEntries       the maximum number of remembered missing resources.
+     * @throws NullPointerException if the document root or root resource is null.
+     */
+    public MissingResourceCache(Path documentRoot, String rootResource, long timeToLiveMillis, int maxEntries) {
+        this(documentRoot, rootResource, timeToLiveMillis, maxEntries, System::nanoTime);
+    }
+
+    MissingResourceCache(Path documentRoot, String rootResource, long timeToLiveMillis, int maxEntries,
+                         LongSupplier nanoClock) {
+        this.documentRoot = Objects.requireNonNull(documentRoot);
+        this.rootResource = Objects.requireNonNull(rootResource);
+        this.timeToLiveNanos = TimeUnit.MILLISECONDS.toNanos(timeToLiveMillis);
+        this.maxEntries = maxEntries;
+        this.nanoClock = nanoClock;
+        this.missingResources = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Indicates if a requested resource is known to be missing.
+     *
+     * @param requestPath the path of the request.
+     * @return true if the resource is known to be missing, false if it may exist.
+     */
+    public boolean isMissing(String requestPath) {
+
+        String key = toKey(requestPath);
+
+        if (key == null) {
+            return false;
+        }
+
+        BloomFilter filter = existingFiles;
+
+        if (filter != null && !filter.mightContain(key)) {
+            return true;
+        }
+
+        Long expiry = missingResources.get(key);
+
+        if (expiry == null) {
+            return false;
+        }
+
+        if (nanoClock.getAsLong() - expiry >= 0) {
+            missingResources.remove(key, expiry);
+            return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Remembers that a requested resource is missing. If the resource is already remembered and its entry has
+     * not expired, the entry keeps its expiry, so that a resource that is requested frequently is still checked
+     * again once its time to live has passed. If the cache is full, an arbitrary entry is evicted.
+     *
+     * @param requestPath the path of the request.
+     */
+    public void markMissing(String requestPath) {
+
+        String key = toKey(requestPath);
+
+        if (key == null || timeToLiveNanos <= 0 || maxEntries <= 0) {
+            return;
+        }
+
+        if (!missingResources.containsKey(key) && missingResources.size() >= maxEntries) {
+            Iterator<String> iterator = missingResources.keySet().iterator();
+            if (iterator.hasNext()) {
+                iterator.next();
+                iterator.remove();
+            }
+        }
+
+        long now = nanoClock.getAsLong();
+
+        missingResources.compute(key, (resource, expiry) ->
+                expiry != null && now - expiry < 0 ? expiry : now + timeToLiveNanos);
+    }
+
+    /**
+     * Starts tracking the files existing below the document root, so that requests for all other resources
+     * are reported missing. From now on, the cache has to be notified of every created file via
+     * {@link #fileChanged(Path)}.
+     *
+     * @param files the paths of all files and directories existing below the document root.
+     */
+    public synchronized void trackExistingFiles(Collection<Path> files) {
+
+        BloomFilter filter = new BloomFilter(Math.max(MIN_EXPECTED_FILES, 2 * files.size()),
+                FALSE_POSITIVE_PROBABILITY);
+
+        for (Path file : files) {
+            String key = fileKey(file);
+            if (key != null) {
+                filter.add(key);
+            }
+        }
+
+        existingFiles = filter;
+    }
+
+    /**
+     * Invalidates the cached information about a file that was created, modified or deleted.
+     *
+     * @param file the path of the file.
+     */
+    public synchronized void fileChanged(Path file) {
+
+        String key = fileKey(file);
+
+        if (key == null) {
+            return;
+        }
+
+        if (existingFiles != null) {
+            existingFiles.add(key);
+        }
+
+        missingResources.remove(key);
+    }
+
+    /**
+     * Returns the number of remembered missing resources.
+     *
+     * @return the size of the cache.
+     */
+    public int size() {
+        return missingResources.size();
+    }
+
+    /**
+     * Converts a request path into the key of the resource, which is its path relative to the document root
+     * with '/' as separator.
+     *
+     * @return the key, or null if the request path is not in canonical form.
+     */
+    private String toKey(String requestPath) {
+
+        int start = 0;
+        while (start < requestPath.length() && requestPath.charAt(start) == '/') {
+            start++;
+        }
+
+        String key = start == requestPath.length() ? rootResource : requestPath.substring(start);
+
+        return isCanonical(key) ? key : null;
+    }
+
+    private String fileKey(Path file) {
+
+        if (!file.startsWith(documentRoot) || file.equals(documentRoot)) {
+            return null;
+        }
+
+        return documentRoot.relativize(file).toString().replace(File.separatorChar, '/');
+    }
+
+    private static boolean isCanonical(String key) {
+        return !key.isEmpty()
+                && !key.startsWith("/")
+                && !key.endsWith("/")
+                && !key.contains("//")
+                && !key.contains("\\")
+                && !key.equals(".") && !key.equals("..")
+                && !key.startsWith("./") && !key.startsWith("../")
+                && !key.endsWith("/.") && !key.endsWith("/..")
+                && !key.contains("/./") && !key.contains("/../");
+    }
+}
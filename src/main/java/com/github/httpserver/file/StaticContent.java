@@ -0,0 +1,94 @@
+package com.github.httpserver.file;
+
+import java.nio.file.attribute.FileTime;
+import java.util.Objects;
+
+/**
+ * StaticContent is a data model for the cached contents of a local file together with the information
+ * that is needed to answer a request for the file. The size and last modified time of the file at the
+ * moment its contents were read are kept in order to detect when the cached contents became stale.
+ */
+public class StaticContent {
+
+    private final byte[] body;
+    private final String contentType;
+    private final String lastModified;
+    private final String eTag;
+    private final long size;
+    private final FileTime lastModifiedTime;
+
+    /**
+     * Constructs a static content by taking all parameters.
+     *
+     * @param body             the contents of the file.
+     * @param contentType      the content type of the file.
+     * @param lastModified     the last modified date of the file in RFC1123 format.
+     * @param eTag             the ETag of the file contents, or null if it could not be calculated.
+     * @param size             the size of the file when its contents were read.
+     * @param lastModifiedTime the last modified time of the file when its contents were read.
+     * @throws NullPointerException if body, content type, last modified date or time are null.
+     */
+    public StaticContent(byte[] body, String contentType, String lastModified, String eTag, long size,
+                         FileTime lastModifiedTime) {
+        this.body = Objects.requireNonNull(body);
+        this.contentType = Objects.requireNonNull(contentType);
+        this.lastModified = Objects.requireNonNull(lastModified);
+        this.eTag = eTag;
+        this.size = size;
+        this.lastModifiedTime = Objects.requireNonNull(lastModifiedTime);
+    }
+
+    /**
+     * Returns the contents of the file. The returned array is shared and must not be modified.
+     *
+     * @return the file contents as byte array.
+     */
+    public byte[] getBody() {
+        return body;
+    }
+
+    /**
+     * Returns the content type of the file.
+     *
+     * @return the content type as string.
+     */
+    public String getContentType() {
+        return contentType;
+    }
+
+    /**
+     * Returns the last modified date of the file in RFC1123 format.
+     *
+     * @return the last modified date as string.
+     */
+    public String getLastModified() {
+        return lastModified;
+    }
+
+    /**
+     * Returns the ETag of the file contents.
+     *
+     * @return the ETag as string, or null if it could not be calculated.
+     */
+    public String getETag() {
+        return eTag;
+    }
+
+    /**
+     * Returns the size of the file when its contents were read.
+     *
+     * @return the file size in bytes.
+     */
+    public long getSize() {
+        return size;
+    }
+
+    /**
+     * Returns the last modified time of the file when its contents were read.
+     *
+     * @return the last modified time.
+     */
+    public FileTime getLastModifiedTime() {
+        return lastModifiedTime;
+    }
+}
@@ -0,0 +1,197 @@
+package com.github.httpserver.file;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * StaticContentCache keeps the contents of frequently requested files in memory, so that they can be served
+ * without reading the file system. The cache is bounded by the total number of cached bytes. When adding
+ * contents would exceed that budget, the least recently used contents are evicted first. Files larger than
+ * the configured maximum file size are only cached if they are preloaded explicitly, since they are otherwise
+ * transferred directly from the file system anyway.
+ * <p>
+ * Cached contents are validated against the size and last modified time of the file on every lookup, so
+ * that a modified file is read again instead of being served stale. The cache can be shared by all threads
+ * of the server.
+ */
+public class StaticContentCache {
+
+    private final long capacity;
+    private final long maxFileSize;
+    private final ETagIndex eTagIndex;
+    private final Map<Path, StaticContent> contents;
+    private long usedBytes;
+
+    /**
+     * Constructs a new, empty content cache.
+     *
+     * @param capacity    the maximum number of bytes of file contents held by the cache. A capacity of
+     *                    zero disables the cache.
+     * @param maxFileSize the maximum size in bytes of a file whose contents are cached.
+     * @param eTagIndex   the index that the ETags of cached contents are shared with.
+     */
+    public StaticContentCache(long capacity, long maxFileSize, ETagIndex eTagIndex) {
+        this.capacity = capacity;
+        this.maxFileSize = Math.min(capacity, maxFileSize);
+        this.eTagIndex = eTagIndex;
+        this.contents = new LinkedHashMap<>(16, 0.75f, true);
+        this.usedBytes = 0;
+    }
+
+    /**
+     * Returns the cached contents of a file, or reads and caches them if they are not cached yet or the
+     * cached contents are stale. The ETag of newly read contents is calculated from the contents in memory
+     * and added to the ETag index, unless the index already holds it.
+     * <p>
+     * If the file changed while it was read, i.e. the number of bytes read or the attributes read afterwards
+     * do not match the given attributes, the contents are neither cached nor returned, and their ETag is not
+     * indexed, since it would be stored under the attributes of the previous version of the file.
+     *
+     * @param fileInfo   the information of the file, providing its path, content type and last modified date.
+     * @param attributes the current attributes of the file, used to validate cached contents.
+     * @return the contents of the file, or null if the cache is disabled, the file is not cached and too large
+     * to be cached or changed while it was read, in which case it is to be served from the file system.
+     * @throws IOException if the file cannot be read.
+     */
+    public StaticContent getOrLoad(FileInfo fileInfo, BasicFileAttributes attributes) throws IOException {
+        return getOrLoad(fileInfo, attributes, maxFileSize);
+    }
+
+    /**
+     * Returns the cached contents of a file, or reads and caches them regardless of the maximum file size, as
+     * long as they fit into the capacity of the cache. This is meant for files that are pinned in the cache
+     * during warm-up; like all other contents, they are evicted once they are the least recently used.
+     *
+     * @param fileInfo   the information of the file, providing its path, content type and last modified date.
+     * @param attributes the current attributes of the file, used to validate cached contents.
+     * @return the contents of the file, or null if the cache is disabled, the file is larger than the capacity
+     * of the cache or changed while it was read.
+     * @throws IOException if the file cannot be read.
+     * @see #getOrLoad(FileInfo, BasicFileAttributes)
+     */
+    public StaticContent preload(FileInfo fileInfo, BasicFileAttributes attributes) throws IOException {
+        return getOrLoad(fileInfo, attributes, capacity);
+    }
+
+    private StaticContent getOrLoad(FileInfo fileInfo, BasicFileAttributes attributes, long sizeLimit)
+            throws IOException {
+
+        if (capacity <= 0) {
+            return null;
+        }
+
+        Path filePath = fileInfo.getFilePath();
+        StaticContent content = get(filePath, attributes);
+
+        if (content != null || attributes.size() > sizeLimit) {
+            return content;
+        }
+
+        byte[] body = Files.readAllBytes(filePath);
+
+        if (body.length != attributes.size() || isModified(filePath, attributes)) {
+            return null;
+        }
+
+        String eTag = eTagIndex.getETag(filePath, attributes, body);
+
+        content = new StaticContent(body, fileInfo.getContentType(), fileInfo.getLastModified(), eTag,
+                attributes.size(), attributes.lastModifiedTime());
+        put(filePath, content, sizeLimit);
+
+        return content;
+    }
+
+    /**
+     * Returns the cached contents of a file if they match the given file attributes. Stale contents are
+     * removed from the cache.
+     *
+     * @param filePath   the path of the file.
+     * @param attributes the current attributes of the file.
+     * @return the cached contents, or null if no valid contents are cached.
+     */
+    public synchronized StaticContent get(Path filePath, BasicFileAttributes attributes) {
+
+        StaticContent content = contents.get(filePath);
+
+        if (content == null) {
+            return null;
+        }
+
+        if (content.getSize() != attributes.size()
+                || !content.getLastModifiedTime().equals(attributes.lastModifiedTime())) {
+            remove(filePath);
+            return null;
+        }
+
+        return content;
+    }
+
+    /**
+     * Adds the contents of a file to the cache, evicting the least recently used contents until the
+     * contents fit into the cache. Contents larger than the maximum file size are not added.
+     *
+     * @param filePath the path of the file.
+     * @param content  the contents of the file.
+     */
+    public void put(Path filePath, StaticContent content) {
+        put(filePath, content, maxFileSize);
+    }
+
+    private synchronized void put(Path filePath, StaticContent content, long sizeLimit) {
+
+        long size = content.getBody().length;
+
+        if (capacity <= 0 || size > sizeLimit) {
+            return;
+        }
+
+        remove(filePath);
+
+        Iterator<StaticContent> iterator = contents.values().iterator();
+        while (usedBytes + size > capacity && iterator.hasNext()) {
+            usedBytes -= iterator.next().getBody().length;
+            iterator.remove();
+        }
+
+        contents.put(filePath, content);
+        usedBytes += size;
+    }
+
+    /**
+     * Removes the contents of a file from the cache.
+     *
+     * @param filePath the path of the file.
+     */
+    public synchronized void remove(Path filePath) {
+        StaticContent content = contents.remove(filePath);
+
+        if (content != null) {
+            usedBytes -= content.getBody().length;
+        }
+    }
+
+    /**
+     * Returns the number of bytes of file contents currently held by the cache.
+     *
+     * @return the used bytes.
+     */
+    public synchronized long getUsedBytes() {
+        return usedBytes;
+    }
+
+    /**
+     * Determines if the attributes of a file differ from the given attributes, i.e. if the file was modified
+     * after the given attributes were read.
+     */
+    private static boolean isModified(Path filePath, BasicFileAttributes attributes) throws IOException {
+        BasicFileAttributes currentAttributes = Files.readAttributes(filePath, BasicFileAttributes.class);
+        return currentAttributes.size() != attributes.size()
+                || !currentAttributes.lastModifiedTime().equals(attributes.lastModifiedTime());
+    }
+}
@@ -1,13 +1,16 @@
 package com.github.httpserver.handler;
 
 import com.github.httpserver.configuration.Configuration;
-import com.github.httpserver.exception.BadRequestException;
 import com.github.httpserver.exception.HttpException;
 import com.github.httpserver.exception.InternalServerErrorException;
 import com.github.httpserver.exception.NotFoundException;
 import com.github.httpserver.exception.PreconditionFailedException;
+import com.github.httpserver.file.DocumentRootIndex;
+import com.github.httpserver.file.ETagIndex;
 import com.github.httpserver.file.FileInfo;
 import com.github.httpserver.file.FileInfoRetriever;
+import com.github.httpserver.file.StaticContent;
+import com.github.httpserver.file.StaticContentCache;
 import com.github.httpserver.helper.HttpResponseBuilder;
 import com.github.httpserver.protocol.HttpHeader;
 import com.github.httpserver.protocol.HttpRequest;
@@ -17,10 +20,9 @@ import com.github.httpserver.server.ServerConstants;
 import org.tinylog.Logger;
 
 import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.time.DateTimeException;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.Objects;
 
 /**
@@ -29,20 +31,62 @@ import java.util.Objects;
 public class HttpGetRequestHandler implements HttpRequestHandler {
 
     private final Configuration config;
+    private final StaticContentCache contentCache;
+    private final ETagIndex eTagIndex;
+    private final DocumentRootIndex documentRootIndex;
 
     /**
-     * Constructs a new HTTP GET request handler by taking the application configuration.
+     * Constructs a new HTTP GET request handler by taking the application configuration. File contents
+     * are not cached by the handler.
      *
      * @param config the application configuration.
      */
     public HttpGetRequestHandler(Configuration config) {
+        this(config, new ETagIndex());
+    }
+
+    private HttpGetRequestHandler(Configuration config, ETagIndex eTagIndex) {
+        this(config, new StaticContentCache(0, 0, eTagIndex), eTagIndex);
+    }
+
+    /**
+     * Constructs a new HTTP GET request handler by taking the application configuration, and a content
+     * cache and an ETag index that are shared with other request handlers.
+     *
+     * @param config       the application configuration.
+     * @param contentCache the cache of file contents.
+     * @param eTagIndex    the index used to look up the ETags of files that are not cached.
+     * @throws NullPointerException if any of the input parameters are null.
+     */
+    public HttpGetRequestHandler(Configuration config, StaticContentCache contentCache, ETagIndex eTagIndex) {
+        this(config, contentCache, eTagIndex,
+                new DocumentRootIndex(ServerConstants.getCurrentFilePath().resolve(config.getSourcePath())));
+    }
+
+    /**
+     * Constructs a new HTTP GET request handler by taking the application configuration, and a content
+     * cache, an ETag index and a document root index that are shared with other request handlers.
+     *
+     * @param config            the application configuration.
+     * @param contentCache      the cache of file contents.
+     * @param eTagIndex         the index used to look up the ETags of files that are not cached.
+     * @param documentRootIndex the index used to look up the attributes of requested files.
+     * @throws NullPointerException if any of the input parameters are null.
+     */
+    public HttpGetRequestHandler(Configuration config, StaticContentCache contentCache, ETagIndex eTagIndex,
+                                 DocumentRootIndex documentRootIndex) {
         this.config = Objects.requireNonNull(config);
+        this.contentCache = Objects.requireNonNull(contentCache);
+        this.eTagIndex = Objects.requireNonNull(eTagIndex);
+        this.documentRootIndex = Objects.requireNonNull(documentRootIndex);
     }
 
     /**
      * Creates a response to a HTTP GET request. The resource is retrieved from the file system
      * and the response is built by putting all relevant information about the resource into the response
-     * header. If the request succeeds, the response body contains the file contents.
+     * header. If the request succeeds, the response body contains the file contents. Contents of small files
+     * are served from the content cache, while larger files are transferred to the client without being
+     * loaded into memory.
      * <p>
      * In case that the requested resource has not been modified since the last request by the client
      * (determined via 'If-None-Match' and 'If-Modified-Since' headers, a '304 Not Modified' response is
@@ -64,12 +108,20 @@ public class HttpGetRequestHandler implements HttpRequestHandler {
 
         Path filePath = ServerConstants.getCurrentFilePath().resolve(Paths.get(config.getSourcePath(), requestPath));
 
-        if (!Files.exists(filePath) || Files.isDirectory(filePath)) {
-            throw new NotFoundException(String.format("Resource %s can not be found", requestPath));
+        BasicFileAttributes attributes;
+
+        try {
+            attributes = documentRootIndex.readAttributes(filePath);
+        } catch (IOException e) {
+            attributes = null;
+        }
+
+        if (attributes == null || attributes.isDirectory()) {
+            throw new NotFoundException();
         }
 
         try {
-            FileInfo fileInfo = fileRetriever.retrieveFileInfo(filePath);
+            FileInfo fileInfo = fileRetriever.retrieveFileInfo(filePath, attributes);
 
             if (fileInfo.isValid()) {
 
@@ -79,12 +131,26 @@ public class HttpGetRequestHandler implements HttpRequestHandler {
                             .build();
                 }
 
-                byte[] fileContents = Files.readAllBytes(fileInfo.getFilePath());
+                StaticContent content = contentCache.getOrLoad(fileInfo, attributes);
+
+                if (content != null) {
+                    HttpResponseBuilder responseBuilder = new HttpResponseBuilder()
+                            .setBody(content.getBody())
+                            .appendHeader(HttpHeader.HEADER_CONTENT_TYPE, content.getContentType())
+                            .appendContentLengthHeader()
+                            .appendHeader(HttpHeader.HEADER_LAST_MODIFIED, content.getLastModified());
+
+                    if (content.getETag() != null) {
+                        responseBuilder.appendHeader(HttpHeader.HEADER_ETAG, content.getETag());
+                    }
+
+                    return responseBuilder.build();
+                }
 
                 return new HttpResponseBuilder()
-                        .setBody(fileContents)
+                        .setBodyFile(fileInfo.getFilePath(), attributes.size())
                         .appendHeader(HttpHeader.HEADER_CONTENT_TYPE, fileInfo.getContentType())
-                        .appendETagHeader()
+                        .appendHeader(HttpHeader.HEADER_ETAG, eTagIndex.getETag(fileInfo.getFilePath(), attributes))
                         .appendContentLengthHeader()
                         .appendHeader(HttpHeader.HEADER_LAST_MODIFIED, fileInfo.getLastModified())
                         .build();
@@ -93,8 +159,6 @@ public class HttpGetRequestHandler implements HttpRequestHandler {
         } catch (IOException e) {
             Logger.error(e, "Unable to read requested file {}", filePath);
             throw new InternalServerErrorException(e);
-        } catch (DateTimeException e) {
-            throw new BadRequestException(e.getMessage(), e);
         }
 
         throw new PreconditionFailedException();
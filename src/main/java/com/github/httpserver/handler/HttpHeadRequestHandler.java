@@ -1,13 +1,16 @@
 package com.github.httpserver.handler;
 
 import com.github.httpserver.configuration.Configuration;
-import com.github.httpserver.exception.BadRequestException;
 import com.github.httpserver.exception.HttpException;
 import com.github.httpserver.exception.InternalServerErrorException;
 import com.github.httpserver.exception.NotFoundException;
 import com.github.httpserver.exception.PreconditionFailedException;
+import com.github.httpserver.file.DocumentRootIndex;
+import com.github.httpserver.file.ETagIndex;
 import com.github.httpserver.file.FileInfo;
 import com.github.httpserver.file.FileInfoRetriever;
+import com.github.httpserver.file.StaticContent;
+import com.github.httpserver.file.StaticContentCache;
 import com.github.httpserver.helper.HttpResponseBuilder;
 import com.github.httpserver.protocol.HttpHeader;
 import com.github.httpserver.protocol.HttpRequest;
@@ -17,33 +20,72 @@ import com.github.httpserver.server.ServerConstants;
 import org.tinylog.Logger;
 
 import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.security.NoSuchAlgorithmException;
-import java.time.DateTimeException;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.Objects;
 
 /**
- * HttpGetRequestHandler is a concrete request handler for HTTP HEAD requests.
+ * HttpHeadRequestHandler is a concrete request handler for HTTP HEAD requests.
  */
 public class HttpHeadRequestHandler implements HttpRequestHandler {
 
     private final Configuration config;
+    private final StaticContentCache contentCache;
+    private final ETagIndex eTagIndex;
+    private final DocumentRootIndex documentRootIndex;
 
     /**
-     * Constructs a new HTTP HEAD request handler by taking the application configuration.
+     * Constructs a new HTTP HEAD request handler by taking the application configuration. File contents
+     * are not cached by the handler.
      *
      * @param config the application configuration.
      */
     public HttpHeadRequestHandler(Configuration config) {
+        this(config, new ETagIndex());
+    }
+
+    private HttpHeadRequestHandler(Configuration config, ETagIndex eTagIndex) {
+        this(config, new StaticContentCache(0, 0, eTagIndex), eTagIndex);
+    }
+
+    /**
+     * Constructs a new HTTP HEAD request handler by taking the application configuration, and a content
+     * cache and an ETag index that are shared with other request handlers.
+     *
+     * @param config       the application configuration.
+     * @param contentCache the cache of file contents.
+     * @param eTagIndex    the index used to look up the ETags of files that are not cached.
+     * @throws NullPointerException if any of the input parameters are null.
+     */
+    public HttpHeadRequestHandler(Configuration config, StaticContentCache contentCache, ETagIndex eTagIndex) {
+        this(config, contentCache, eTagIndex,
+                new DocumentRootIndex(ServerConstants.getCurrentFilePath().resolve(config.getSourcePath())));
+    }
+
+    /**
+     * Constructs a new HTTP HEAD request handler by taking the application configuration, and a content
+     * cache, an ETag index and a document root index that are shared with other request handlers.
+     *
+     * @param config            the application configuration.
+     * @param contentCache      the cache of file contents.
+     * @param eTagIndex         the index used to look up the ETags of files that are not cached.
+     * @param documentRootIndex the index used to look up the attributes of requested files.
+     * @throws NullPointerException if any of the input parameters are null.
+     */
+    public HttpHeadRequestHandler(Configuration config, StaticContentCache contentCache, ETagIndex eTagIndex,
+                                  DocumentRootIndex documentRootIndex) {
         this.config = Objects.requireNonNull(config);
+        this.contentCache = Objects.requireNonNull(contentCache);
+        this.eTagIndex = Objects.requireNonNull(eTagIndex);
+        this.documentRootIndex = Objects.requireNonNull(documentRootIndex);
     }
 
     /**
      * Creates a response to a HTTP HEAD request. The resource is retrieved from the file system
      * and the response is built by putting all relevant information about the resource into the response
-     * header. The file contents are not included in the response.
+     * header. The file contents are not included in the response and are not loaded either: the ETag is taken
+     * from the content cache if the file is already cached, and from the ETag index otherwise.
      * <p>
      * In case that the requested resource has not been modified since the last request by the client
      * (determined via 'If-None-Match' and 'If-Modified-Since' headers, a '304 Not Modified' response is
@@ -65,12 +107,20 @@ public class HttpHeadRequestHandler implements HttpRequestHandler {
 
         Path filePath = ServerConstants.getCurrentFilePath().resolve(Paths.get(config.getSourcePath(), requestPath));
 
-        if (!Files.exists(filePath) || Files.isDirectory(filePath)) {
-            throw new NotFoundException(String.format("Resource %s can not be found", requestPath));
+        BasicFileAttributes attributes;
+
+        try {
+            attributes = documentRootIndex.readAttributes(filePath);
+        } catch (IOException e) {
+            attributes = null;
+        }
+
+        if (attributes == null || attributes.isDirectory()) {
+            throw new NotFoundException();
         }
 
         try {
-            FileInfo fileInfo = fileRetriever.retrieveFileInfo(filePath);
+            FileInfo fileInfo = fileRetriever.retrieveFileInfo(filePath, attributes);
 
             if (fileInfo.isValid()) {
 
@@ -80,12 +130,26 @@ public class HttpHeadRequestHandler implements HttpRequestHandler {
                             .build();
                 }
 
-                byte[] fileContents = Files.readAllBytes(fileInfo.getFilePath());
+                StaticContent content = contentCache.get(fileInfo.getFilePath(), attributes);
+
+                if (content != null) {
+                    HttpResponseBuilder responseBuilder = new HttpResponseBuilder()
+                            .appendHeader(HttpHeader.HEADER_CONTENT_TYPE, content.getContentType())
+                            .appendHeader(HttpHeader.HEADER_CONTENT_LENGTH, String.valueOf(content.getSize()))
+                            .appendHeader(HttpHeader.HEADER_LAST_MODIFIED, content.getLastModified());
+
+                    if (content.getETag() != null) {
+                        responseBuilder.appendHeader(HttpHeader.HEADER_ETAG, content.getETag());
+                    }
+
+                    return responseBuilder.build();
+                }
 
+                // the body is not needed, so that the file is not loaded into the content cache
                 return new HttpResponseBuilder()
                         .appendHeader(HttpHeader.HEADER_CONTENT_TYPE, fileInfo.getContentType())
-                        .appendHeader(HttpHeader.HEADER_ETAG, ServerConstants.calculateETag(fileContents))
-                        .appendHeader(HttpHeader.HEADER_CONTENT_LENGTH, String.valueOf(fileContents.length))
+                        .appendHeader(HttpHeader.HEADER_ETAG, eTagIndex.getETag(fileInfo.getFilePath(), attributes))
+                        .appendHeader(HttpHeader.HEADER_CONTENT_LENGTH, String.valueOf(attributes.size()))
                         .appendHeader(HttpHeader.HEADER_LAST_MODIFIED, fileInfo.getLastModified())
                         .build();
             }
@@ -93,10 +157,6 @@ public class HttpHeadRequestHandler implements HttpRequestHandler {
         } catch (IOException e) {
             Logger.error(e, "Unable to read requested file {}", filePath);
             throw new InternalServerErrorException(e);
-        } catch (DateTimeException e) {
-            throw new BadRequestException(e.getMessage(), e);
-        } catch (NoSuchAlgorithmException e) {
-            Logger.warn("Unable to calculate ETag due to unknown hashing algorithm");
         }
 
         throw new PreconditionFailedException();
@@ -2,7 +2,11 @@ package com.github.httpserver.handler;
 
 import com.github.httpserver.configuration.Configuration;
 import com.github.httpserver.exception.MethodNotAllowedException;
+import com.github.httpserver.file.DocumentRootIndex;
+import com.github.httpserver.file.ETagIndex;
+import com.github.httpserver.file.StaticContentCache;
 import com.github.httpserver.protocol.HttpRequest;
+import com.github.httpserver.server.ServerConstants;
 
 import java.util.Objects;
 
@@ -13,15 +17,60 @@ import java.util.Objects;
 public class HttpRequestHandlerFactory {
 
     private final Configuration config;
+    private final StaticContentCache contentCache;
+    private final ETagIndex eTagIndex;
+    private final DocumentRootIndex documentRootIndex;
 
     /**
-     * Constructs a request handler factory by taking the application configuration.
+     * Constructs a request handler factory by taking the application configuration. The created request
+     * handlers share a content cache sized according to the configuration and a private ETag index.
      *
      * @param config the application configuration.
      * @throws NullPointerException if the passed configuration is null.
      */
     public HttpRequestHandlerFactory(Configuration config) {
+        this(config, new ETagIndex());
+    }
+
+    /**
+     * Constructs a request handler factory by taking the application configuration and an ETag index that
+     * is shared with other components. The created request handlers share a content cache sized according
+     * to the configuration.
+     *
+     * @param config    the application configuration.
+     * @param eTagIndex the index used to look up the ETags of files.
+     * @throws NullPointerException if the passed configuration or ETag index is null.
+     */
+    public HttpRequestHandlerFactory(Configuration config, ETagIndex eTagIndex) {
+        this(config, eTagIndex,
+                new DocumentRootIndex(ServerConstants.getCurrentFilePath().resolve(config.getSourcePath())));
+    }
+
+    /**
+     * Constructs a request handler factory by taking the application configuration, and an ETag index and
+     * a document root index that are shared with other components. The created request handlers share a
+     * content cache sized according to the configuration.
+     *
+     * @param config            the application configuration.
+     * @param eTagIndex         the index used to look up the ETags of files.
+     * @param documentRootIndex the index used to look up the attributes of requested files.
+     * @throws NullPointerException if any of the input parameters are null.
+     */
+    public HttpRequestHandlerFactory(Configuration config, ETagIndex eTagIndex, DocumentRootIndex documentRootIndex) {
         this.config = Objects.requireNonNull(config);
+        this.eTagIndex = Objects.requireNonNull(eTagIndex);
+        this.documentRootIndex = Objects.requireNonNull(documentRootIndex);
+        this.contentCache = new StaticContentCache(config.getContentCacheSize(), config.getContentCacheMaxFileSize(),
+                eTagIndex);
+    }
+
+    /**
+     * Returns the content cache that is shared by the created request handlers.
+     *
+     * @return the content cache.
+     */
+    public StaticContentCache getContentCache() {
+        return contentCache;
     }
 
     /**
@@ -37,9 +86,9 @@ public class HttpRequestHandlerFactory {
             throws MethodNotAllowedException {
         switch (request.getMethod()) {
             case GET:
-                return new HttpGetRequestHandler(config);
+                return new HttpGetRequestHandler(config, contentCache, eTagIndex, documentRootIndex);
             case HEAD:
-                return new HttpHeadRequestHandler(config);
+                return new HttpHeadRequestHandler(config, contentCache, eTagIndex, documentRootIndex);
             default:
                 throw new MethodNotAllowedException();
         }
@@ -0,0 +1,203 @@
+package com.github.httpserver.helper;
+
+import com.github.httpserver.exception.BadRequestException;
+import com.github.httpserver.exception.HttpException;
+import com.github.httpserver.exception.RequestHeaderFieldsTooLargeException;
+import com.github.httpserver.protocol.HttpHeader;
+import com.github.httpserver.protocol.HttpRequest;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * HttpRequestDecoder incrementally decodes the HTTP requests sent over a single client connection. Bytes
+ * read from the client are collected across multiple reads until the end of a request's header section has
+ * been received, and only then the request is parsed by a {@link HttpRequestParser}. Request bodies are
+ * skipped according to their 'Content-Length' header, since the server does not process them.
+ * <p>
+ * A decoder holds the parse state of one connection and must therefore not be shared between connections.
+ */
+public class HttpRequestDecoder {
+
+    private static final int INITIAL_BUFFER_SIZE = 1024;
+
+    private final HttpRequestParser requestParser;
+    private final int maxHeaderSize;
+
+    private byte[] buffer;
+    private int length;
+    private int scanned;
+    private long bodyBytesToSkip;
+
+    /**
+     * Constructs a new request decoder.
+     *
+     * @param requestParser the parser used to parse the header section of a request once it is complete.
+     * @param maxHeaderSize the maximum size in bytes of a request line together with all request header entries.
+     */
+    public HttpRequestDecoder(HttpRequestParser requestParser, int maxHeaderSize) {
+        this.requestParser = requestParser;
+        this.maxHeaderSize = maxHeaderSize;
+        this.buffer = new byte[Math.min(INITIAL_BUFFER_SIZE, maxHeaderSize)];
+    }
+
+    /**
+     * Appends bytes that were read from the client to the bytes collected so far.
+     *
+     * @param input the bytes read from the client, ready for reading. The buffer is consumed completely.
+     */
+    public void append(ByteBuffer input) {
+
+        int skipped = (int) Math.min(bodyBytesToSkip, input.remaining());
+        input.position(input.position() + skipped);
+        bodyBytesToSkip -= skipped;
+
+        if (length + input.remaining() > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, length + input.remaining()));
+        }
+
+        int remaining = input.remaining();
+        input.get(buffer, length, remaining);
+        length += remaining;
+    }
+
+    /**
+     * Decodes the next request from the bytes collected so far.
+     *
+     * @return the decoded request, or null if the header section of the next request has not been
+     * received completely yet and more bytes have to be read from the client.
+     * @throws HttpException if the request is malformed or its header section exceeds the size limit. All
+     *                       bytes collected so far are discarded in that case.
+     */
+    public HttpRequest decode() throws HttpException {
+
+        skipLeadingLineBreaks();
+
+        int headerEnd = findHeaderEnd();
+
+        if (headerEnd < 0) {
+            if (length > maxHeaderSize) {
+                reset();
+                throw new RequestHeaderFieldsTooLargeException(maxHeaderSize);
+            }
+            return null;
+        }
+
+        if (headerEnd > maxHeaderSize) {
+            reset();
+            throw new RequestHeaderFieldsTooLargeException(maxHeaderSize);
+        }
+
+        HttpRequest request;
+
+        try {
+            request = requestParser.parseRequest(buffer, 0, headerEnd);
+            consume(headerEnd);
+            skipBody(request);
+        } catch (HttpException e) {
+            reset();
+            throw e;
+        }
+
+        return request;
+    }
+
+    /**
+     * Indicates if there are collected bytes that have not been decoded into a request yet.
+     *
+     * @return a boolean indicating if undecoded bytes are buffered.
+     */
+    public boolean hasBufferedData() {
+        return length > 0;
+    }
+
+    /**
+     * Discards all collected bytes and the parse state.
+     */
+    public void reset() {
+        length = 0;
+        scanned = 0;
+        bodyBytesToSkip = 0;
+    }
+
+    /**
+     * Finds the end of the header section, which is terminated by an empty line. Bytes that were already
+     * scanned by previous calls are not scanned again.
+     *
+     * @return the index directly after the empty line, or -1 if the header section is not complete yet.
+     */
+    private int findHeaderEnd() {
+        for (int i = scanned; i < length; i++) {
+
+            if (buffer[i] != '\n') {
+                continue;
+            }
+
+            if (i + 1 == length) {
+                scanned = i;
+                return -1;
+            }
+
+            if (buffer[i + 1] == '\n') {
+                return i + 2;
+            }
+
+            if (buffer[i + 1] == '\r') {
+                if (i + 2 == length) {
+                    scanned = i;
+                    return -1;
+                }
+
+                if (buffer[i + 2] == '\n') {
+                    return i + 3;
+                }
+            }
+        }
+
+        scanned = length;
+        return -1;
+    }
+
+    /**
+     * Skips empty lines preceding a request line, as recommended by RFC 7230, section 3.5.
+     */
+    private void skipLeadingLineBreaks() {
+        int skipped = 0;
+        while (skipped < length && (buffer[skipped] == '\r' || buffer[skipped] == '\n')) {
+            skipped++;
+        }
+
+        if (skipped > 0) {
+            consume(skipped);
+        }
+    }
+
+    private void skipBody(HttpRequest request) throws BadRequestException {
+
+        String contentLength = request.getHeaders().get(HttpHeader.HEADER_CONTENT_LENGTH);
+
+        if (contentLength == null) {
+            return;
+        }
+
+        try {
+            bodyBytesToSkip = Long.parseLong(contentLength);
+        } catch (NumberFormatException e) {
+            throw new BadRequestException(String.format("Invalid content length %s", contentLength), e);
+        }
+
+        if (bodyBytesToSkip < 0) {
+            throw new BadRequestException(String.format("Invalid content length %s", contentLength));
+        }
+
+        int skipped = (int) Math.min(bodyBytesToSkip, length);
+        consume(skipped);
+        bodyBytesToSkip -= skipped;
+    }
+
+    private void consume(int count) {
+        System.arraycopy(buffer, count, buffer, 0, length - count);
+        length -= count;
+        scanned = 0;
+    }
+}
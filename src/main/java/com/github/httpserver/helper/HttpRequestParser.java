@@ -2,22 +2,61 @@ package com.github.httpserver.helper;
 
 import com.github.httpserver.exception.BadRequestException;
 import com.github.httpserver.exception.HttpException;
+import com.github.httpserver.protocol.HttpHeader;
 import com.github.httpserver.protocol.HttpMethod;
 import com.github.httpserver.protocol.HttpRequest;
+import com.github.httpserver.server.ServerConstants;
 
-import java.io.ByteArrayInputStream;
-import java.text.ParseException;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.NoSuchElementException;
-import java.util.Scanner;
-import java.util.StringTokenizer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 
 /**
  * HttpRequestParser parses a raw HTTP client request creating a request model.
+ * <p>
+ * The parser scans the raw bytes of a request directly for line breaks, spaces and colons instead of
+ * decoding the request into intermediate strings first. Request methods, the supported HTTP version and
+ * the header keys the server acts upon are matched against pre-encoded byte constants. Header entries are
+ * not decoded while parsing: the header section is copied once, and the parser only records where the key and
+ * value of every entry are located, so that strings are only created for the path and for the header values
+ * that are looked up (see {@link RequestHeaders}). Known header keys are matched case-insensitively and stored
+ * under their canonical {@link HttpHeader} constant.
  */
 public class HttpRequestParser {
 
+    private static final byte CR = '\r';
+    private static final byte LF = '\n';
+    private static final byte SP = ' ';
+    private static final byte HT = '\t';
+    private static final byte COLON = ':';
+    private static final byte QUERY_DELIMITER = '?';
+
+    private static final HttpMethod[] METHODS = HttpMethod.values();
+    private static final byte[][] METHOD_NAMES = new byte[METHODS.length][];
+
+    static final String[] KNOWN_HEADER_KEYS = {
+            HttpHeader.HEADER_CONNECTION,
+            HttpHeader.HEADER_CONTENT_LENGTH,
+            HttpHeader.HEADER_CONTENT_TYPE,
+            HttpHeader.HEADER_ETAG,
+            HttpHeader.HEADER_IF_MATCH,
+            HttpHeader.HEADER_IF_MODIFIED_SINCE,
+            HttpHeader.HEADER_IF_NONE_MATCH,
+            HttpHeader.HEADER_LAST_MODIFIED
+    };
+    private static final byte[][] KNOWN_HEADER_KEY_NAMES = new byte[KNOWN_HEADER_KEYS.length][];
+
+    private static final byte[] SUPPORTED_VERSION = encode(ServerConstants.SUPPORTED_HTTP_VERSION);
+
+    static {
+        for (int i = 0; i < METHODS.length; i++) {
+            METHOD_NAMES[i] = encode(METHODS[i].name());
+        }
+
+        for (int i = 0; i < KNOWN_HEADER_KEYS.length; i++) {
+            KNOWN_HEADER_KEY_NAMES[i] = encode(KNOWN_HEADER_KEYS[i]);
+        }
+    }
+
     /**
      * Reads a raw HTTP request and parses it into a HTTP request model. If the request
      * to be parsed contains a body, it is ignored.
@@ -27,63 +66,200 @@ public class HttpRequestParser {
      * @throws HttpException if the client request is malformed.
      */
     public HttpRequest parseRequest(byte[] rawRequest) throws HttpException {
+        return parseRequest(rawRequest, 0, rawRequest.length);
+    }
 
-        Scanner scanner = new Scanner(new ByteArrayInputStream(rawRequest));
+    /**
+     * Reads a raw HTTP request from a region of a byte array and parses it into a HTTP request
+     * model. If the request to be parsed contains a body, it is ignored.
+     *
+     * @param rawRequest the byte array containing the raw HTTP request.
+     * @param offset     the index of the first byte of the request.
+     * @param length     the number of bytes of the request.
+     * @return the request model.
+     * @throws HttpException if the client request is malformed.
+     */
+    public HttpRequest parseRequest(byte[] rawRequest, int offset, int length) throws HttpException {
+
+        int end = offset + length;
 
-        RequestLine requestLine;
-        Map<String, String> headers = new HashMap<>();
+        int lineBreak = indexOf(rawRequest, LF, offset, end);
+        if (lineBreak < 0) {
+            throw new BadRequestException("Request line is incomplete");
+        }
+
+        RequestLine requestLine = parseRequestLine(rawRequest, offset, lineEnd(rawRequest, offset, lineBreak));
+
+        // header values are decoded lazily, so that they must not be affected by later reuse of the input array
+        byte[] headerSection = Arrays.copyOfRange(rawRequest, lineBreak + 1, end);
+        RequestHeaders headers = new RequestHeaders(headerSection);
 
-        try {
-            String line = scanner.nextLine();
-            requestLine = parseRequestLine(line);
+        int position = 0;
+        end = headerSection.length;
+
+        while (true) {
+            lineBreak = indexOf(headerSection, LF, position, end);
+            if (lineBreak < 0) {
+                throw new BadRequestException("Request header section is incomplete");
+            }
 
-            while ((line = scanner.nextLine()).length() > 0) {
-                HeaderEntry headerEntry = parseHeaderEntry(line);
-                headers.put(headerEntry.getKey(), headerEntry.getValue());
+            int lineEnd = lineEnd(headerSection, position, lineBreak);
+            if (lineEnd == position) {
+                break;
             }
-        } catch (ParseException | NoSuchElementException e) {
-            throw new BadRequestException(e.getMessage(), e);
+
+            parseHeaderEntry(headerSection, position, lineEnd, headers);
+            position = lineBreak + 1;
         }
 
         return new HttpRequest(requestLine.getMethod(), requestLine.getVersion(),
                 requestLine.getPath(), headers);
     }
 
-    private RequestLine parseRequestLine(String line) throws ParseException {
-        StringTokenizer tokenizer = new StringTokenizer(line, " ");
-        String methodString = tokenizer.nextToken();
-        String path = tokenizer.nextToken();
-        String version = tokenizer.nextToken();
+    private RequestLine parseRequestLine(byte[] raw, int start, int end) throws BadRequestException {
+
+        int methodStart = skip(raw, SP, start, end);
+        int methodEnd = indexOf(raw, SP, methodStart, end);
+
+        int pathStart = methodEnd < 0 ? end : skip(raw, SP, methodEnd, end);
+        int pathEnd = indexOf(raw, SP, pathStart, end);
 
-        if (tokenizer.hasMoreTokens()) {
-            throw new ParseException("Request line is longer than expected", 0);
+        int versionStart = pathEnd < 0 ? end : skip(raw, SP, pathEnd, end);
+
+        if (versionStart == end) {
+            throw new BadRequestException("Request line is shorter than expected");
         }
 
-        // strip query params from path
-        int index;
-        if ((index = path.indexOf("?")) != -1) {
-            path = path.substring(0, index);
+        int versionEnd = indexOf(raw, SP, versionStart, end);
+
+        if (versionEnd < 0) {
+            versionEnd = end;
+        } else if (skip(raw, SP, versionEnd, end) < end) {
+            throw new BadRequestException("Request line is longer than expected");
         }
 
-        HttpMethod method;
+        HttpMethod method = matchMethod(raw, methodStart, methodEnd);
 
-        try {
-            method = HttpMethod.valueOf(methodString);
-        } catch (IllegalArgumentException e) {
-            throw new ParseException(e.getMessage(), 0);
+        if (method == null) {
+            throw new BadRequestException(String.format("Unknown request method %s",
+                    new String(raw, methodStart, methodEnd - methodStart, StandardCharsets.ISO_8859_1)));
         }
 
+        // strip query params from path
+        int queryStart = indexOf(raw, QUERY_DELIMITER, pathStart, pathEnd);
+        if (queryStart >= 0) {
+            pathEnd = queryStart;
+        }
+
+        String path = new String(raw, pathStart, pathEnd - pathStart, StandardCharsets.UTF_8);
+
+        String version = regionEquals(raw, versionStart, versionEnd, SUPPORTED_VERSION, false)
+                ? ServerConstants.SUPPORTED_HTTP_VERSION
+                : new String(raw, versionStart, versionEnd - versionStart, StandardCharsets.ISO_8859_1);
+
         return new RequestLine(method, path, version);
     }
 
-    private HeaderEntry parseHeaderEntry(String line) throws ParseException {
-        String[] headerEntry = line.split(":", 2);
+    private void parseHeaderEntry(byte[] raw, int start, int end, RequestHeaders headers)
+            throws BadRequestException {
+
+        int colon = indexOf(raw, COLON, start, end);
+
+        if (colon <= start) {
+            throw new BadRequestException(String.format("Invalid header entry format %s (expected Key: Value)",
+                    new String(raw, start, end - start, StandardCharsets.ISO_8859_1)));
+        }
+
+        int valueStart = colon + 1;
+        while (valueStart < end && isWhitespace(raw[valueStart])) {
+            valueStart++;
+        }
+
+        int valueEnd = end;
+        while (valueEnd > valueStart && isWhitespace(raw[valueEnd - 1])) {
+            valueEnd--;
+        }
+
+        headers.add(knownHeaderKey(raw, start, colon), start, colon, valueStart, valueEnd);
+    }
+
+    private static HttpMethod matchMethod(byte[] raw, int start, int end) {
+        for (int i = 0; i < METHOD_NAMES.length; i++) {
+            if (regionEquals(raw, start, end, METHOD_NAMES[i], false)) {
+                return METHODS[i];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the index of a known header key in {@link #KNOWN_HEADER_KEYS}, or -1 if the key is not known.
+     */
+    private static int knownHeaderKey(byte[] raw, int start, int end) {
+        for (int i = 0; i < KNOWN_HEADER_KEY_NAMES.length; i++) {
+            if (regionEquals(raw, start, end, KNOWN_HEADER_KEY_NAMES[i], true)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean regionEquals(byte[] raw, int start, int end, byte[] expected, boolean ignoreCase) {
+
+        if (end - start != expected.length) {
+            return false;
+        }
+
+        for (int i = 0; i < expected.length; i++) {
+            byte actual = raw[start + i];
+
+            if (ignoreCase && actual >= 'A' && actual <= 'Z') {
+                actual += 'a' - 'A';
+            }
+
+            byte wanted = expected[i];
+
+            if (ignoreCase && wanted >= 'A' && wanted <= 'Z') {
+                wanted += 'a' - 'A';
+            }
+
+            if (actual != wanted) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the end of the line content preceding a line feed, which excludes a preceding carriage return.
+     */
+    private static int lineEnd(byte[] raw, int lineStart, int lineBreak) {
+        return lineBreak > lineStart && raw[lineBreak - 1] == CR ? lineBreak - 1 : lineBreak;
+    }
 
-        if (headerEntry.length < 2 || headerEntry[0].isEmpty()) {
-            throw new ParseException(String.format("Invalid header entry format %s (expected Key: Value)", line), 0);
+    private static int indexOf(byte[] raw, byte value, int from, int end) {
+        for (int i = from; i < end; i++) {
+            if (raw[i] == value) {
+                return i;
+            }
         }
+        return -1;
+    }
+
+    private static int skip(byte[] raw, byte value, int from, int end) {
+        int i = from;
+        while (i < end && raw[i] == value) {
+            i++;
+        }
+        return i;
+    }
 
-        return new HeaderEntry(headerEntry[0], headerEntry[1].trim());
+    private static boolean isWhitespace(byte value) {
+        return value == SP || value == HT;
+    }
+
+    private static byte[] encode(String value) {
+        return value.getBytes(StandardCharsets.US_ASCII);
     }
 
     private static class RequestLine {
@@ -109,22 +285,4 @@ public class HttpRequestParser {
             return version;
         }
     }
-
-    private static class HeaderEntry {
-        String key;
-        String value;
-
-        public HeaderEntry(String key, String value) {
-            this.key = key;
-            this.value = value;
-        }
-
-        public String getKey() {
-            return key;
-        }
-
-        public String getValue() {
-            return value;
-        }
-    }
 }
@@ -6,6 +6,8 @@ import com.github.httpserver.protocol.HttpStatus;
 import com.github.httpserver.server.ServerConstants;
 import org.tinylog.Logger;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.security.NoSuchAlgorithmException;
 import java.util.HashMap;
 import java.util.Map;
@@ -21,6 +23,8 @@ public class HttpResponseBuilder {
     private HttpStatus status;
     private Map<String, String> headers;
     private byte[] body;
+    private Path bodyFile;
+    private long bodyFileSize;
 
     /**
      * Constructs a new HTTP response builder and sets the default values for
@@ -86,6 +90,22 @@ public class HttpResponseBuilder {
      */
     public HttpResponseBuilder setBody(byte[] body) {
         this.body = body;
+        this.bodyFile = null;
+        return this;
+    }
+
+    /**
+     * Sets a file as the HTTP body of the response in construction. The file is not read by the builder,
+     * but transferred to the client when the response is written.
+     *
+     * @param bodyFile     the path of the file containing the body.
+     * @param bodyFileSize the number of bytes of the file that are sent as body.
+     * @return the builder.
+     */
+    public HttpResponseBuilder setBodyFile(Path bodyFile, long bodyFileSize) {
+        this.bodyFile = bodyFile;
+        this.bodyFileSize = bodyFileSize;
+        this.body = null;
         return this;
     }
 
@@ -125,7 +145,7 @@ public class HttpResponseBuilder {
     }
 
     /**
-     * Calculates the content length from the body inside the builder and appends the
+     * Calculates the content length from the body or body file inside the builder and appends the
      * 'Content-Length' header with the calculated value to the header entries of the
      * response.
      *
@@ -133,9 +153,11 @@ public class HttpResponseBuilder {
      */
     public HttpResponseBuilder appendContentLengthHeader() {
 
-        int contentLength = 0;
+        long contentLength = 0;
 
-        if (this.body != null) {
+        if (this.bodyFile != null) {
+            contentLength = bodyFileSize;
+        } else if (this.body != null) {
             contentLength = body.length;
         }
 
@@ -145,14 +167,24 @@ public class HttpResponseBuilder {
     }
 
     /**
-     * Calculates the etag from the body inside the builder and appends the 'ETag'
+     * Calculates the etag from the body or body file inside the builder and appends the 'ETag'
      * header with the calculated value to the header entries of the response.
      *
      * @return the builder.
      */
     public HttpResponseBuilder appendETagHeader() {
 
-        if (this.body != null) {
+        if (this.bodyFile != null) {
+
+            try {
+                String eTag = ServerConstants.calculateETag(bodyFile);
+                headers.put(HttpHeader.HEADER_ETAG, eTag);
+            } catch (NoSuchAlgorithmException e) {
+                Logger.warn("Unable to calculate ETag due to unknown hashing algorithm");
+            } catch (IOException e) {
+                Logger.warn(e, "Unable to calculate ETag of body file {}", bodyFile);
+            }
+        } else if (this.body != null) {
 
             try {
                 String eTag = ServerConstants.calculateETag(body);
@@ -173,6 +205,9 @@ public class HttpResponseBuilder {
      * @return the HTTP response constructed from the builder.
      */
     public HttpResponse build() {
+        if (bodyFile != null) {
+            return new HttpResponse(version, status, headers, bodyFile, bodyFileSize);
+        }
         return new HttpResponse(version, status, headers, body);
     }
 }
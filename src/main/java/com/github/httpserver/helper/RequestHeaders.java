@@ -0,0 +1,160 @@
+package com.github.httpserver.helper;
+
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractMap;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * RequestHeaders is a read-only map of the header entries of a parsed request that decodes header values lazily.
+ * The parser only records where the key and the value of every entry are located in the raw header section, so
+ * that a string is only created for a value that is actually looked up. Keys the server acts upon are stored
+ * as the index of their canonical {@link com.github.httpserver.protocol.HttpHeader} constant; other keys are
+ * compared byte by byte and only decoded if the entries of the map are iterated.
+ * <p>
+ * If a key occurs more than once, the last entry wins. Lookups are case-sensitive, as for the map the parser
+ * created before, with known keys stored under their canonical name.
+ */
+final class RequestHeaders extends AbstractMap<String, String> {
+
+    /**
+     * The number of ints describing an entry: known key index, key start, key end, value start and value end.
+     */
+    private static final int STRIDE = 5;
+
+    private final byte[] raw;
+    private int[] entries;
+    private String[] values;
+    private int size;
+    private Map<String, String> decoded;
+
+    /**
+     * Constructs an empty map of the header entries located in the given header section.
+     *
+     * @param raw the raw header section, which must not be modified afterwards.
+     */
+    RequestHeaders(byte[] raw) {
+        this.raw = raw;
+        this.entries = new int[8 * STRIDE];
+        this.values = new String[8];
+    }
+
+    /**
+     * Records a header entry.
+     *
+     * @param knownKey   the index of the key in {@link HttpRequestParser#KNOWN_HEADER_KEYS}, or -1 if the key is
+     *                   not known.
+     * @param keyStart   the index of the first byte of the key.
+     * @param keyEnd     the index following the last byte of the key.
+     * @param valueStart the index of the first byte of the value.
+     * @param valueEnd   the index following the last byte of the value.
+     */
+    void add(int knownKey, int keyStart, int keyEnd, int valueStart, int valueEnd) {
+
+        if (size == values.length) {
+            entries = Arrays.copyOf(entries, entries.length * 2);
+            values = Arrays.copyOf(values, values.length * 2);
+        }
+
+        int index = size * STRIDE;
+        entries[index] = knownKey;
+        entries[index + 1] = keyStart;
+        entries[index + 2] = keyEnd;
+        entries[index + 3] = valueStart;
+        entries[index + 4] = valueEnd;
+        size++;
+    }
+
+    @Override
+    public String get(Object key) {
+
+        if (!(key instanceof String)) {
+            return null;
+        }
+
+        int entry = find((String) key);
+
+        if (entry < 0) {
+            return null;
+        }
+
+        if (values[entry] == null) {
+            int index = entry * STRIDE;
+            values[entry] = new String(raw, entries[index + 3], entries[index + 4] - entries[index + 3],
+                    StandardCharsets.ISO_8859_1);
+        }
+
+        return values[entry];
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return key instanceof String && find((String) key) >= 0;
+    }
+
+    @Override
+    public Set<Entry<String, String>> entrySet() {
+
+        if (decoded == null) {
+            Map<String, String> entryMap = new LinkedHashMap<>();
+
+            for (int entry = 0; entry < size; entry++) {
+                int index = entry * STRIDE;
+                String key = entries[index] >= 0
+                        ? HttpRequestParser.KNOWN_HEADER_KEYS[entries[index]]
+                        : new String(raw, entries[index + 1], entries[index + 2] - entries[index + 1],
+                        StandardCharsets.ISO_8859_1);
+                entryMap.put(key, get(key));
+            }
+
+            decoded = Collections.unmodifiableMap(entryMap);
+        }
+
+        return decoded.entrySet();
+    }
+
+    /**
+     * Returns the last entry with the given key, or -1 if there is none.
+     */
+    private int find(String key) {
+
+        int knownKey = knownKeyIndex(key);
+
+        for (int entry = size - 1; entry >= 0; entry--) {
+            int index = entry * STRIDE;
+
+            if (knownKey >= 0 ? entries[index] == knownKey
+                    : entries[index] < 0 && keyEquals(entries[index + 1], entries[index + 2], key)) {
+                return entry;
+            }
+        }
+
+        return -1;
+    }
+
+    private boolean keyEquals(int start, int end, String key) {
+
+        if (end - start != key.length()) {
+            return false;
+        }
+
+        for (int i = 0; i < key.length(); i++) {
+            if ((raw[start + i] & 0xff) != key.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int knownKeyIndex(String key) {
+        for (int i = 0; i < HttpRequestParser.KNOWN_HEADER_KEYS.length; i++) {
+            if (HttpRequestParser.KNOWN_HEADER_KEYS[i].equals(key)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
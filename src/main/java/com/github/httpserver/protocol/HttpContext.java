@@ -1,5 +1,7 @@
 package com.github.httpserver.protocol;
 
+import com.github.httpserver.server.ServerConstants;
+
 /**
  * HttpContext is a utility wrapper around a HTTP request and response pair and serves
  * as a model to hold the context of a specific HTTP exchange. It also provides the utility
@@ -8,12 +10,6 @@ package com.github.httpserver.protocol;
  */
 public class HttpContext {
 
-    /**
-     * An empty context that is useful if there was still no read or write interaction between
-     * client and server.
-     */
-    public static final HttpContext EMPTY_CONTEXT = new HttpContext();
-
     private HttpRequest request;
     private HttpResponse response;
 
@@ -29,9 +25,6 @@ public class HttpContext {
         this.response = response;
     }
 
-    private HttpContext() {
-    }
-
     /**
      * Returns the HTTP request model.
      *
@@ -69,8 +62,11 @@ public class HttpContext {
     }
 
     /**
-     * Determines, based on the request headers, if client requested the current HTTP exchange to be
-     * closed. If this function returns false, the connection can be assumed to be persistent.
+     * Determines, based on the request version and headers, if client requested the current HTTP exchange
+     * to be closed. HTTP/1.1 connections are persistent unless the 'Connection' header contains the 'close'
+     * option, whereas HTTP/1.0 connections are only persistent if it contains the 'keep-alive' option. The
+     * options of the header are matched case-insensitively. If this function returns false, the connection
+     * can be assumed to be persistent.
      *
      * @return a boolean indicating if a connection close was requested by the client.
      * @see <a href=https://www.w3.org/Protocols/rfc2616/rfc2616-sec8.html>Information about
@@ -82,11 +78,27 @@ public class HttpContext {
             return false;
         }
 
-        if (request.getHeaders().containsKey(HttpHeader.HEADER_CONNECTION)) {
-            String connectionParam = request.getHeaders().get(HttpHeader.HEADER_CONNECTION);
-            return connectionParam.equals(HttpHeader.CONNECTION_CLOSE);
+        String connectionParam = request.getHeaders().get(HttpHeader.HEADER_CONNECTION);
+
+        if (hasConnectionOption(connectionParam, HttpHeader.CONNECTION_CLOSE)) {
+            return true;
+        }
+
+        return ServerConstants.LEGACY_HTTP_VERSION.equals(request.getVersion())
+                && !hasConnectionOption(connectionParam, HttpHeader.CONNECTION_KEEP_ALIVE);
+    }
+
+    private static boolean hasConnectionOption(String connectionParam, String option) {
+
+        if (connectionParam == null) {
+            return false;
         }
 
+        for (String token : connectionParam.split(",")) {
+            if (token.trim().equalsIgnoreCase(option)) {
+                return true;
+            }
+        }
         return false;
     }
 }
@@ -0,0 +1,120 @@
+package com.github.httpserver.protocol;
+
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * HttpDate formats and parses the dates used in HTTP headers like 'Date', 'Last-Modified' and
+ * 'If-Modified-Since'. Since HTTP dates have a resolution of one second, formatted and parsed dates are
+ * cached, so that the current date is formatted at most once per second, the last modified date of a file is
+ * formatted once per distinct timestamp, and repeated 'If-Modified-Since' values, which clients usually copy
+ * from a previous 'Last-Modified' header, are parsed only once.
+ * <p>
+ * All methods can be called by all threads of the server.
+ */
+public final class HttpDate {
+
+    private static final DateTimeFormatter FORMATTER = DateTimeFormatter
+            .ofPattern("EEE, dd MMM yyyy HH:mm:ss 'GMT'", Locale.US)
+            .withZone(ZoneOffset.UTC);
+    private static final DateTimeFormatter PARSER = DateTimeFormatter.RFC_1123_DATE_TIME.withLocale(Locale.US);
+    private static final int MAX_CACHED_DATES = 1024;
+
+    private static final Map<Long, String> formattedDates = new ConcurrentHashMap<>();
+    private static final Map<String, Long> parsedDates = new ConcurrentHashMap<>();
+    private static volatile FormattedDate currentDate = new FormattedDate(Long.MIN_VALUE, null);
+
+    private HttpDate() {
+    }
+
+    /**
+     * Returns the current date as value of the 'Date' header. The value is formatted once per second.
+     *
+     * @return the current date in IMF-fixdate format.
+     */
+    public static String now() {
+
+        long epochSecond = TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis());
+        FormattedDate date = currentDate;
+
+        if (date.epochSecond != epochSecond) {
+            date = new FormattedDate(epochSecond, format(epochSecond));
+            currentDate = date;
+        }
+
+        return date.value;
+    }
+
+    /**
+     * Formats the last modified time of a file as value of the 'Last-Modified' header. Fractions of a
+     * second are truncated.
+     *
+     * @param fileTime the last modified time of the file.
+     * @return the time in IMF-fixdate format.
+     */
+    public static String format(FileTime fileTime) {
+
+        long epochSecond = fileTime.to(TimeUnit.SECONDS);
+        String value = formattedDates.get(epochSecond);
+
+        if (value == null) {
+            value = format(epochSecond);
+            cache(formattedDates, epochSecond, value);
+        }
+
+        return value;
+    }
+
+    /**
+     * Parses a date of an HTTP header into the number of seconds since the epoch.
+     *
+     * @param value the raw value of the header, e.g. 'Sun, 06 Nov 1994 08:49:37 GMT'.
+     * @return the seconds since the epoch.
+     * @throws DateTimeParseException if the value is not an RFC 1123 date.
+     */
+    public static long parseEpochSecond(String value) {
+
+        Long epochSecond = parsedDates.get(value);
+
+        if (epochSecond == null) {
+            epochSecond = Instant.from(PARSER.parse(value.trim())).getEpochSecond();
+            cache(parsedDates, value, epochSecond);
+        }
+
+        return epochSecond;
+    }
+
+    private static String format(long epochSecond) {
+        return FORMATTER.format(Instant.ofEpochSecond(epochSecond));
+    }
+
+    /**
+     * Adds an entry to a bounded cache, which is simply cleared once it is full.
+     */
+    private static <K, V> void cache(Map<K, V> cache, K key, V value) {
+
+        if (cache.size() >= MAX_CACHED_DATES) {
+            cache.clear();
+        }
+
+        cache.put(key, value);
+    }
+
+    private static final class FormattedDate {
+
+        private final long epochSecond;
+        private final String value;
+
+        private FormattedDate(long epochSecond, String value) {
+            this.epochSecond = epochSecond;
+            this.value = value;
+        }
+    }
+}
@@ -22,6 +22,10 @@ public final class HttpHeader {
      * Constant for the 'Last-Modified' header key.
      */
     public static final String HEADER_LAST_MODIFIED = "Last-Modified";
+    /**
+     * Constant for the 'Date' header key.
+     */
+    public static final String HEADER_DATE = "Date";
     /**
      * Constant for the 'If-Modified-Since' header key.
      */
@@ -1,11 +1,17 @@
 package com.github.httpserver.protocol;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Map;
 import java.util.Objects;
 
 /**
- * HttpResponse represents the model of an HTTP response.
+ * HttpResponse represents the model of an HTTP response. The body of a response is either held in memory
+ * as a byte array or backed by a file on the local file system. File-backed bodies are not loaded into
+ * memory but transferred from the file to the client when the response is written.
  */
 public class HttpResponse {
 
@@ -13,6 +19,8 @@ public class HttpResponse {
     private final HttpStatus status;
     private final Map<String, String> headers;
     private final byte[] body;
+    private final Path bodyFile;
+    private final long bodyFileSize;
 
     /**
      * Constructs an HTTP response model by taking all the relevant information needed to construct a response.
@@ -28,6 +36,28 @@ public class HttpResponse {
         this.status = Objects.requireNonNull(status);
         this.headers = Objects.requireNonNull(headers);
         this.body = body;
+        this.bodyFile = null;
+        this.bodyFileSize = 0;
+    }
+
+    /**
+     * Constructs an HTTP response model whose body is backed by a file.
+     *
+     * @param version      the HTTP version entry as defined in the request.
+     * @param status       the HTTP response status. See {@link HttpStatus} for possible values.
+     * @param headers      a map of all response header entries.
+     * @param bodyFile     the path of the file containing the response body.
+     * @param bodyFileSize the number of bytes of the file that are sent as response body.
+     * @throws NullPointerException if any of the input parameters are null.
+     */
+    public HttpResponse(String version, HttpStatus status, Map<String, String> headers, Path bodyFile,
+                        long bodyFileSize) {
+        this.version = Objects.requireNonNull(version);
+        this.status = Objects.requireNonNull(status);
+        this.headers = Objects.requireNonNull(headers);
+        this.body = null;
+        this.bodyFile = Objects.requireNonNull(bodyFile);
+        this.bodyFileSize = bodyFileSize;
     }
 
     /**
@@ -60,50 +90,142 @@ public class HttpResponse {
     /**
      * Returns the HTTP response body.
      *
-     * @return the body as a raw byte array.
+     * @return the body as a raw byte array, or null if the response has no body or a file-backed body.
      */
     public byte[] getBody() {
         return body;
     }
 
     /**
-     * Assembles the whole response model into a {@link ByteBuffer} representation that can be utilized as a
-     * transportation format towards a {@link java.nio.channels.SocketChannel} of a TCP client.
+     * Returns the path of the file containing the response body.
      *
-     * @return a byte buffer containing the correctly formatted HTTP response content.
+     * @return the body file, or null if the body is not backed by a file.
      */
-    public ByteBuffer toByteBuffer() {
+    public Path getBodyFile() {
+        return bodyFile;
+    }
 
-        StringBuilder responseBuilder = new StringBuilder();
+    /**
+     * Returns the number of bytes of the body file that are sent as response body.
+     *
+     * @return the size of the file-backed body, or zero if the body is not backed by a file.
+     */
+    public long getBodyFileSize() {
+        return bodyFileSize;
+    }
 
-        String responseLine = String.format("%s %s\r\n", version, status);
+    /**
+     * Assembles the response model into an array of {@link ByteBuffer}s that can be written to a
+     * {@link java.nio.channels.SocketChannel} of a TCP client with a single gathering write. The first buffer
+     * contains the response line and the header section, the second buffer, if present, the in-memory body.
+     * The body buffer is a view of the body array rather than a copy, so bodies can be shared between
+     * responses. A file-backed body is not contained in the returned buffers and has to be transferred from
+     * {@link #getBodyFile()} after the buffers have been written.
+     *
+     * @return the buffers containing the correctly formatted HTTP response, ready for reading.
+     */
+    public ByteBuffer[] toByteBuffers() {
 
-        responseBuilder.append(responseLine);
+        ByteBuffer header = ByteBuffer.wrap(encodeHeader());
 
-        for (Map.Entry<String, String> headerEntry : headers.entrySet()) {
-            String headerLine = String.format("%s: %s\r\n", headerEntry.getKey(), headerEntry.getValue());
-            responseBuilder.append(headerLine);
+        if (body == null) {
+            return new ByteBuffer[]{header};
         }
 
-        responseBuilder.append("\r\n");
+        return new ByteBuffer[]{header, ByteBuffer.wrap(body)};
+    }
+
+    /**
+     * Assembles the whole response model into a {@link ByteBuffer} representation that can be utilized as a
+     * transportation format towards a {@link java.nio.channels.SocketChannel} of a TCP client. Header section
+     * and body are copied into a single buffer, and a file-backed body is read into memory for that purpose.
+     * Prefer {@link #toByteBuffers()}, which avoids these copies.
+     *
+     * @return a byte buffer containing the correctly formatted HTTP response content.
+     * @throws UncheckedIOException if the response has a file-backed body that cannot be read.
+     */
+    public ByteBuffer toByteBuffer() {
+
+        byte[] responseBody = body;
+
+        if (bodyFile != null) {
+            try {
+                responseBody = Files.readAllBytes(bodyFile);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
 
         int bodyLength = 0;
 
-        if (body != null) {
-            bodyLength = body.length;
+        if (responseBody != null) {
+            bodyLength = responseBody.length;
         }
 
-        byte[] response = responseBuilder.toString().getBytes();
+        byte[] response = encodeHeader();
         byte[] allByteArray = new byte[response.length + bodyLength];
         ByteBuffer buff = ByteBuffer.wrap(allByteArray);
         buff.put(response);
 
-        if (body != null) {
-            buff.put(body);
+        if (responseBody != null) {
+            buff.put(responseBody);
         }
 
         buff.flip();
 
         return buff;
     }
+
+    /**
+     * Returns the number of bytes of the response line and the header section, including the empty line
+     * terminating the header section.
+     *
+     * @return the length of the encoded header section in bytes.
+     */
+    public int getHeaderLength() {
+
+        int length = version.length() + 1 + status.toString().length() + 2;
+
+        for (Map.Entry<String, String> headerEntry : headers.entrySet()) {
+            length += headerEntry.getKey().length() + 2 + headerEntry.getValue().length() + 2;
+        }
+
+        return length + 2;
+    }
+
+    /**
+     * Encodes the response line and the header section into the given buffer, e.g. a pooled direct buffer,
+     * without creating intermediate strings or arrays. Header values are encoded as ISO-8859-1.
+     *
+     * @param target the buffer with at least {@link #getHeaderLength()} bytes remaining.
+     * @throws java.nio.BufferOverflowException if the buffer has not enough bytes remaining.
+     */
+    public void writeHeader(ByteBuffer target) {
+
+        put(target, version);
+        target.put((byte) ' ');
+        put(target, status.toString());
+        put(target, "\r\n");
+
+        for (Map.Entry<String, String> headerEntry : headers.entrySet()) {
+            put(target, headerEntry.getKey());
+            put(target, ": ");
+            put(target, headerEntry.getValue());
+            put(target, "\r\n");
+        }
+
+        put(target, "\r\n");
+    }
+
+    private byte[] encodeHeader() {
+        ByteBuffer header = ByteBuffer.allocate(getHeaderLength());
+        writeHeader(header);
+        return header.array();
+    }
+
+    private static void put(ByteBuffer target, String text) {
+        for (int i = 0; i < text.length(); i++) {
+            target.put((byte) text.charAt(i));
+        }
+    }
 }
@@ -32,6 +32,10 @@ public enum HttpStatus {
      * Constant for HTTP 412 Precondition Failed.
      */
     HTTP_PRECONDITION_FAILED(412, "Precondition Failed"),
+    /**
+     * Constant for HTTP 431 Request Header Fields Too Large.
+     */
+    HTTP_REQUEST_HEADER_FIELDS_TOO_LARGE(431, "Request Header Fields Too Large"),
     /**
      * Constant for HTTP 500 Internal Server Error.
      */
@@ -0,0 +1,256 @@
+package com.github.httpserver.server;
+
+import org.tinylog.Logger;
+
+import java.io.IOException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * AcceptGuard accepts client connections from a server socket and keeps the server socket alive through
+ * failures of single accepts. Failures are classified as follows:
+ * (1) the server socket was closed: the guard reports the listener as failed and the failure is passed on
+ * (2) the process or system ran out of file descriptors (EMFILE, ENFILE) or memory (ENOBUFS, ENOMEM): the guard
+ * backs off exponentially before accepting again, since the pending connection would fail again right away
+ * (3) any other failure, e.g. a client that aborted its connection before it was accepted: the failure
+ * only affects that client and accepting continues
+ * <p>
+ * While file descriptors are exhausted, pending clients would wait in the listen backlog without ever being
+ * served. To turn them away cleanly, the guard holds a reserve file descriptor. On exhaustion it closes the
+ * reserve, accepts one pending connection, closes that connection right away and then opens the reserve again,
+ * so that the client is told that the connection was closed instead of running into a timeout.
+ * <p>
+ * A guard belongs to the thread accepting from its server socket and is not thread-safe, except for the
+ * methods reporting its state and for the reserve file descriptor, which may be closed by any thread once the
+ * server is stopped. A closed guard does not open the reserve again.
+ */
+final class AcceptGuard {
+
+    /**
+     * The backoff in milliseconds after the first failure due to resource exhaustion.
+     */
+    private static final long MIN_BACKOFF = 10;
+    /**
+     * The maximum backoff in milliseconds between retries while resources stay exhausted.
+     */
+    private static final long MAX_BACKOFF = 1000;
+
+    private final AtomicLong failedAccepts;
+    private final AtomicLong shedConnections;
+    private SocketChannel reserve;
+    private boolean closed;
+    private long backoff;
+    private long retryNanos;
+    private volatile ListenerHealth health;
+
+    /**
+     * Constructs a new guard of a healthy server socket and opens its reserve file descriptor.
+     */
+    AcceptGuard() {
+        this.failedAccepts = new AtomicLong();
+        this.shedConnections = new AtomicLong();
+        this.health = ListenerHealth.HEALTHY;
+        openReserve();
+    }
+
+    /**
+     * Accepts a client connection from the server socket unless the guard is backing off. A client connection
+     * that could not be accepted does not affect the server socket.
+     *
+     * @param serverSocketChannel the server socket to accept the client connection from.
+     * @param nowNanos            the current time in nanoseconds, as returned by {@link System#nanoTime()}.
+     * @return the accepted client channel, or null if no client connection was accepted.
+     * @throws ClosedChannelException if the server socket is closed.
+     */
+    SocketChannel accept(ServerSocketChannel serverSocketChannel, long nowNanos) throws ClosedChannelException {
+
+        if (isBackingOff(nowNanos)) {
+            return null;
+        }
+
+        try {
+            SocketChannel client = serverSocketChannel.accept();
+            recover();
+            return client;
+        } catch (ClosedChannelException e) {
+            health = ListenerHealth.FAILED;
+            throw e;
+        } catch (IOException e) {
+            failedAccepts.incrementAndGet();
+
+            if (!isResourceExhaustion(e)) {
+                Logger.debug(e, "Failed to accept client connection");
+                return null;
+            }
+
+            if (health != ListenerHealth.DEGRADED) {
+                Logger.warn(e, "Running out of resources - backing off to accept client connections");
+            }
+
+            health = ListenerHealth.DEGRADED;
+            backoff = Math.min(MAX_BACKOFF, Math.max(MIN_BACKOFF, backoff * 2));
+            retryNanos = nowNanos + TimeUnit.MILLISECONDS.toNanos(backoff);
+            shedConnection(serverSocketChannel);
+            return null;
+        }
+    }
+
+    /**
+     * Indicates if the guard is backing off after a failure due to resource exhaustion, so that no client
+     * connection must be accepted.
+     *
+     * @param nowNanos the current time in nanoseconds, as returned by {@link System#nanoTime()}.
+     * @return a boolean indicating if the guard is backing off.
+     */
+    boolean isBackingOff(long nowNanos) {
+        return backoff > 0 && nowNanos - retryNanos < 0;
+    }
+
+    /**
+     * Returns the time in milliseconds until the guard stops backing off.
+     *
+     * @param nowNanos the current time in nanoseconds, as returned by {@link System#nanoTime()}.
+     * @return the remaining backoff in milliseconds, at least one, or zero if the guard is not backing off.
+     */
+    long millisUntilRetry(long nowNanos) {
+
+        if (!isBackingOff(nowNanos)) {
+            return 0;
+        }
+
+        return Math.max(1, TimeUnit.NANOSECONDS.toMillis(retryNanos - nowNanos));
+    }
+
+    /**
+     * Returns the health of the guarded server socket.
+     *
+     * @return the listener health.
+     */
+    ListenerHealth getHealth() {
+        return health;
+    }
+
+    /**
+     * Returns the number of accepts that failed, regardless of the cause.
+     *
+     * @return the number of failed accepts.
+     */
+    long getFailedAccepts() {
+        return failedAccepts.get();
+    }
+
+    /**
+     * Returns the number of client connections that were closed right after being accepted because
+     * resources were exhausted.
+     *
+     * @return the number of shed connections.
+     */
+    long getShedConnections() {
+        return shedConnections.get();
+    }
+
+    /**
+     * Closes the reserve file descriptor for good. Closing a guard more than once has no further effect.
+     */
+    synchronized void close() {
+        closed = true;
+        closeReserve();
+    }
+
+    /**
+     * Indicates if an accept failed because the process or system ran out of file descriptors or memory. The
+     * JDK does not expose the error number, so that the message of the exception is checked for the texts
+     * of EMFILE, ENFILE, ENOBUFS and ENOMEM.
+     *
+     * @param e the exception thrown by the accept.
+     * @return a boolean indicating if resources are exhausted.
+     */
+    static boolean isResourceExhaustion(IOException e) {
+
+        String message = e.getMessage();
+
+        if (message == null) {
+            return false;
+        }
+
+        return message.contains("Too many open files")
+                || message.contains("No buffer space available")
+                || message.contains("Cannot allocate memory");
+    }
+
+    private void recover() {
+
+        if (health == ListenerHealth.DEGRADED) {
+            Logger.info("Recovered from running out of resources - accepting client connections again");
+            health = ListenerHealth.HEALTHY;
+        }
+
+        backoff = 0;
+        openReserve();
+    }
+
+    /**
+     * Turns away one pending client connection by accepting it with the file descriptor of the reserve and
+     * closing it right away.
+     */
+    private void shedConnection(ServerSocketChannel serverSocketChannel) {
+
+        if (!closeReserve()) {
+            openReserve();
+            return;
+        }
+
+        try {
+            SocketChannel client = serverSocketChannel.accept();
+
+            if (client != null) {
+                client.close();
+                shedConnections.incrementAndGet();
+            }
+        } catch (IOException e) {
+            Logger.debug(e, "Failed to shed client connection");
+        }
+
+        openReserve();
+    }
+
+    /**
+     * Opens the reserve file descriptor unless it is open or the guard is closed.
+     */
+    private synchronized void openReserve() {
+
+        if (reserve != null || closed) {
+            return;
+        }
+
+        try {
+            reserve = SocketChannel.open();
+        } catch (IOException e) {
+            Logger.debug(e, "Failed to open reserve file descriptor");
+        }
+    }
+
+    /**
+     * Closes the reserve file descriptor, if it is open.
+     *
+     * @return true if the reserve was open, false otherwise.
+     */
+    private synchronized boolean closeReserve() {
+
+        if (reserve == null) {
+            return false;
+        }
+
+        try {
+            reserve.close();
+        } catch (IOException e) {
+            Logger.debug(e, "Failed to close reserve file descriptor");
+        }
+
+        reserve = null;
+        return true;
+    }
+}
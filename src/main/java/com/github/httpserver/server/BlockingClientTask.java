@@ -0,0 +1,75 @@
+package com.github.httpserver.server;
+
+import org.tinylog.Logger;
+
+import java.io.IOException;
+import java.nio.channels.SocketChannel;
+
+/**
+ * BlockingClientTask serves a single client connection with blocking I/O for as long as the connection
+ * is open. It runs the same read and write lifecycle hooks of a {@link ClientHandler} that the selector
+ * event loops use, which lets both server engines share the request parsing and handling.
+ */
+class BlockingClientTask implements Runnable {
+
+    private final ClientHandler clientHandler;
+    private final ConnectionLimiter connectionLimiter;
+    private final SocketChannel client;
+
+    /**
+     * Constructs a new task serving the given client connection.
+     *
+     * @param clientHandler     the client handler performing reads and writes of the client connection.
+     * @param connectionLimiter the limiter that the permit of the connection is released to if the client
+     *                          handler fails to accept the connection.
+     * @param client            the accepted client channel in blocking mode.
+     */
+    BlockingClientTask(ClientHandler clientHandler, ConnectionLimiter connectionLimiter, SocketChannel client) {
+        this.clientHandler = clientHandler;
+        this.connectionLimiter = connectionLimiter;
+        this.client = client;
+    }
+
+    /**
+     * Reads requests from the client and writes the corresponding responses until the client closes
+     * the connection or an I/O error occurs.
+     */
+    @Override
+    public void run() {
+
+        HttpConnection connection = null;
+
+        try {
+            connection = clientHandler.acceptClient(client);
+
+            while (client.isOpen()) {
+                if (!clientHandler.handleRead(connection)) {
+                    continue;
+                }
+
+                // a file transfer on a blocking channel may return before the complete response is sent
+                boolean written = clientHandler.handleWrite(connection);
+                while (!written) {
+                    written = clientHandler.handleWrite(connection);
+                }
+            }
+        } catch (IOException | IllegalStateException e) {
+            Logger.debug(e, "Closing client connection due to failure");
+        } finally {
+            if (connection != null) {
+                clientHandler.closeClient(connection);
+            } else {
+                closeQuietly();
+                connectionLimiter.release();
+            }
+        }
+    }
+
+    private void closeQuietly() {
+        try {
+            client.close();
+        } catch (IOException e) {
+            Logger.debug(e, "Failed to close client connection");
+        }
+    }
+}
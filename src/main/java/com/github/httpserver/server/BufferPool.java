@@ -0,0 +1,246 @@
+package com.github.httpserver.server;
+
+import org.tinylog.Logger;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * BufferPool recycles direct {@link ByteBuffer}s used for socket reads and for encoding responses. Direct
+ * buffers are handed to the operating system without being copied into a temporary direct buffer first, as
+ * the JDK does for heap buffers, but are expensive to allocate. Recycling them removes the garbage produced
+ * per read event and per response.
+ * <p>
+ * Buffers are organized in size classes, which are powers of two from {@value #MIN_BUFFER_SIZE} to
+ * {@value #MAX_BUFFER_SIZE} bytes. A requested capacity is rounded up to the next size class, so the acquired
+ * buffer may have more capacity than requested; its limit is set to the requested capacity. Larger buffers are
+ * allocated on the heap and not pooled.
+ * <p>
+ * Long-lived threads such as event loops may keep a small cache of free buffers per size class, which they enable
+ * via {@link #enableThreadCache()}, so that they usually acquire and release buffers without synchronization.
+ * Buffers released to a full thread cache are handed to a shared queue, from which any thread may take them.
+ * Threads without a cache, e.g. the short-lived threads serving a single connection each, acquire and release
+ * buffers via the shared queue only, since the buffers in their cache would be lost once the thread ends.
+ * <p>
+ * Every acquired buffer has to be released exactly once and must not be used afterwards. With leak detection
+ * enabled, the pool remembers where each outstanding buffer was acquired and rejects buffers that are released
+ * twice or were not acquired from it, which is meant for tests.
+ */
+final class BufferPool {
+
+    /**
+     * The capacity of the smallest size class in bytes.
+     */
+    static final int MIN_BUFFER_SIZE = 512;
+    /**
+     * The capacity of the largest size class in bytes.
+     */
+    static final int MAX_BUFFER_SIZE = 64 * 1024;
+
+    private static final int MIN_SIZE_SHIFT = Integer.numberOfTrailingZeros(MIN_BUFFER_SIZE);
+    private static final int SIZE_CLASSES = Integer.numberOfTrailingZeros(MAX_BUFFER_SIZE) - MIN_SIZE_SHIFT + 1;
+    private static final int THREAD_CACHE_SIZE = 32;
+    private static final int SHARED_QUEUE_SIZE = 256;
+
+    private final ThreadLocal<ThreadCache> threadCaches;
+    private final Queue<ByteBuffer>[] sharedQueues;
+    private final AtomicInteger[] sharedQueueSizes;
+    private final AtomicInteger outstandingBuffers;
+    private final Map<ByteBuffer, Throwable> leakTraces;
+
+    /**
+     * Constructs a new, empty buffer pool.
+     *
+     * @param leakDetection a boolean indicating if outstanding buffers are tracked together with the stack
+     *                      trace of their acquisition, and if invalid releases are rejected.
+     */
+    @SuppressWarnings("unchecked")
+    BufferPool(boolean leakDetection) {
+        this.threadCaches = new ThreadLocal<>();
+        this.sharedQueues = new Queue[SIZE_CLASSES];
+        this.sharedQueueSizes = new AtomicInteger[SIZE_CLASSES];
+        this.outstandingBuffers = new AtomicInteger();
+        this.leakTraces = leakDetection ? Collections.synchronizedMap(new IdentityHashMap<>()) : null;
+
+        for (int i = 0; i < SIZE_CLASSES; i++) {
+            sharedQueues[i] = new ConcurrentLinkedQueue<>();
+            sharedQueueSizes[i] = new AtomicInteger();
+        }
+    }
+
+    /**
+     * Acquires a buffer with at least the given capacity. The buffer is cleared and its limit is set to the
+     * requested capacity.
+     *
+     * @param capacity the number of bytes the buffer has to hold.
+     * @return the buffer, ready for writing.
+     */
+    ByteBuffer acquire(int capacity) {
+
+        int sizeClass = sizeClass(capacity);
+        ByteBuffer buffer = null;
+
+        if (sizeClass >= 0) {
+            ThreadCache threadCache = threadCaches.get();
+
+            if (threadCache != null) {
+                buffer = threadCache.buffers[sizeClass].poll();
+            }
+
+            if (buffer == null) {
+                buffer = sharedQueues[sizeClass].poll();
+
+                if (buffer != null) {
+                    sharedQueueSizes[sizeClass].decrementAndGet();
+                }
+            }
+
+            if (buffer == null) {
+                buffer = ByteBuffer.allocateDirect(MIN_BUFFER_SIZE << sizeClass);
+            }
+        } else {
+            buffer = ByteBuffer.allocate(capacity);
+        }
+
+        buffer.clear().limit(capacity);
+        outstandingBuffers.incrementAndGet();
+
+        if (leakTraces != null) {
+            leakTraces.put(buffer, new Throwable("Buffer of " + capacity + " bytes acquired here"));
+        }
+
+        return buffer;
+    }
+
+    /**
+     * Returns a buffer to the pool. The buffer must not be used by the caller afterwards.
+     *
+     * @param buffer the buffer acquired from this pool.
+     * @throws IllegalStateException if leak detection is enabled and the buffer is not outstanding.
+     */
+    void release(ByteBuffer buffer) {
+
+        if (leakTraces != null && leakTraces.remove(buffer) == null) {
+            throw new IllegalStateException("Buffer was released twice or not acquired from this pool");
+        }
+
+        outstandingBuffers.decrementAndGet();
+
+        if (!buffer.isDirect() || Integer.bitCount(buffer.capacity()) != 1) {
+            return;
+        }
+
+        int sizeClass = sizeClass(buffer.capacity());
+
+        if (sizeClass < 0) {
+            return;
+        }
+
+        ThreadCache threadCache = threadCaches.get();
+
+        if (threadCache != null && threadCache.buffers[sizeClass].offer(buffer)) {
+            return;
+        }
+
+        if (sharedQueueSizes[sizeClass].incrementAndGet() <= SHARED_QUEUE_SIZE) {
+            sharedQueues[sizeClass].offer(buffer);
+        } else {
+            sharedQueueSizes[sizeClass].decrementAndGet();
+        }
+    }
+
+    /**
+     * Gives the calling thread a cache of free buffers. This is meant for long-lived threads that acquire and
+     * release buffers frequently, since the buffers in the cache are not reused by other threads once the thread
+     * ends. Enabling the cache of a thread more than once has no further effect.
+     */
+    void enableThreadCache() {
+        if (threadCaches.get() == null) {
+            threadCaches.set(new ThreadCache());
+        }
+    }
+
+    /**
+     * Returns the number of buffers that were acquired but not released yet.
+     *
+     * @return the number of outstanding buffers.
+     */
+    int getOutstandingBuffers() {
+        return outstandingBuffers.get();
+    }
+
+    /**
+     * Logs the stack traces of all outstanding buffers, if leak detection is enabled.
+     *
+     * @return the number of outstanding buffers.
+     */
+    int reportLeaks() {
+
+        if (leakTraces != null) {
+            synchronized (leakTraces) {
+                for (Throwable trace : leakTraces.values()) {
+                    Logger.warn(trace, "Buffer was not released");
+                }
+            }
+        }
+
+        return getOutstandingBuffers();
+    }
+
+    /**
+     * Returns the size class of a capacity, or -1 if the capacity exceeds the largest size class.
+     */
+    private static int sizeClass(int capacity) {
+
+        if (capacity > MAX_BUFFER_SIZE) {
+            return -1;
+        }
+
+        if (capacity <= MIN_BUFFER_SIZE) {
+            return 0;
+        }
+
+        return Integer.SIZE - Integer.numberOfLeadingZeros(capacity - 1) - MIN_SIZE_SHIFT;
+    }
+
+    /**
+     * The free buffers of a single thread, organized by size class.
+     */
+    private static final class ThreadCache {
+
+        private final BoundedQueue[] buffers;
+
+        ThreadCache() {
+            this.buffers = new BoundedQueue[SIZE_CLASSES];
+            for (int i = 0; i < SIZE_CLASSES; i++) {
+                buffers[i] = new BoundedQueue();
+            }
+        }
+    }
+
+    /**
+     * A queue of free buffers that holds at most {@value #THREAD_CACHE_SIZE} buffers.
+     */
+    private static final class BoundedQueue {
+
+        private final ArrayDeque<ByteBuffer> buffers = new ArrayDeque<>(THREAD_CACHE_SIZE);
+
+        ByteBuffer poll() {
+            return buffers.pollLast();
+        }
+
+        boolean offer(ByteBuffer buffer) {
+            if (buffers.size() >= THREAD_CACHE_SIZE) {
+                return false;
+            }
+            buffers.addLast(buffer);
+            return true;
+        }
+    }
+}
@@ -1,52 +1,92 @@
 package com.github.httpserver.server;
 
 import java.io.IOException;
-import java.nio.channels.ReadableByteChannel;
 import java.nio.channels.SocketChannel;
-import java.nio.channels.WritableByteChannel;
 
 /**
  * ClientHandler is responsible for managing all incoming TCP client connections. It offers different
  * lifecycle hooks that the server can rely on. In a usual communication workflow, the provided
  * methods are called in the following order:
- * (1) acceptClient: entry point for new client connections
+ * (0) warmUp: prepare the handler once before the first client connects
+ * (1) acceptClient: entry point for new client connections, creating the state of the connection
  * (2) readClient: read client request
- * (3) writeClient: write client response
- * (4) cleanupConnections: cleanup all outdated client connections
+ * (3) processRequest: create the response to the client request (optional, otherwise done by writeClient)
+ * (4) writeClient: write client response
+ * (5) closeClient: close the client connection and release its state
+ * (6) shutdown: release the resources of the handler once the server is stopped
+ * <p>
+ * The handler does not keep track of its connections. The caller keeps the {@link HttpConnection} returned by
+ * {@link #acceptClient(SocketChannel)}, e.g. attached to the selection key of the client channel, and passes it
+ * to all further lifecycle hooks of that client.
  */
 public interface ClientHandler {
 
+    /**
+     * Prepares the handler for serving clients before the server accepts the first client connection, e.g.
+     * by populating caches. The method returns once the handler is prepared.
+     */
+    void warmUp();
+
     /**
      * Performs housekeeping actions after a new client connected to the server. This usually involves
-     * creating and storing a client stack.
+     * creating the state of the client connection.
      *
      * @param client the general channel used for communication with the client.
+     * @return the state of the new client connection.
      * @throws IOException if there is a network or protocol problem that prevented the client connection
      *                     to be correctly handled.
      */
-    void acceptClient(SocketChannel client) throws IOException;
+    HttpConnection acceptClient(SocketChannel client) throws IOException;
 
     /**
-     * Reads and processes the request received from the client.
+     * Reads and processes the request received from the client. A request may arrive split across
+     * multiple reads, so that this method has to be called again once the client is readable until
+     * it reports a complete request. If the client closed the connection, the connection is closed.
      *
-     * @param client the readable channel used for incoming communication from the client.
+     * @param connection the connection of the client.
+     * @return true if a complete request has been read and a response can be created, false if more
+     * data has to be read from the client or the client closed the connection.
      * @throws IOException if there is a network or protocol problem that prevented the request to be
      *                     correctly read from the client.
      */
-    void handleRead(ReadableByteChannel client) throws IOException;
+    boolean handleRead(HttpConnection connection) throws IOException;
 
     /**
-     * Creates responses and sends them over the corresponding TCP socket to the client.
+     * Creates the responses to the requests that were read from the client before, without writing them.
+     * In contrast to the other lifecycle hooks, this method does not perform any socket I/O and may
+     * therefore be called from a different thread than the one serving the client connection, as long
+     * as the connection is not read from or written to at the same time.
      *
-     * @param client the writable channel used for outgoing communication with the client.
+     * @param connection the connection of the client whose request is to be processed.
+     */
+    void processRequest(HttpConnection connection);
+
+    /**
+     * Creates responses (unless {@link #processRequest(HttpConnection)} has done so before) and sends them
+     * over the corresponding TCP socket to the client. Writing must not block on non-blocking channels:
+     * if the client does not accept the complete response, the rest is kept by the connection and written by
+     * the next call of this method. If the response is the last one of the connection, the connection is closed
+     * once the response has been completely written.
+     *
+     * @param connection the connection of the client.
+     * @return true if the response has been completely written, false if data is still pending and the
+     * method has to be called again once the client is writable.
      * @throws IOException if there is a network or protocol problem that prevented the response to
      *                     be correctly transmitted to the client.
      */
-    void handleWrite(WritableByteChannel client) throws IOException;
+    boolean handleWrite(HttpConnection connection) throws IOException;
+
+    /**
+     * Closes the channel of a client connection and releases the state of the connection, e.g. pending
+     * outbound data. Closing a connection more than once has no further effect.
+     *
+     * @param connection the connection of the client.
+     */
+    void closeClient(HttpConnection connection);
 
     /**
-     * Cleans up multiple client connection based on certain criteria. This method should be regularly called
-     * as part of the server loop to avoid memory getting cluttered by expired client stacks.
+     * Releases all resources held by the handler, e.g. background threads, once the server is stopped. The
+     * handler must not be used afterwards.
      */
-    void cleanupConnections();
+    void shutdown();
 }
@@ -0,0 +1,161 @@
+package com.github.httpserver.server;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ConnectionLimiter bounds the number of concurrently open client connections. A thread accepting client
+ * connections has to acquire a permit before accepting a connection, and the permit is released once the
+ * connection is closed. Once all permits are taken, accepting is paused: the accepting threads stop asking
+ * for new connections, so that a burst of clients waits in the listen backlog of the kernel instead of
+ * exhausting file descriptors and memory of the server. Accepting is resumed once the number of open
+ * connections drops to the low watermark, which is 90% of the maximum, so that the server does not toggle
+ * between pausing and resuming with every single connection.
+ * <p>
+ * Threads that are paused register a listener that is notified when accepting is resumed, e.g. to wake up
+ * their selector. The limiter is thread-safe.
+ */
+final class ConnectionLimiter {
+
+    private final int maxConnections;
+    private final int lowWatermark;
+    private final AtomicInteger openConnections;
+    private final AtomicLong pausedPeriods;
+    private final List<Runnable> resumeListeners;
+    private volatile boolean paused;
+
+    /**
+     * Constructs a new limiter without open connections.
+     *
+     * @param maxConnections the maximum number of concurrently open connections, with zero meaning no limit.
+     */
+    ConnectionLimiter(int maxConnections) {
+        this.maxConnections = Math.max(0, maxConnections);
+        this.lowWatermark = this.maxConnections - Math.max(1, this.maxConnections / 10);
+        this.openConnections = new AtomicInteger();
+        this.pausedPeriods = new AtomicLong();
+        this.resumeListeners = new CopyOnWriteArrayList<>();
+    }
+
+    /**
+     * Acquires a permit for accepting a client connection. If no permit is left, accepting is paused until
+     * enough connections have been closed.
+     *
+     * @return true if a connection may be accepted, false if accepting is paused.
+     */
+    boolean tryAcquire() {
+
+        if (maxConnections == 0) {
+            openConnections.incrementAndGet();
+            return true;
+        }
+
+        while (!paused) {
+            int connections = openConnections.get();
+
+            if (connections >= maxConnections) {
+                pause();
+                return false;
+            }
+
+            if (openConnections.compareAndSet(connections, connections + 1)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Releases the permit of a client connection that was closed or could not be accepted. Accepting is
+     * resumed if the number of open connections has dropped to the low watermark.
+     */
+    void release() {
+
+        int connections = openConnections.decrementAndGet();
+
+        if (paused && connections <= lowWatermark) {
+            resume();
+        }
+    }
+
+    /**
+     * Indicates if accepting client connections is paused because the maximum number of connections is open.
+     *
+     * @return a boolean indicating if accepting is paused.
+     */
+    boolean isPaused() {
+        return paused;
+    }
+
+    /**
+     * Returns the number of currently open client connections, including connections that are being accepted.
+     *
+     * @return the number of open connections.
+     */
+    int getOpenConnections() {
+        return openConnections.get();
+    }
+
+    /**
+     * Returns how often accepting client connections has been paused since the limiter was created.
+     *
+     * @return the number of paused periods.
+     */
+    long getPausedPeriods() {
+        return pausedPeriods.get();
+    }
+
+    /**
+     * Adds a listener that is notified whenever accepting client connections is resumed. The listener is
+     * called on the thread closing the connection and must therefore not block.
+     *
+     * @param listener the listener to notify.
+     */
+    void addResumeListener(Runnable listener) {
+        resumeListeners.add(listener);
+    }
+
+    /**
+     * Waits until accepting client connections is resumed, but at most for the given time.
+     *
+     * @param timeoutMillis the maximum time to wait in milliseconds.
+     * @throws InterruptedException if the waiting thread is interrupted.
+     */
+    synchronized void awaitResume(long timeoutMillis) throws InterruptedException {
+        if (paused) {
+            wait(timeoutMillis);
+        }
+    }
+
+    private synchronized void pause() {
+
+        if (paused) {
+            return;
+        }
+
+        paused = true;
+        pausedPeriods.incrementAndGet();
+
+        // a connection may have been closed after the limit was checked
+        if (openConnections.get() <= lowWatermark) {
+            resume();
+        }
+    }
+
+    private synchronized void resume() {
+
+        if (!paused) {
+            return;
+        }
+
+        paused = false;
+        notifyAll();
+
+        for (Runnable listener : resumeListeners) {
+            listener.run();
+        }
+    }
+}
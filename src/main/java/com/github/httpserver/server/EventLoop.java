@@ -0,0 +1,486 @@
+package com.github.httpserver.server;
+
+import com.github.httpserver.configuration.Configuration;
+import org.tinylog.Logger;
+
+import java.io.IOException;
+import java.nio.channels.Channel;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * EventLoop is a reactor running on its own thread that owns a NIO selector and performs the reads
+ * and writes of all client connections registered with it. Client connections are either handed over from
+ * an accepting thread via {@link #registerClient(SocketChannel)} or accepted by the event loop itself from
+ * a server socket that was assigned to it via {@link #listen(ServerSocketChannel)}. In both cases they are
+ * from then on exclusively served by this event loop, so that the state of a connection is never touched
+ * by two threads. The state of every connection is attached to the selection key of its channel, so that
+ * handling an event does not require a lookup, and released when the channel is closed.
+ * <p>
+ * If the event loop is given a request executor, the responses to client requests are not created on the
+ * event loop thread but on the executor, so that slow file system access does not block the other
+ * connections of the event loop. While a request is processed, the event loop neither reads from nor writes
+ * to the connection. The executor hands the connection back via a queue and wakes up the selector when
+ * the response is ready to be written. If the executor rejects a request because its queue is full, the
+ * connection stays paused and the request is dispatched again later, so that clients are slowed down by
+ * the TCP flow control instead of requests piling up in memory.
+ * <p>
+ * Every connection is subject to one timeout at a time, depending on its state: a header read timeout once a
+ * client started sending a request, so that clients sending their headers byte by byte are closed, an idle
+ * timeout while a persistent connection waits for the next request, and a write timeout while a client does
+ * not accept the remaining bytes of a response. The timeouts are scheduled on a {@link TimingWheel}, which the
+ * event loop advances after every selection.
+ * <p>
+ * An event loop accepting client connections from its own server socket acquires a permit of the shared
+ * {@link ConnectionLimiter} before every accept. If no permit is left, the event loop stops listening for
+ * new connections until the limiter resumes accepting, so that further clients wait in the listen backlog.
+ * Accepts are performed through an {@link AcceptGuard}, which keeps the server socket open if accepting fails
+ * and backs off while the process is out of file descriptors.
+ */
+class EventLoop implements Runnable {
+
+    /**
+     * The maximum time in milliseconds that the selector waits for events while there are requests
+     * waiting to be dispatched to the request executor.
+     */
+    private static final long DISPATCH_RETRY_INTERVAL = 10;
+    /**
+     * The resolution of connection timeouts in milliseconds.
+     */
+    private static final long TIMEOUT_TICK = 100;
+    /**
+     * The number of ticks of one rotation of the timing wheel.
+     */
+    private static final int TIMEOUT_TICKS = 512;
+
+    private final Selector selector;
+    private final ClientHandler clientHandler;
+    private final ExecutorService requestExecutor;
+    private final Queue<SocketChannel> pendingClients;
+    private final Queue<SelectionKey> processedClients;
+    private final Deque<SelectionKey> deferredClients;
+    private final TimingWheel<SelectionKey> timeouts;
+    private final ConnectionLimiter connectionLimiter;
+    private final long headerReadTimeout;
+    private final long idleTimeout;
+    private final long writeTimeout;
+    private SelectionKey listenerKey;
+    private AcceptGuard acceptGuard;
+    private volatile boolean closed;
+
+    /**
+     * Constructs a new event loop that delegates the HTTP-specific handling of its clients to the
+     * given client handler.
+     *
+     * @param clientHandler     the client handler performing reads and writes of client connections.
+     * @param requestExecutor   the bounded executor that client requests are processed on, or null if
+     *                          requests are to be processed on the event loop thread.
+     * @param connectionLimiter the limiter that permits for client connections are acquired from and released to.
+     * @param config            the configuration containing the connection timeouts.
+     * @throws IOException if the selector of the event loop cannot be opened.
+     */
+    EventLoop(ClientHandler clientHandler, ExecutorService requestExecutor, ConnectionLimiter connectionLimiter,
+              Configuration config) throws IOException {
+        this.selector = Selector.open();
+        this.clientHandler = clientHandler;
+        this.requestExecutor = requestExecutor;
+        this.pendingClients = new ConcurrentLinkedQueue<>();
+        this.processedClients = new ConcurrentLinkedQueue<>();
+        this.deferredClients = new ArrayDeque<>();
+        this.timeouts = new TimingWheel<>(TIMEOUT_TICK, TIMEOUT_TICKS, System.nanoTime());
+        this.connectionLimiter = connectionLimiter;
+        this.headerReadTimeout = config.getHeaderReadTimeout();
+        this.idleTimeout = config.getIdleTimeout();
+        this.writeTimeout = config.getWriteTimeout();
+    }
+
+    /**
+     * Hands an accepted client connection over to this event loop. The connection is registered
+     * with the event loop's selector from within the event loop thread. This method can be called
+     * from any thread.
+     *
+     * @param client the accepted, non-blocking client channel, for which a permit of the connection
+     *               limiter was acquired.
+     */
+    void registerClient(SocketChannel client) {
+        pendingClients.add(client);
+        selector.wakeup();
+    }
+
+    /**
+     * Assigns a server socket to this event loop, which from then on accepts client connections
+     * from the socket on its own. This method has to be called before the event loop is started.
+     *
+     * @param serverSocketChannel the bound server socket to accept client connections from.
+     * @param acceptGuard         the guard that client connections are accepted through.
+     * @throws IOException if the server socket cannot be registered with the event loop's selector.
+     */
+    void listen(ServerSocketChannel serverSocketChannel, AcceptGuard acceptGuard) throws IOException {
+        this.acceptGuard = acceptGuard;
+        serverSocketChannel.configureBlocking(false);
+        listenerKey = serverSocketChannel.register(selector, SelectionKey.OP_ACCEPT);
+        connectionLimiter.addResumeListener(selector::wakeup);
+    }
+
+    /**
+     * Runs the event loop until it is closed via {@link #close()}. When the loop terminates, all
+     * client connections served by it are closed.
+     */
+    @Override
+    public void run() {
+        try {
+            while (!closed) {
+                select();
+
+                resumeAccepting();
+                registerPendingClients();
+                resumeProcessedClients();
+                dispatchDeferredClients();
+
+                Iterator<SelectionKey> keysIterator = selector.selectedKeys().iterator();
+
+                while (keysIterator.hasNext()) {
+                    SelectionKey selectionKey = keysIterator.next();
+                    keysIterator.remove();
+
+                    if (selectionKey.isValid()) {
+                        handleKey(selectionKey);
+                    }
+                }
+
+                timeouts.advance(System.nanoTime(), this::expireClient);
+            }
+        } catch (IOException e) {
+            Logger.error(e, "Stopping event loop due to failure");
+        } finally {
+            shutdown();
+        }
+    }
+
+    /**
+     * Signals the event loop to terminate. The event loop thread closes its selector and client
+     * connections on its own. This method can be called from any thread.
+     */
+    void close() {
+        closed = true;
+        selector.wakeup();
+    }
+
+    private void shutdown() {
+        for (SelectionKey selectionKey : selector.keys()) {
+            if (selectionKey.attachment() != null) {
+                clientHandler.closeClient((HttpConnection) selectionKey.attachment());
+            } else {
+                closeQuietly(selectionKey.channel());
+            }
+        }
+
+        SocketChannel client;
+        while ((client = pendingClients.poll()) != null) {
+            closeQuietly(client);
+            connectionLimiter.release();
+        }
+
+        try {
+            selector.close();
+        } catch (IOException e) {
+            Logger.error(e, "Failed to close event loop");
+        }
+    }
+
+    /**
+     * Waits for events. While timeouts are scheduled, the selector is woken up at the next tick of the timing
+     * wheel at the latest, while requests wait to be dispatched, after the dispatch retry interval, and while
+     * the accept guard backs off, once it may accept again.
+     */
+    private void select() throws IOException {
+
+        long timeout = 0;
+
+        if (timeouts.size() > 0) {
+            timeout = timeouts.millisUntilNextTick(System.nanoTime());
+        }
+
+        if (acceptGuard != null) {
+            long retryTimeout = acceptGuard.millisUntilRetry(System.nanoTime());
+            if (retryTimeout > 0) {
+                timeout = timeout == 0 ? retryTimeout : Math.min(timeout, retryTimeout);
+            }
+        }
+
+        if (!deferredClients.isEmpty()) {
+            timeout = timeout == 0 ? DISPATCH_RETRY_INTERVAL : Math.min(timeout, DISPATCH_RETRY_INTERVAL);
+        }
+
+        if (timeout == 0) {
+            selector.select();
+        } else {
+            selector.select(timeout);
+        }
+    }
+
+    private void registerPendingClients() {
+        SocketChannel client;
+        while ((client = pendingClients.poll()) != null) {
+            try {
+                registerConnection(client);
+            } catch (IOException e) {
+                Logger.warn(e, "Failed to register client connection");
+                closeQuietly(client);
+                connectionLimiter.release();
+            }
+        }
+    }
+
+    private void handleKey(SelectionKey selectionKey) {
+
+        if (selectionKey.isAcceptable()) {
+            acceptClient(selectionKey);
+            return;
+        }
+
+        HttpConnection connection = (HttpConnection) selectionKey.attachment();
+
+        try {
+            if (selectionKey.isReadable()) {
+                if (!clientHandler.handleRead(connection)) {
+                    if (selectionKey.isValid()) {
+                        awaitRequest(selectionKey);
+                    } else {
+                        scheduleTimeout(selectionKey, null, 0);
+                    }
+                    return;
+                }
+
+                if (requestExecutor == null) {
+                    writeResponse(selectionKey);
+                } else {
+                    scheduleTimeout(selectionKey, null, 0);
+                    selectionKey.interestOps(0);
+                    if (!dispatchRequest(selectionKey)) {
+                        deferredClients.add(selectionKey);
+                    }
+                }
+
+            } else if (selectionKey.isWritable()) {
+                writeResponse(selectionKey);
+            }
+        } catch (IOException | IllegalStateException e) {
+            closeClient(selectionKey);
+        }
+    }
+
+    /**
+     * Writes the response of a client as far as the client accepts it without blocking. OP_WRITE is only
+     * registered while outbound data is pending, otherwise the event loop waits for the next request.
+     *
+     * @param selectionKey the selection key of the client connection.
+     * @throws IOException if writing to the client fails.
+     */
+    private void writeResponse(SelectionKey selectionKey) throws IOException {
+        if (clientHandler.handleWrite((HttpConnection) selectionKey.attachment())) {
+            if (!selectionKey.isValid()) {
+                // the connection was closed after its last response
+                scheduleTimeout(selectionKey, null, 0);
+                return;
+            }
+
+            selectionKey.interestOps(SelectionKey.OP_READ);
+            awaitRequest(selectionKey);
+        } else {
+            selectionKey.interestOps(SelectionKey.OP_WRITE);
+            scheduleTimeout(selectionKey, HttpConnection.TimeoutKind.WRITE, writeTimeout);
+        }
+    }
+
+    /**
+     * Schedules the timeout of a connection waiting for a request. While a request is partially received, the
+     * header read timeout is kept running from the first byte of the request on, so that a client cannot extend
+     * it by sending the request slowly. Otherwise the idle timeout is restarted.
+     *
+     * @param selectionKey the selection key of the client connection.
+     */
+    private void awaitRequest(SelectionKey selectionKey) {
+
+        HttpConnection connection = (HttpConnection) selectionKey.attachment();
+
+        if (!connection.getRequestDecoder().hasBufferedData()) {
+            scheduleTimeout(selectionKey, HttpConnection.TimeoutKind.IDLE, idleTimeout);
+        } else if (connection.getTimeoutKind() != HttpConnection.TimeoutKind.HEADER_READ) {
+            scheduleTimeout(selectionKey, HttpConnection.TimeoutKind.HEADER_READ, headerReadTimeout);
+        }
+    }
+
+    /**
+     * Replaces the scheduled timeout of a connection.
+     *
+     * @param selectionKey the selection key of the client connection.
+     * @param kind         the kind of the new timeout, or null to only cancel the scheduled timeout.
+     * @param delayMillis  the delay of the new timeout in milliseconds, with zero meaning no timeout.
+     */
+    private void scheduleTimeout(SelectionKey selectionKey, HttpConnection.TimeoutKind kind, long delayMillis) {
+
+        HttpConnection connection = (HttpConnection) selectionKey.attachment();
+        timeouts.cancel(connection.getTimeout());
+
+        if (kind == null || delayMillis <= 0) {
+            connection.setTimeout(null, null);
+            return;
+        }
+
+        connection.setTimeout(timeouts.schedule(selectionKey, delayMillis, System.nanoTime()), kind);
+    }
+
+    private void expireClient(SelectionKey selectionKey) {
+
+        HttpConnection connection = (HttpConnection) selectionKey.attachment();
+        Logger.debug("Closing client connection after {} timeout", connection.getTimeoutKind());
+
+        connection.setTimeout(null, null);
+        closeClient(selectionKey);
+    }
+
+    private void registerConnection(SocketChannel client) throws IOException {
+        SelectionKey selectionKey = client.register(selector, SelectionKey.OP_READ, clientHandler.acceptClient(client));
+        awaitRequest(selectionKey);
+    }
+
+    private void closeClient(SelectionKey selectionKey) {
+        scheduleTimeout(selectionKey, null, 0);
+        clientHandler.closeClient((HttpConnection) selectionKey.attachment());
+        selectionKey.cancel();
+    }
+
+    /**
+     * Hands the request of a client over to the request executor.
+     *
+     * @param selectionKey the selection key of the client connection.
+     * @return true if the request was accepted by the executor, false if the executor is saturated.
+     */
+    private boolean dispatchRequest(SelectionKey selectionKey) {
+        try {
+            requestExecutor.execute(() -> processRequest(selectionKey));
+            return true;
+        } catch (RejectedExecutionException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Creates the response to a client request. This method runs on a thread of the request executor.
+     *
+     * @param selectionKey the selection key of the client connection.
+     */
+    private void processRequest(SelectionKey selectionKey) {
+        try {
+            clientHandler.processRequest((HttpConnection) selectionKey.attachment());
+        } catch (RuntimeException e) {
+            Logger.warn(e, "Failed to process client request");
+        } finally {
+            processedClients.add(selectionKey);
+            selector.wakeup();
+        }
+    }
+
+    private void resumeProcessedClients() {
+        SelectionKey selectionKey;
+        while ((selectionKey = processedClients.poll()) != null) {
+            if (!selectionKey.isValid()) {
+                continue;
+            }
+
+            try {
+                writeResponse(selectionKey);
+            } catch (IOException | IllegalStateException e) {
+                closeClient(selectionKey);
+            }
+        }
+    }
+
+    private void dispatchDeferredClients() {
+        while (!deferredClients.isEmpty()) {
+            SelectionKey selectionKey = deferredClients.peek();
+
+            if (selectionKey.isValid() && !dispatchRequest(selectionKey)) {
+                return;
+            }
+
+            deferredClients.poll();
+        }
+    }
+
+    private void acceptClient(SelectionKey selectionKey) {
+
+        long nowNanos = System.nanoTime();
+
+        if (acceptGuard.isBackingOff(nowNanos)) {
+            selectionKey.interestOps(0);
+            return;
+        }
+
+        if (!connectionLimiter.tryAcquire()) {
+            Logger.debug("Pausing to accept client connections at {} open connections",
+                    connectionLimiter.getOpenConnections());
+            selectionKey.interestOps(0);
+            return;
+        }
+
+        SocketChannel client;
+
+        try {
+            client = acceptGuard.accept((ServerSocketChannel) selectionKey.channel(), nowNanos);
+        } catch (ClosedChannelException e) {
+            Logger.debug(e, "Server socket was closed");
+            connectionLimiter.release();
+            selectionKey.cancel();
+            return;
+        }
+
+        if (client == null) {
+            connectionLimiter.release();
+
+            if (acceptGuard.isBackingOff(nowNanos)) {
+                selectionKey.interestOps(0);
+            }
+            return;
+        }
+
+        try {
+            client.configureBlocking(false);
+            registerConnection(client);
+        } catch (IOException e) {
+            Logger.warn(e, "Failed to accept client connection");
+            closeQuietly(client);
+            connectionLimiter.release();
+        }
+    }
+
+    /**
+     * Listens for new client connections again once the connection limiter has resumed accepting and the
+     * accept guard has stopped backing off.
+     */
+    private void resumeAccepting() {
+        if (listenerKey != null && listenerKey.isValid() && listenerKey.interestOps() == 0
+                && !connectionLimiter.isPaused() && !acceptGuard.isBackingOff(System.nanoTime())) {
+            listenerKey.interestOps(SelectionKey.OP_ACCEPT);
+        }
+    }
+
+    private static void closeQuietly(Channel channel) {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            Logger.debug(e, "Failed to close client connection");
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.github.httpserver.server;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * FileRegion is a part of a file that is to be sent to a client as outbound data of a connection. The file
+ * contents are handed to the client channel via {@link FileChannel#transferTo(long, long, WritableByteChannel)},
+ * which lets the operating system copy them from the file system cache to the socket without loading them
+ * into the Java heap. The region keeps track of how much of the file has been transferred, so that a transfer
+ * interrupted by a full socket send buffer can be resumed later.
+ */
+class FileRegion {
+
+    private final FileChannel fileChannel;
+    private final long end;
+    private long position;
+
+    /**
+     * Opens the given file for transferring its first bytes to a client.
+     *
+     * @param file  the path of the file.
+     * @param count the number of bytes to be transferred, starting at the beginning of the file.
+     * @throws IOException if the file cannot be opened.
+     */
+    FileRegion(Path file, long count) throws IOException {
+        this.fileChannel = FileChannel.open(file, StandardOpenOption.READ);
+        this.end = count;
+        this.position = 0;
+    }
+
+    /**
+     * Transfers as much of the remaining region to the client as the channel accepts without blocking.
+     *
+     * @param channel the channel to the client.
+     * @return true if the region has been transferred completely, false if bytes are still remaining.
+     * @throws IOException if transferring fails or the file has been truncated since it was opened.
+     */
+    boolean transferTo(WritableByteChannel channel) throws IOException {
+
+        while (position < end) {
+            long transferred = fileChannel.transferTo(position, end - position, channel);
+
+            if (transferred == 0) {
+                if (position >= fileChannel.size()) {
+                    throw new IOException("File was truncated while being transferred");
+                }
+                return false;
+            }
+
+            position += transferred;
+        }
+        return true;
+    }
+
+    /**
+     * Closes the underlying file.
+     *
+     * @throws IOException if the file cannot be closed.
+     */
+    void close() throws IOException {
+        fileChannel.close();
+    }
+}
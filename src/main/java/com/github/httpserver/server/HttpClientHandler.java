@@ -3,11 +3,19 @@ package com.github.httpserver.server;
 import com.github.httpserver.configuration.Configuration;
 import com.github.httpserver.exception.HttpException;
 import com.github.httpserver.exception.HttpVersionNotSupportedException;
+import com.github.httpserver.exception.NotFoundException;
+import com.github.httpserver.file.DocumentRootIndex;
+import com.github.httpserver.file.DocumentRootWarmer;
+import com.github.httpserver.file.ETagIndex;
 import com.github.httpserver.file.HttpFileInfoRetriever;
+import com.github.httpserver.file.MimeTypes;
+import com.github.httpserver.file.MissingResourceCache;
 import com.github.httpserver.handler.HttpRequestHandler;
 import com.github.httpserver.handler.HttpRequestHandlerFactory;
+import com.github.httpserver.helper.HttpRequestDecoder;
 import com.github.httpserver.helper.HttpRequestParser;
 import com.github.httpserver.protocol.HttpContext;
+import com.github.httpserver.protocol.HttpDate;
 import com.github.httpserver.protocol.HttpHeader;
 import com.github.httpserver.protocol.HttpRequest;
 import com.github.httpserver.protocol.HttpResponse;
@@ -15,22 +23,38 @@ import org.tinylog.Logger;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
-import java.nio.channels.ReadableByteChannel;
 import java.nio.channels.SocketChannel;
-import java.nio.channels.WritableByteChannel;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 /**
- * HttpClientHandler is a concrete ClientHandler managing HTTP client connections.
+ * HttpClientHandler is a concrete ClientHandler managing HTTP client connections. A single instance
+ * is shared by all event loops of the server, but every client connection owns a separate
+ * {@link HttpConnection} that is only accessed by the event loop serving the connection.
  */
 class HttpClientHandler implements ClientHandler {
 
     private static final int READ_BUFFER_SIZE = 4096;
+    /**
+     * The system property enabling leak detection of pooled buffers, e.g. while debugging.
+     */
+    static final String LEAK_DETECTION_PROPERTY = "httpserver.bufferPool.leakDetection";
 
-    private final Map<SocketChannel, HttpContext> clientSockets;
+    private final Configuration config;
     private final HttpRequestParser requestParser;
     private final HttpRequestHandlerFactory requestHandlerFactory;
+    private final ETagIndex eTagIndex;
+    private final DocumentRootIndex documentRootIndex;
+    private final MissingResourceCache missingResources;
+    private final MimeTypes mimeTypes;
+    private final BufferPool bufferPool;
+    private final ConnectionLimiter connectionLimiter;
+    private final int maxRequestHeaderSize;
+    private final int maxRequestsPerConnection;
+    private final long maxConnectionAge;
 
     /**
      * Constructs a new HttpClientHandler based on an application configuration.
@@ -39,56 +63,321 @@ class HttpClientHandler implements ClientHandler {
      *               client handler to respect user-defined parameters.
      */
     public HttpClientHandler(Configuration config) {
-        clientSockets = new ConcurrentHashMap<>();
+        this.config = config;
         requestParser = new HttpRequestParser();
-        requestHandlerFactory = new HttpRequestHandlerFactory(config);
+        eTagIndex = new ETagIndex(config.getETagStrategy());
+        documentRootIndex = new DocumentRootIndex(resolveResource(""));
+        requestHandlerFactory = new HttpRequestHandlerFactory(config, eTagIndex, documentRootIndex);
+        documentRootIndex.addListener(eTagIndex::remove);
+        documentRootIndex.addListener(requestHandlerFactory.getContentCache()::remove);
+        missingResources = new MissingResourceCache(resolveResource(""), config.getRootResource(),
+                config.getNotFoundCacheTtl(), config.getNotFoundCacheSize());
+        documentRootIndex.addListener(missingResources::fileChanged);
+        mimeTypes = new MimeTypes(config.getMimeTypes());
+        bufferPool = new BufferPool(Boolean.getBoolean(LEAK_DETECTION_PROPERTY));
+        connectionLimiter = new ConnectionLimiter(config.getMaxConnections());
+        maxRequestHeaderSize = config.getMaxRequestHeaderSize();
+        maxRequestsPerConnection = config.getMaxRequestsPerConnection();
+        maxConnectionAge = TimeUnit.MILLISECONDS.toNanos(config.getMaxConnectionAge());
+    }
+
+    /**
+     * Starts watching the document root if configured, so that requested files are checked against an index
+     * in memory, and warms up the files of the document root if configured, so that the ETags of all files
+     * are indexed and the contents of selected files are cached before the first request arrives. Pinned
+     * resources are resolved in the same way as requested paths.
+     */
+    @Override
+    public void warmUp() {
+
+        if (config.isDocumentRootWatched()) {
+            try {
+                documentRootIndex.start();
+                missingResources.trackExistingFiles(documentRootIndex.getPaths());
+            } catch (IOException e) {
+                Logger.warn(e, "Unable to watch document root - checking requested files on the file system");
+            }
+        }
+
+        if (!config.isWarmUpEnabled()) {
+            return;
+        }
+
+        Set<Path> pinnedFiles = new HashSet<>();
+        for (String pinnedResource : config.getWarmUpPinnedResources()) {
+            pinnedFiles.add(resolveResource(pinnedResource));
+        }
+
+        new DocumentRootWarmer(resolveResource(""), pinnedFiles, config.getWarmUpPreloadMaxFileSize(), eTagIndex,
+                requestHandlerFactory.getContentCache(), mimeTypes).warmUp();
+    }
+
+    /**
+     * Stops watching the document root.
+     */
+    @Override
+    public void shutdown() {
+        try {
+            documentRootIndex.close();
+        } catch (IOException e) {
+            Logger.debug(e, "Failed to stop watching the document root");
+        }
     }
 
     /**
-     * Handles new client connections by creating new client stacks with empty HTTP context.
+     * Handles new client connections by creating a new connection state with a fresh request decoder, no
+     * pending exchanges and no pending outbound data. The caller is expected to hold a permit of the connection
+     * limiter for the client, which is released once the connection is closed.
      *
      * @param client the general channel used for communication with the client.
+     * @return the state of the new client connection.
      * @throws IOException if the remote address of the client cannot be determined due to connectivity
      *                     issues.
      */
     @Override
-    public void acceptClient(SocketChannel client) throws IOException {
+    public HttpConnection acceptClient(SocketChannel client) throws IOException {
         Logger.debug("Established client connection from {}", client.getRemoteAddress());
-        clientSockets.put(client, HttpContext.EMPTY_CONTEXT);
+        HttpRequestDecoder requestDecoder = new HttpRequestDecoder(requestParser, maxRequestHeaderSize);
+        return new HttpConnection(client, requestDecoder, bufferPool);
     }
 
     /**
-     * Reads the incoming HTTP request of the client and creates and parses it in order to append
-     * the information to the internally hold client stack. If the client request cannot be read
-     * at this point, an HTTP response is already created and also directly appended for the
-     * future response.
+     * Reads the incoming HTTP requests of the client and parses them in order to append the information
+     * to the state of the connection. A request may arrive split across multiple reads, in which case
+     * the bytes are collected by the connection's request decoder until the request's header section is
+     * complete. A single read may also contain multiple pipelined requests, which are all queued as pending
+     * exchanges of the client. If a client request cannot be read at this point, an HTTP response is already
+     * created and also directly appended for the future response. A malformed request ends the decoding, since
+     * the start of any request following it is unknown; its error response is the last one of the connection.
      *
-     * @param client the readable channel used for incoming communication from the client.
+     * @param connection the connection of the client.
+     * @return true if at least one complete request has been read, false if more data is needed.
      * @throws IOException if there are connectivity issues with the client.
      */
     @Override
-    public void handleRead(ReadableByteChannel client) throws IOException {
+    public boolean handleRead(HttpConnection connection) throws IOException {
 
-        HttpContext context = clientSockets.get((SocketChannel) client);
+        ByteBuffer readBuffer = bufferPool.acquire(READ_BUFFER_SIZE);
 
-        if (context == null) {
-            throw new IOException("Tried to read from client that was not registered as connected before");
+        try {
+            int contentLength = connection.getChannel().read(readBuffer);
+
+            if (contentLength < 0) {
+                closeClient(connection);
+                return false;
+            }
+
+            readBuffer.flip();
+            connection.getRequestDecoder().append(readBuffer);
+        } finally {
+            bufferPool.release(readBuffer);
         }
 
-        ByteBuffer readBuffer = ByteBuffer.allocate(READ_BUFFER_SIZE);
-        int contentLength = client.read(readBuffer);
+        HttpContext context;
+        while ((context = decodeRequest(connection.getRequestDecoder())) != null) {
+            connection.getPendingExchanges().add(context);
 
-        if (contentLength < 0) {
-            client.close();
-            clientSockets.remove((SocketChannel) client);
-            return;
+            if (context.getRequest() == null) {
+                // the decoder discarded the malformed request, so that the bytes following it cannot be framed
+                break;
+            }
+        }
+
+        return !connection.getPendingExchanges().isEmpty();
+    }
+
+    /**
+     * Creates the HTTP responses to all pending requests of the client by regularly processing them, unless
+     * the client stack already contains a defined response set by {@link #handleRead(HttpConnection)}.
+     *
+     * @param connection the connection of the client whose requests are to be processed.
+     */
+    @Override
+    public void processRequest(HttpConnection connection) {
+        for (HttpContext context : connection.getPendingExchanges()) {
+            createResponse(context);
+        }
+    }
+
+    /**
+     * Creates and eventually writes HTTP responses to the client. If the client stack already contains
+     * a defined response set by {@link #handleRead(HttpConnection)} or {@link #processRequest(HttpConnection)},
+     * this response is directly written to the client socket. If not, a response is created by regularly
+     * processing the client's HTTP request. After writing the responses to all pending requests, the client
+     * stack is preserved but the answered exchanges are removed from it. That allows for future requests to be
+     * processed over the same socket connection, e.g. when using persistent connections.
+     * <p>
+     * The responses are queued as outbound data of the connection in the order of the requests and written
+     * as far as the client socket accepts them without blocking. If the client still has outbound data pending
+     * from a previous call, no new response is created and only the pending data is written.
+     * <p>
+     * The last response of a connection carries 'Connection: close', either because the client requested it, the client
+     * speaks HTTP/1.0 without requesting 'keep-alive', the request could not be decoded, or the connection reached its
+     * maximum number of requests or its maximum age. Requests pipelined after the last response are discarded, and the
+     * connection is closed as soon as the last response has been written.
+     *
+     * @param connection the connection of the client.
+     * @return true if the responses have been completely written, false if outbound data is still pending.
+     * @throws IOException if there are connectivity issues with the client.
+     */
+    @Override
+    public boolean handleWrite(HttpConnection connection) throws IOException {
+
+        if (!connection.hasPendingWrites()) {
+            HttpContext context;
+
+            while (!connection.isClosing() && (context = connection.getPendingExchanges().poll()) != null) {
+                createResponse(context);
+
+                // set connection header based on client request and connection limits
+                if (isLastResponse(connection, context)) {
+                    context.getResponse().getHeaders().put(HttpHeader.HEADER_CONNECTION, HttpHeader.CONNECTION_CLOSE);
+                    connection.closeAfterWrite();
+                } else {
+                    context.getResponse().getHeaders().put(HttpHeader.HEADER_CONNECTION,
+                            HttpHeader.CONNECTION_KEEP_ALIVE);
+                }
+
+                context.getResponse().getHeaders().put(HttpHeader.HEADER_DATE, HttpDate.now());
+                enqueueResponse(connection, context.getResponse());
+                Logger.debug("Responded request at path {} with {}",
+                        context.getRequest() != null ? context.getRequest().getPath() : null,
+                        context.getResponse().getStatus());
+            }
+        }
+
+        if (connection.isClosing()) {
+            // requests pipelined after the last response are not answered
+            connection.getPendingExchanges().clear();
+        }
+
+        boolean written = connection.flush(connection.getChannel());
+
+        if (written && connection.isClosing()) {
+            Logger.debug("Closing client connection after its last response");
+            closeClient(connection);
+        }
+
+        return written;
+    }
+
+    /**
+     * Determines if the response of an exchange is the last one of a connection. This is the case if the client
+     * does not want to keep the connection open, if the request could not be decoded, so that the bytes following
+     * it cannot be framed, or if the connection reached one of its limits.
+     *
+     * @param connection the connection of the client.
+     * @param context    the context of the exchange that is currently answered.
+     * @return a boolean indicating if the connection is to be closed after the response of the exchange.
+     */
+    private boolean isLastResponse(HttpConnection connection, HttpContext context) {
+        return context.getRequest() == null || context.isTransientConnection() || isExhausted(connection);
+    }
+
+    /**
+     * Counts the request that is currently answered over a connection and determines if the connection has
+     * reached its maximum number of requests or its maximum age, so that this response is the last one.
+     *
+     * @param connection the connection of the client.
+     * @return a boolean indicating if the connection is to be closed after the current response.
+     */
+    private boolean isExhausted(HttpConnection connection) {
+
+        int answeredRequests = connection.countAnsweredRequest();
+
+        if (maxRequestsPerConnection > 0 && answeredRequests >= maxRequestsPerConnection) {
+            return true;
+        }
+
+        return maxConnectionAge > 0 && System.nanoTime() - connection.getOpenedNanos() >= maxConnectionAge;
+    }
+
+    /**
+     * Queues a response as outbound data of a connection. The header section is encoded into a pooled direct
+     * buffer, which the connection releases once it has been written. Header section and in-memory body are
+     * queued as separate buffers, which the connection writes with a single gathering write instead of copying
+     * them into one array. A file-backed body is queued as a file region following the header section, so that
+     * it is transferred from the file to the client without being loaded into memory.
+     *
+     * @param connection the connection of the client.
+     * @param response   the response to be written.
+     * @throws IOException if the body file of the response cannot be opened.
+     */
+    private void enqueueResponse(HttpConnection connection, HttpResponse response) throws IOException {
+
+        FileRegion fileRegion = null;
+
+        if (response.getBodyFile() != null) {
+            fileRegion = new FileRegion(response.getBodyFile(), response.getBodyFileSize());
+        }
+
+        ByteBuffer header = bufferPool.acquire(response.getHeaderLength());
+        response.writeHeader(header);
+        header.flip();
+        connection.enqueuePooled(header);
+
+        if (response.getBody() != null) {
+            connection.enqueue(ByteBuffer.wrap(response.getBody()));
+        }
+
+        if (fileRegion != null) {
+            connection.enqueue(fileRegion);
         }
+    }
+
+    /**
+     * Returns the pool of the buffers used for reading requests and encoding responses.
+     *
+     * @return the buffer pool.
+     */
+    BufferPool getBufferPool() {
+        return bufferPool;
+    }
+
+    /**
+     * Returns the limiter of concurrently open client connections. Threads accepting client connections have to
+     * acquire a permit from the limiter before accepting a connection. The permit is released once the connection
+     * is closed via {@link #closeClient(HttpConnection)}.
+     *
+     * @return the connection limiter.
+     */
+    ConnectionLimiter getConnectionLimiter() {
+        return connectionLimiter;
+    }
+
+    /**
+     * Resolves a resource relative to the source path in the same way as the request handlers resolve
+     * requested paths, so that the resolved path matches the keys of the ETag index and content cache.
+     *
+     * @param resource the path of the resource relative to the source path.
+     * @return the path of the file.
+     */
+    private Path resolveResource(String resource) {
+        return ServerConstants.getCurrentFilePath().resolve(Paths.get(config.getSourcePath(), resource));
+    }
+
+    /**
+     * Decodes the next complete request from the bytes collected by a request decoder.
+     *
+     * @param requestDecoder the request decoder of the client.
+     * @return the context of the decoded exchange, containing either the request or an error response
+     * if the request is invalid, or null if no complete request has been collected.
+     */
+    private HttpContext decodeRequest(HttpRequestDecoder requestDecoder) {
+
+        HttpContext context = new HttpContext(null, null);
 
         try {
-            HttpRequest request = requestParser.parseRequest(readBuffer.array());
+            HttpRequest request = requestDecoder.decode();
+
+            if (request == null) {
+                return null;
+            }
+
             context.setRequest(request);
 
-            if (!request.getVersion().equals(ServerConstants.SUPPORTED_HTTP_VERSION)) {
+            if (!request.getVersion().equals(ServerConstants.SUPPORTED_HTTP_VERSION)
+                    && !request.getVersion().equals(ServerConstants.LEGACY_HTTP_VERSION)) {
                 throw new HttpVersionNotSupportedException();
             }
 
@@ -96,61 +385,61 @@ class HttpClientHandler implements ClientHandler {
         } catch (HttpException e) {
             context.setResponse(e.toHttpResponse());
         }
+
+        return context;
     }
 
     /**
-     * Creates and eventually writes HTTP response to the client. If the client stack already contains
-     * a defined response set by {@link #handleRead(ReadableByteChannel)}}, this response is directly written to the client socket.
-     * If not, a response is created by regularly processing the client's HTTP request. After wiring the
-     * response, the client stack is preserved but only the response object is removed from its stack. That
-     * allows for future requests to be processed over the same socket connection, e.g. when using persistent
-     * connections.
+     * Creates the response of an exchange by handling its request, unless a response is already set.
+     * Requests for resources that are known to be missing are answered without handling them, and every
+     * resource that the request handler finds to be missing is remembered.
      *
-     * @param client the writable channel used for outgoing communication with the client.
-     * @throws IOException if there are connectivity issues with the client.
+     * @param context the context of the exchange.
      */
-    @Override
-    public void handleWrite(WritableByteChannel client) throws IOException {
-
-        HttpContext context = clientSockets.get((SocketChannel) client);
+    private void createResponse(HttpContext context) {
 
-        if (context == null) {
-            throw new IOException("Tried to write to client that was not read before");
+        if (context.getResponse() != null) {
+            return;
         }
 
-        if (context.getResponse() == null) {
-            try {
-                HttpRequestHandler requestHandler = requestHandlerFactory.createHttpRequestHandler(context.getRequest());
-                HttpResponse response = requestHandler.handleRequest(context.getRequest(),
-                        new HttpFileInfoRetriever(context.getRequest().getHeaders()));
-                context.setResponse(response);
-            } catch (HttpException e) {
-                context.setResponse(e.toHttpResponse());
-            }
-        }
+        String requestPath = context.getRequest().getPath();
 
-        // set connection header based on client request
-        if (context.isTransientConnection()) {
-            context.getResponse().getHeaders().put(HttpHeader.HEADER_CONNECTION, HttpHeader.CONNECTION_CLOSE);
-        } else {
-            context.getResponse().getHeaders().put(HttpHeader.HEADER_CONNECTION, HttpHeader.CONNECTION_KEEP_ALIVE);
-        }
+        try {
+            HttpRequestHandler requestHandler = requestHandlerFactory.createHttpRequestHandler(context.getRequest());
+
+            if (missingResources.isMissing(requestPath)) {
+                context.setResponse(new NotFoundException().toHttpResponse());
+                return;
+            }
 
-        ByteBuffer writeBuffer = context.getResponse().toByteBuffer();
-        while (writeBuffer.hasRemaining()) {
-            client.write(writeBuffer);
+            HttpResponse response = requestHandler.handleRequest(context.getRequest(),
+                    new HttpFileInfoRetriever(context.getRequest().getHeaders(), eTagIndex, mimeTypes));
+            context.setResponse(response);
+        } catch (NotFoundException e) {
+            missingResources.markMissing(requestPath);
+            context.setResponse(e.toHttpResponse());
+        } catch (HttpException e) {
+            context.setResponse(e.toHttpResponse());
         }
-        Logger.debug("Responded request at path {} with {}", context.getRequest().getPath(),
-                context.getResponse().getStatus());
-        // reset response for future requests from client
-        context.setResponse(null);
     }
 
     /**
-     * Checks all client stacks for already closed connections and removes them if that is the case.
+     * Closes the channel of a client and releases its connection state. Files of responses that were still
+     * pending on the connection are closed and pooled buffers are returned to the pool. The permit of the
+     * connection is returned to the connection limiter.
+     *
+     * @param connection the connection of the client.
      */
     @Override
-    public void cleanupConnections() {
-        clientSockets.keySet().removeIf(socketChannel -> !socketChannel.isOpen());
+    public void closeClient(HttpConnection connection) {
+        try {
+            connection.getChannel().close();
+        } catch (IOException e) {
+            Logger.debug(e, "Failed to close client connection");
+        }
+
+        if (connection.close()) {
+            connectionLimiter.release();
+        }
     }
 }
@@ -0,0 +1,321 @@
+package com.github.httpserver.server;
+
+import com.github.httpserver.helper.HttpRequestDecoder;
+import com.github.httpserver.protocol.HttpContext;
+import org.tinylog.Logger;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.GatheringByteChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * HttpConnection holds the state of a single client connection. It is created by the {@link ClientHandler} when the
+ * client connects, attached to the selection key of the client channel, and released when the channel is closed, so
+ * that connections never share state and no lookup is needed per event. It keeps the decoder collecting the bytes of
+ * incoming requests, the HTTP contexts of all requests that were received but not yet answered, and a queue of outbound
+ * data that could not yet be written to the client because its socket send buffer was full. Outbound data consists of
+ * buffers and of file regions, which are transferred from their file to the client without being loaded into memory.
+ * Since clients may pipeline requests, multiple exchanges can be pending at the same time; they are answered in the
+ * order in which the requests were received. A connection is only ever accessed by one thread at a time.
+ * <p>
+ * Outbound buffers may be acquired from a {@link BufferPool}, in which case the connection releases them once
+ * they have been written or the connection is closed.
+ */
+public class HttpConnection {
+
+    private final SocketChannel channel;
+    private final HttpRequestDecoder requestDecoder;
+    private final BufferPool bufferPool;
+    private final Deque<HttpContext> pendingExchanges;
+    private final Deque<OutboundData> outboundData;
+    private final long openedNanos;
+    private int answeredRequests;
+    private boolean closing;
+    private boolean closed;
+    private TimingWheel.Timeout<SelectionKey> timeout;
+    private TimeoutKind timeoutKind;
+
+    /**
+     * Constructs a new connection state without pending exchanges and outbound data.
+     *
+     * @param channel        the channel of the client.
+     * @param requestDecoder the decoder for the requests received over the connection.
+     * @param bufferPool     the pool that pooled outbound buffers are released to.
+     */
+    HttpConnection(SocketChannel channel, HttpRequestDecoder requestDecoder, BufferPool bufferPool) {
+        this.channel = channel;
+        this.requestDecoder = requestDecoder;
+        this.bufferPool = bufferPool;
+        this.pendingExchanges = new ArrayDeque<>();
+        this.outboundData = new ArrayDeque<>();
+        this.openedNanos = System.nanoTime();
+    }
+
+    /**
+     * Returns the channel of the client.
+     *
+     * @return the client channel.
+     */
+    SocketChannel getChannel() {
+        return channel;
+    }
+
+    /**
+     * Returns the HTTP contexts of all requests that were received but not yet answered, in the order
+     * in which the requests were received.
+     *
+     * @return the queue of pending exchanges.
+     */
+    Deque<HttpContext> getPendingExchanges() {
+        return pendingExchanges;
+    }
+
+    /**
+     * Returns the decoder for the requests received over this connection.
+     *
+     * @return the request decoder.
+     */
+    HttpRequestDecoder getRequestDecoder() {
+        return requestDecoder;
+    }
+
+    /**
+     * Counts a request that is answered over this connection.
+     *
+     * @return the number of requests answered over this connection, including the counted one.
+     */
+    int countAnsweredRequest() {
+        return ++answeredRequests;
+    }
+
+    /**
+     * Returns the time in nanoseconds, as returned by {@link System#nanoTime()}, at which the connection was
+     * opened.
+     *
+     * @return the opening time of the connection.
+     */
+    long getOpenedNanos() {
+        return openedNanos;
+    }
+
+    /**
+     * Marks the connection to be closed once its pending outbound data has been written. No further requests
+     * are answered over the connection.
+     */
+    void closeAfterWrite() {
+        closing = true;
+    }
+
+    /**
+     * Indicates if the connection is closed once its pending outbound data has been written.
+     *
+     * @return a boolean indicating if the connection is closing.
+     */
+    boolean isClosing() {
+        return closing;
+    }
+
+    /**
+     * Returns the kind of the timeout that is currently scheduled for this connection.
+     *
+     * @return the kind of the scheduled timeout, or null if no timeout is scheduled.
+     */
+    TimeoutKind getTimeoutKind() {
+        return timeoutKind;
+    }
+
+    /**
+     * Returns the handle of the timeout that is currently scheduled for this connection.
+     *
+     * @return the handle of the scheduled timeout, or null if no timeout is scheduled.
+     */
+    TimingWheel.Timeout<SelectionKey> getTimeout() {
+        return timeout;
+    }
+
+    /**
+     * Sets the timeout that is currently scheduled for this connection.
+     *
+     * @param timeout     the handle of the scheduled timeout, or null if no timeout is scheduled.
+     * @param timeoutKind the kind of the scheduled timeout, or null if no timeout is scheduled.
+     */
+    void setTimeout(TimingWheel.Timeout<SelectionKey> timeout, TimeoutKind timeoutKind) {
+        this.timeout = timeout;
+        this.timeoutKind = timeoutKind;
+    }
+
+    /**
+     * Appends a buffer to the outbound data that is written to the client by {@link #flush(WritableByteChannel)}.
+     *
+     * @param buffer the buffer to be written, ready for reading.
+     */
+    void enqueue(ByteBuffer buffer) {
+        outboundData.add(new OutboundData(buffer, null, false));
+    }
+
+    /**
+     * Appends a buffer acquired from the buffer pool of the connection to the outbound data. The buffer is
+     * released to the pool once it has been written or the connection is closed.
+     *
+     * @param buffer the pooled buffer to be written, ready for reading.
+     */
+    void enqueuePooled(ByteBuffer buffer) {
+        outboundData.add(new OutboundData(buffer, null, true));
+    }
+
+    /**
+     * Appends a file region to the outbound data that is written to the client by
+     * {@link #flush(WritableByteChannel)}. The file region is closed once it has been transferred completely
+     * or the connection is closed.
+     *
+     * @param fileRegion the file region to be transferred.
+     */
+    void enqueue(FileRegion fileRegion) {
+        outboundData.add(new OutboundData(null, fileRegion, false));
+    }
+
+    /**
+     * Indicates if there is outbound data that has not been written to the client yet.
+     *
+     * @return a boolean indicating if outbound data is pending.
+     */
+    boolean hasPendingWrites() {
+        return !outboundData.isEmpty();
+    }
+
+    /**
+     * Writes as much of the pending outbound data to the client as the channel accepts without blocking.
+     * If the channel supports gathering writes, all pending buffers up to the next file region are handed to
+     * the channel at once, so that the responses to pipelined requests are written back-to-back with a single
+     * system call. File regions are transferred directly from their file to the channel. Writing stops as soon
+     * as the channel does not take all data, e.g. because the socket send buffer is full, and is resumed by the
+     * next call of this method.
+     *
+     * @param channel the channel to the client.
+     * @return true if all pending outbound data has been written, false if data is still pending.
+     * @throws IOException if writing to the client fails.
+     */
+    boolean flush(WritableByteChannel channel) throws IOException {
+
+        while (!outboundData.isEmpty()) {
+            OutboundData head = outboundData.peek();
+
+            if (head.fileRegion != null) {
+                if (!head.fileRegion.transferTo(channel)) {
+                    return false;
+                }
+
+                outboundData.poll();
+                head.fileRegion.close();
+                continue;
+            }
+
+            List<ByteBuffer> buffers = leadingBuffers();
+
+            if (channel instanceof GatheringByteChannel && buffers.size() > 1) {
+                ((GatheringByteChannel) channel).write(buffers.toArray(new ByteBuffer[0]));
+            } else {
+                channel.write(head.buffer);
+            }
+
+            while (!outboundData.isEmpty() && outboundData.peek().buffer != null
+                    && !outboundData.peek().buffer.hasRemaining()) {
+                release(outboundData.poll());
+            }
+
+            if (!outboundData.isEmpty() && outboundData.peek().buffer != null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Discards all pending outbound data, releases pooled buffers and closes the files of pending file regions.
+     * This method has to be called when the connection is closed. Closing a connection more than once has no
+     * further effect.
+     *
+     * @return true if the connection was open before, false if it had already been closed.
+     */
+    boolean close() {
+
+        if (closed) {
+            return false;
+        }
+
+        closed = true;
+        OutboundData data;
+        while ((data = outboundData.poll()) != null) {
+            if (data.fileRegion == null) {
+                release(data);
+                continue;
+            }
+
+            try {
+                data.fileRegion.close();
+            } catch (IOException e) {
+                Logger.debug(e, "Failed to close file of pending response");
+            }
+        }
+
+        return true;
+    }
+
+    private void release(OutboundData data) {
+        if (data.pooled) {
+            bufferPool.release(data.buffer);
+        }
+    }
+
+    private List<ByteBuffer> leadingBuffers() {
+        List<ByteBuffer> buffers = new ArrayList<>();
+        for (OutboundData data : outboundData) {
+            if (data.buffer == null) {
+                break;
+            }
+            buffers.add(data.buffer);
+        }
+        return buffers;
+    }
+
+    /**
+     * The kinds of timeouts limiting how long a connection may stay in a certain state.
+     */
+    enum TimeoutKind {
+        /**
+         * The client started sending a request, but has not completed its header section yet.
+         */
+        HEADER_READ,
+        /**
+         * The connection has neither a pending request nor a pending response.
+         */
+        IDLE,
+        /**
+         * The client does not accept the remaining bytes of a pending response.
+         */
+        WRITE
+    }
+
+    /**
+     * A single piece of outbound data, which is either a buffer or a file region.
+     */
+    private static final class OutboundData {
+
+        private final ByteBuffer buffer;
+        private final FileRegion fileRegion;
+        private final boolean pooled;
+
+        OutboundData(ByteBuffer buffer, FileRegion fileRegion, boolean pooled) {
+            this.buffer = buffer;
+            this.fileRegion = fileRegion;
+            this.pooled = pooled;
+        }
+    }
+}
@@ -1,10 +1,16 @@
 package com.github.httpserver.server;
 
+import com.github.httpserver.configuration.AcceptMode;
 import com.github.httpserver.configuration.Configuration;
+import com.github.httpserver.configuration.ServerEngine;
 import org.tinylog.Logger;
 
 import java.io.IOException;
+import java.lang.reflect.Method;
 import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.channels.AsynchronousCloseException;
+import java.nio.channels.ClosedChannelException;
 import java.nio.channels.SelectionKey;
 import java.nio.channels.Selector;
 import java.nio.channels.ServerSocketChannel;
@@ -12,6 +18,12 @@ import java.nio.channels.SocketChannel;
 import java.util.Iterator;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * HttpServer is a web server implementation based on NIO (non-blocking IO). It opens a server socket,
@@ -19,6 +31,28 @@ import java.util.Set;
  * socket interactions, it internally makes use of a {@link HttpClientHandler} to take care of HTTP-specific lifecycle
  * operations in the client interaction.
  * <p>
+ * The server follows a multi-reactor model: the thread calling {@link #startServer()} only accepts new client
+ * connections and hands each of them over to one of several {@link EventLoop}s in a round-robin fashion. Every
+ * event loop runs on its own thread and performs all reads and writes of the connections it was handed.
+ * If {@link AcceptMode#REUSE_PORT} is configured, every event loop instead owns a server socket of its own, all
+ * bound to the same port with SO_REUSEPORT, so that the kernel spreads incoming connections across the event
+ * loops and no single thread is doing all the accepting. In that case the thread calling {@link #startServer()}
+ * merely waits for the server to be stopped.
+ * <p>
+ * As an alternative to the selector event loops, the {@link ServerEngine#THREAD_PER_CONNECTION} engine accepts
+ * client connections on a blocking server socket and serves every connection with blocking I/O on a (virtual)
+ * thread of its own. Both engines share the same {@link ClientHandler}, so that requests are parsed and handled
+ * identically.
+ * <p>
+ * The number of concurrently open client connections is bounded by a {@link ConnectionLimiter}. Once the maximum is
+ * reached, the server stops accepting connections, so that further clients wait in the listen backlog of the server
+ * socket, and resumes once enough connections have been closed. How often accepting was paused is exposed via
+ * {@link #getPausedAcceptPeriods()}.
+ * <p>
+ * Every server socket is guarded by an {@link AcceptGuard}, so that a failing accept never closes the server socket.
+ * If the process runs out of file descriptors, the server backs off and turns away pending clients cleanly until
+ * resources are available again. The state of the server sockets is exposed via {@link #getListenerHealth()}.
+ * <p>
  * The class is managing an internal state that can be queried from the outside. The three possible states are
  * (1) idle: the server object was constructed and is waiting to be used (can transition to state (2))
  * (2) running: {@link #startServer()} was called (can transition to state (3))
@@ -29,12 +63,29 @@ import java.util.Set;
  */
 public class HttpServer {
 
+    /**
+     * The maximum time in milliseconds that the {@link ServerEngine#THREAD_PER_CONNECTION} engine waits before
+     * checking again whether it may accept client connections, e.g. to notice that the server was stopped.
+     */
+    private static final long ADMISSION_RETRY_INTERVAL = 100;
+
     private final ClientHandler clientHandler;
+    private final ConnectionLimiter connectionLimiter;
+    private final BufferPool bufferPool;
 
     private final Configuration config;
-    private ServerState serverState;
+    private volatile ServerState serverState;
+    private volatile boolean ready;
+    private AcceptMode acceptMode;
     private ServerSocketChannel serverSocketChannel;
+    private ServerSocketChannel[] reusePortServerSocketChannels;
+    private AcceptGuard acceptGuard;
+    private AcceptGuard[] reusePortAcceptGuards;
     private Selector selector;
+    private EventLoop[] eventLoops;
+    private int nextEventLoop;
+    private ExecutorService connectionExecutor;
+    private ExecutorService requestExecutor;
 
     /**
      * Constructs a new http server based on an application configuration.
@@ -47,7 +98,10 @@ public class HttpServer {
     public HttpServer(Configuration config) throws IOException {
         this.config = Objects.requireNonNull(config);
         this.serverState = ServerState.IDLE;
-        this.clientHandler = new HttpClientHandler(config);
+        HttpClientHandler httpClientHandler = new HttpClientHandler(config);
+        this.clientHandler = httpClientHandler;
+        this.connectionLimiter = httpClientHandler.getConnectionLimiter();
+        this.bufferPool = httpClientHandler.getBufferPool();
 
         try {
             initializeServerSocket();
@@ -58,17 +112,67 @@ public class HttpServer {
     }
 
     /**
-     * Opens the TCP server socket and a corresponding NIO selector.
+     * Opens the TCP server socket and a corresponding NIO selector. If {@link AcceptMode#REUSE_PORT} is
+     * configured, one server socket per event loop is opened instead, all bound to the same port. If the
+     * platform does not support SO_REUSEPORT, the server falls back to {@link AcceptMode#ACCEPTOR}. The
+     * {@link ServerEngine#THREAD_PER_CONNECTION} engine uses a single server socket in blocking mode.
      *
      * @throws IOException if the server socket channel or selector cannot be opened.
      */
     private void initializeServerSocket() throws IOException {
         selector = Selector.open();
-        serverSocketChannel = ServerSocketChannel.open();
-        serverSocketChannel.configureBlocking(false);
-        int supportedOperations = serverSocketChannel.validOps();
-        serverSocketChannel.register(selector, supportedOperations);
-        serverSocketChannel.bind(new InetSocketAddress(config.getPort()));
+        acceptMode = config.getAcceptMode();
+
+        if (config.getEngine() == ServerEngine.THREAD_PER_CONNECTION) {
+            serverSocketChannel = ServerSocketChannel.open();
+            serverSocketChannel.bind(new InetSocketAddress(config.getPort()), config.getListenBacklog());
+            acceptGuard = new AcceptGuard();
+            return;
+        }
+
+        if (acceptMode == AcceptMode.REUSE_PORT) {
+            try (ServerSocketChannel probeChannel = ServerSocketChannel.open()) {
+                if (!probeChannel.supportedOptions().contains(StandardSocketOptions.SO_REUSEPORT)) {
+                    Logger.warn("SO_REUSEPORT is not supported on this platform - falling back to a single acceptor");
+                    acceptMode = AcceptMode.ACCEPTOR;
+                }
+            }
+        }
+
+        if (acceptMode == AcceptMode.REUSE_PORT) {
+            reusePortServerSocketChannels = new ServerSocketChannel[config.getWorkerThreads()];
+            reusePortAcceptGuards = new AcceptGuard[config.getWorkerThreads()];
+            for (int i = 0; i < reusePortServerSocketChannels.length; i++) {
+                reusePortServerSocketChannels[i] = openServerSocket(true);
+                reusePortAcceptGuards[i] = new AcceptGuard();
+            }
+            return;
+        }
+
+        serverSocketChannel = openServerSocket(false);
+        serverSocketChannel.register(selector, SelectionKey.OP_ACCEPT);
+        acceptGuard = new AcceptGuard();
+        connectionLimiter.addResumeListener(selector::wakeup);
+    }
+
+    /**
+     * Opens a non-blocking TCP server socket that is bound to the configured port with the configured
+     * listen backlog.
+     *
+     * @param reusePort whether SO_REUSEPORT is enabled on the socket.
+     * @return the bound server socket channel.
+     * @throws IOException if the server socket channel cannot be opened or bound.
+     */
+    private ServerSocketChannel openServerSocket(boolean reusePort) throws IOException {
+        ServerSocketChannel channel = ServerSocketChannel.open();
+        channel.configureBlocking(false);
+
+        if (reusePort) {
+            channel.setOption(StandardSocketOptions.SO_REUSEPORT, true);
+        }
+
+        channel.bind(new InetSocketAddress(config.getPort()), config.getListenBacklog());
+        return channel;
     }
 
     /**
@@ -79,6 +183,9 @@ public class HttpServer {
      * and the server stopped gracefully. For that reason it is recommended to check whether the server
      * is running using {@link #isRunning()} or {@link #isStopped()} before calling this method if there
      * is the risk of calling it subsequently.
+     * <p>
+     * If warm-up is configured, the document root is warmed up before the first client connection is
+     * served, and the server only reports to be ready via {@link #isReady()} once warm-up is finished.
      *
      * @throws IllegalStateException if the server is already actively running.
      */
@@ -97,67 +204,313 @@ public class HttpServer {
         serverState = ServerState.RUNNING;
 
         try {
-            while (!isStopped()) {
+            clientHandler.warmUp();
+            ready = true;
+            Logger.info("HTTP server is ready to serve requests");
+
+            if (config.getEngine() == ServerEngine.THREAD_PER_CONNECTION) {
+                runThreadPerConnection();
+            } else {
+                runEventLoops();
+            }
+        } catch (IOException e) {
+            Logger.error("Stopping server due to failure", e);
+        } finally {
+            stopServer();
+        }
+    }
+
+    /**
+     * Runs the server with the {@link ServerEngine#SELECTOR} engine. The event loops are started and
+     * the calling thread accepts client connections until the server is stopped.
+     *
+     * @throws IOException if the event loops cannot be started or the selector fails.
+     */
+    private void runEventLoops() throws IOException {
+        startEventLoops();
+
+        while (!isStopped()) {
+            long timeout = acceptGuard == null ? 0 : acceptGuard.millisUntilRetry(System.nanoTime());
+
+            if (timeout == 0) {
                 selector.select();
+            } else {
+                selector.select(timeout);
+            }
 
-                if (!selector.isOpen()) {
-                    break;
-                }
+            if (!selector.isOpen()) {
+                break;
+            }
 
-                Set<SelectionKey> selectionKeySet = selector.selectedKeys();
-                Iterator<SelectionKey> keysIterator = selectionKeySet.iterator();
+            resumeAccepting();
 
-                while (keysIterator.hasNext()) {
-                    SelectionKey selectionKey = keysIterator.next();
+            Set<SelectionKey> selectionKeySet = selector.selectedKeys();
+            Iterator<SelectionKey> keysIterator = selectionKeySet.iterator();
 
-                    if (!selectionKey.isValid()) {
-                        continue;
-                    }
+            while (keysIterator.hasNext()) {
+                SelectionKey selectionKey = keysIterator.next();
 
-                    try {
-                        if (selectionKey.isValid()) {
-                            if (selectionKey.isAcceptable()) {
-                                SocketChannel clientSocket = serverSocketChannel.accept();
-                                clientSocket.configureBlocking(false);
-                                clientHandler.acceptClient(clientSocket);
-                                clientSocket.register(selector, SelectionKey.OP_READ);
-
-                            } else if (selectionKey.isReadable()) {
-                                SocketChannel clientSocket = (SocketChannel) selectionKey.channel();
-                                clientSocket.configureBlocking(false);
-                                clientHandler.handleRead(clientSocket);
-                                selectionKey.interestOps(SelectionKey.OP_WRITE);
-
-                            } else if (selectionKey.isWritable()) {
-                                SocketChannel clientSocket = (SocketChannel) selectionKey.channel();
-                                clientHandler.handleWrite(clientSocket);
-                                selectionKey.interestOps(SelectionKey.OP_READ);
-                            }
-                        }
-                    } catch (IOException | IllegalStateException e) {
-                        selectionKey.channel().close();
-                        selectionKey.cancel();
-                    }
+                if (!selectionKey.isValid()) {
+                    continue;
+                }
 
-                    keysIterator.remove();
-                    clientHandler.cleanupConnections();
+                try {
+                    if (selectionKey.isAcceptable()) {
+                        acceptClient(selectionKey);
+                    }
+                } catch (ClosedChannelException e) {
+                    Logger.debug(e, "Server socket was closed");
+                    selectionKey.cancel();
                 }
+
+                keysIterator.remove();
             }
+        }
+    }
+
+    /**
+     * Accepts a client connection and hands it over to the next event loop, provided that the connection
+     * limiter grants a permit and the accept guard is not backing off. Otherwise the server socket is no
+     * longer selected for new connections until accepting is resumed.
+     *
+     * @param selectionKey the selection key of the server socket.
+     * @throws ClosedChannelException if the server socket is closed.
+     */
+    private void acceptClient(SelectionKey selectionKey) throws ClosedChannelException {
+
+        long nowNanos = System.nanoTime();
+
+        if (acceptGuard.isBackingOff(nowNanos)) {
+            selectionKey.interestOps(0);
+            return;
+        }
+
+        if (!connectionLimiter.tryAcquire()) {
+            Logger.debug("Pausing to accept client connections at {} open connections",
+                    connectionLimiter.getOpenConnections());
+            selectionKey.interestOps(0);
+            return;
+        }
+
+        SocketChannel clientSocket;
+
+        try {
+            clientSocket = acceptGuard.accept(serverSocketChannel, nowNanos);
+        } catch (ClosedChannelException e) {
+            connectionLimiter.release();
+            throw e;
+        }
+
+        if (clientSocket == null) {
+            connectionLimiter.release();
+
+            if (acceptGuard.isBackingOff(nowNanos)) {
+                selectionKey.interestOps(0);
+            }
+            return;
+        }
+
+        try {
+            clientSocket.configureBlocking(false);
         } catch (IOException e) {
-            Logger.error("Stopping server due to failure", e);
-        } finally {
-            stopServer();
+            Logger.warn(e, "Failed to accept client connection");
+            closeQuietly(clientSocket);
+            connectionLimiter.release();
+            return;
+        }
+
+        nextEventLoop().registerClient(clientSocket);
+    }
+
+    /**
+     * Selects the server socket for new client connections again once the connection limiter has resumed
+     * accepting and the accept guard has stopped backing off.
+     */
+    private void resumeAccepting() {
+        SelectionKey selectionKey = serverSocketChannel.keyFor(selector);
+
+        if (selectionKey != null && selectionKey.isValid() && selectionKey.interestOps() == 0
+                && !connectionLimiter.isPaused() && !acceptGuard.isBackingOff(System.nanoTime())) {
+            selectionKey.interestOps(SelectionKey.OP_ACCEPT);
+        }
+    }
+
+    private static void closeQuietly(SocketChannel clientSocket) {
+        try {
+            clientSocket.close();
+        } catch (IOException e) {
+            Logger.debug(e, "Failed to close client connection");
+        }
+    }
+
+    /**
+     * Runs the server with the {@link ServerEngine#THREAD_PER_CONNECTION} engine. The calling thread
+     * accepts client connections on the blocking server socket and serves each of them on a thread of
+     * its own until the server is stopped. While the connection limiter pauses accepting, the calling
+     * thread waits for connections to be closed, and while the accept guard backs off, it sleeps.
+     *
+     * @throws IOException if the server socket was closed for another reason than stopping the server.
+     */
+    private void runThreadPerConnection() throws IOException {
+        connectionExecutor = createConnectionExecutor();
+
+        try {
+            while (!isStopped()) {
+                if (!connectionLimiter.tryAcquire()) {
+                    connectionLimiter.awaitResume(ADMISSION_RETRY_INTERVAL);
+                    continue;
+                }
+
+                SocketChannel clientSocket;
+                try {
+                    clientSocket = acceptGuard.accept(serverSocketChannel, System.nanoTime());
+                } catch (ClosedChannelException e) {
+                    connectionLimiter.release();
+                    throw e;
+                }
+
+                if (clientSocket == null) {
+                    connectionLimiter.release();
+                    TimeUnit.MILLISECONDS.sleep(acceptGuard.millisUntilRetry(System.nanoTime()));
+                    continue;
+                }
+
+                connectionExecutor.execute(new BlockingClientTask(clientHandler, connectionLimiter, clientSocket));
+            }
+        } catch (AsynchronousCloseException e) {
+            // the server socket was closed by stopping the server
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Creates the executor running one task per client connection. Virtual threads are used if the
+     * Java runtime supports them, otherwise the executor falls back to a cached pool of platform threads.
+     *
+     * @return the executor for client connection tasks.
+     */
+    private static ExecutorService createConnectionExecutor() {
+        try {
+            Method executorFactory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            Logger.debug("Serving client connections on virtual threads");
+            return (ExecutorService) executorFactory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            Logger.warn("Virtual threads are not supported by this Java runtime - using platform threads");
+            return Executors.newCachedThreadPool(task -> {
+                Thread connectionThread = new Thread(task, "http-connection");
+                connectionThread.setDaemon(true);
+                return connectionThread;
+            });
+        }
+    }
+
+    /**
+     * Creates the configured number of event loops and starts each of them on a dedicated thread. If
+     * {@link AcceptMode#REUSE_PORT} is configured, every event loop is assigned its own server socket.
+     * If request handler threads are configured, the event loops share a bounded request executor.
+     *
+     * @throws IOException if the selector of an event loop cannot be opened.
+     */
+    private void startEventLoops() throws IOException {
+        eventLoops = new EventLoop[config.getWorkerThreads()];
+
+        if (config.getRequestHandlerThreads() > 0) {
+            requestExecutor = createRequestExecutor();
+        }
+
+        for (int i = 0; i < eventLoops.length; i++) {
+            eventLoops[i] = new EventLoop(clientHandler, requestExecutor, connectionLimiter, config);
+
+            if (acceptMode == AcceptMode.REUSE_PORT) {
+                eventLoops[i].listen(reusePortServerSocketChannels[i], reusePortAcceptGuards[i]);
+            }
+
+            EventLoop eventLoop = eventLoops[i];
+            Thread eventLoopThread = new Thread(() -> {
+                // event loop threads live as long as the server, so that their cached buffers are reused
+                bufferPool.enableThreadCache();
+                eventLoop.run();
+            }, "http-worker-" + i);
+            eventLoopThread.setDaemon(true);
+            eventLoopThread.start();
         }
+
+        Logger.debug("Started {} event loops", eventLoops.length);
+    }
+
+    /**
+     * Creates the executor that client requests are processed on by the event loops. The executor uses
+     * the configured number of threads and rejects requests once its bounded queue is full.
+     *
+     * @return the bounded executor for request processing.
+     */
+    private ExecutorService createRequestExecutor() {
+        AtomicInteger threadCount = new AtomicInteger();
+        return new ThreadPoolExecutor(config.getRequestHandlerThreads(), config.getRequestHandlerThreads(),
+                0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(config.getRequestQueueCapacity()), task -> {
+            Thread handlerThread = new Thread(task, "http-handler-" + threadCount.getAndIncrement());
+            handlerThread.setDaemon(true);
+            return handlerThread;
+        });
     }
 
     /**
-     * Stops the HTTP server, gracefully closing the TCP server socket and NIO selector.
+     * Selects the event loop that the next accepted client connection is handed over to.
+     *
+     * @return the next event loop in round-robin order.
      */
-    public void stopServer() {
+    private EventLoop nextEventLoop() {
+        EventLoop eventLoop = eventLoops[nextEventLoop];
+        nextEventLoop = (nextEventLoop + 1) % eventLoops.length;
+        return eventLoop;
+    }
+
+    /**
+     * Stops the HTTP server, gracefully closing the TCP server socket, the NIO selector and all
+     * event loops together with their client connections. Stopping a stopped server has no effect,
+     * so that the server may be stopped from another thread while {@link #startServer()} stops it
+     * on its own when its main loop terminates.
+     */
+    public synchronized void stopServer() {
+
+        if (serverState == ServerState.STOPPED) {
+            return;
+        }
+
         try {
-            serverSocketChannel.close();
+            if (serverSocketChannel != null) {
+                serverSocketChannel.close();
+            }
+
+            if (reusePortServerSocketChannels != null) {
+                for (ServerSocketChannel reusePortServerSocketChannel : reusePortServerSocketChannels) {
+                    reusePortServerSocketChannel.close();
+                }
+            }
+
             selector.close();
-            clientHandler.cleanupConnections();
+
+            if (connectionExecutor != null) {
+                // interrupting the connection threads closes their blocked client channels
+                connectionExecutor.shutdownNow();
+            }
+
+            if (requestExecutor != null) {
+                requestExecutor.shutdownNow();
+            }
+
+            if (eventLoops != null) {
+                for (EventLoop eventLoop : eventLoops) {
+                    if (eventLoop != null) {
+                        eventLoop.close();
+                    }
+                }
+            }
+            for (AcceptGuard guard : getAcceptGuards()) {
+                guard.close();
+            }
+            clientHandler.shutdown();
         } catch (IOException e) {
             Logger.error("Failed to stop the server", e);
         }
@@ -175,6 +528,17 @@ public class HttpServer {
         return serverState == ServerState.STOPPED;
     }
 
+    /**
+     * Indicates if the server is ready to serve requests, i.e. if it is running and has finished warming up
+     * the document root. Client connections that are established while the server is warming up are only
+     * served once warm-up is finished.
+     *
+     * @return a boolean indicating if the server is ready.
+     */
+    public boolean isReady() {
+        return ready && isRunning();
+    }
+
     /**
      * Indicates if the server is currently in a running state, i.e. if {@link #startServer()} was
      * called before and the server was not stopped since.
@@ -184,4 +548,72 @@ public class HttpServer {
     public boolean isRunning() {
         return serverState == ServerState.RUNNING;
     }
+
+    /**
+     * Returns the number of currently open client connections.
+     *
+     * @return the number of open connections.
+     */
+    public int getOpenConnections() {
+        return connectionLimiter.getOpenConnections();
+    }
+
+    /**
+     * Returns how often the server paused to accept client connections because the configured maximum number of
+     * connections was open.
+     *
+     * @return the number of paused accept periods.
+     */
+    public long getPausedAcceptPeriods() {
+        return connectionLimiter.getPausedPeriods();
+    }
+
+    /**
+     * Returns the health of the server sockets, which is the worst state of any of them. A server socket is
+     * degraded while the server backs off from accepting because it ran out of file descriptors or memory,
+     * and failed once it was closed, which is also the case after the server was stopped.
+     *
+     * @return the listener health.
+     */
+    public ListenerHealth getListenerHealth() {
+        ListenerHealth health = ListenerHealth.HEALTHY;
+        for (AcceptGuard guard : getAcceptGuards()) {
+            if (guard.getHealth().compareTo(health) > 0) {
+                health = guard.getHealth();
+            }
+        }
+        return health;
+    }
+
+    /**
+     * Returns the number of accepts of client connections that failed, e.g. because the process ran out of file
+     * descriptors or a client aborted its connection before it was accepted.
+     *
+     * @return the number of failed accepts.
+     */
+    public long getFailedAccepts() {
+        long failedAccepts = 0;
+        for (AcceptGuard guard : getAcceptGuards()) {
+            failedAccepts += guard.getFailedAccepts();
+        }
+        return failedAccepts;
+    }
+
+    /**
+     * Returns the number of client connections that were closed right after being accepted because the process
+     * ran out of file descriptors.
+     *
+     * @return the number of shed connections.
+     */
+    public long getShedConnections() {
+        long shedConnections = 0;
+        for (AcceptGuard guard : getAcceptGuards()) {
+            shedConnections += guard.getShedConnections();
+        }
+        return shedConnections;
+    }
+
+    private AcceptGuard[] getAcceptGuards() {
+        return reusePortAcceptGuards != null ? reusePortAcceptGuards : new AcceptGuard[]{acceptGuard};
+    }
 }
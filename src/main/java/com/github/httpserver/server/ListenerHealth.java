@@ -0,0 +1,20 @@
+package com.github.httpserver.server;
+
+/**
+ * ListenerHealth holds constants for the possible states of the server sockets of {@link HttpServer}.
+ */
+public enum ListenerHealth {
+    /**
+     * Healthy state meaning that client connections are accepted.
+     */
+    HEALTHY,
+    /**
+     * Degraded state meaning that accepting failed because the process or system ran out of file descriptors
+     * or memory, and that the server retries to accept after a backoff.
+     */
+    DEGRADED,
+    /**
+     * Failed state meaning that a server socket was closed and no longer accepts client connections.
+     */
+    FAILED
+}
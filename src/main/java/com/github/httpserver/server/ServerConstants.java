@@ -1,9 +1,14 @@
 package com.github.httpserver.server;
 
 import com.github.httpserver.Application;
+import com.github.httpserver.file.FileHasher;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 
@@ -21,6 +26,12 @@ public final class ServerConstants {
      * The supported HTTP version of the server.
      */
     public static final String SUPPORTED_HTTP_VERSION = "HTTP/1.1";
+    /**
+     * The previous HTTP version, which the server answers with responses of the supported version.
+     */
+    public static final String LEGACY_HTTP_VERSION = "HTTP/1.0";
+
+    private static final int HASHING_BUFFER_SIZE = 8192;
 
     private ServerConstants() {
     }
@@ -53,14 +64,33 @@ public final class ServerConstants {
 
         MessageDigest messageDigest = MessageDigest.getInstance(HASHING_ALGORITHM);
         messageDigest.update(body);
-        byte[] hash = messageDigest.digest();
+        return FileHasher.toHex(messageDigest.digest());
+    }
 
-        StringBuilder hexValue = new StringBuilder();
+    /**
+     * Calculates the hash of a file that is used as the value for the ETag header. The file is read in
+     * chunks of a fixed size, so that it is never loaded into memory as a whole.
+     *
+     * @param file the path of the file to be hashed.
+     * @return the hex representation of the hash value as string. This result can be directly
+     * used as the ETag value of the corresponding HTTP response.
+     * @throws IOException              if the file cannot be read.
+     * @throws NoSuchAlgorithmException if the configured algorithm {@link #HASHING_ALGORITHM} is
+     *                                  not defined.
+     */
+    public static String calculateETag(Path file) throws IOException, NoSuchAlgorithmException {
+
+        MessageDigest messageDigest = MessageDigest.getInstance(HASHING_ALGORITHM);
+        ByteBuffer buffer = ByteBuffer.allocate(HASHING_BUFFER_SIZE);
 
-        for (byte b : hash) {
-            hexValue.append(String.format("%02x", b));
+        try (FileChannel fileChannel = FileChannel.open(file, StandardOpenOption.READ)) {
+            while (fileChannel.read(buffer) >= 0) {
+                buffer.flip();
+                messageDigest.update(buffer);
+                buffer.clear();
+            }
         }
 
-        return hexValue.toString();
+        return FileHasher.toHex(messageDigest.digest());
     }
 }
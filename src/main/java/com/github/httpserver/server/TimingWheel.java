@@ -0,0 +1,170 @@
+package com.github.httpserver.server;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * TimingWheel schedules timeouts of client connections in a hashed timing wheel, so that scheduling,
+ * cancelling and expiring a timeout costs constant time regardless of the number of connections. The wheel
+ * consists of a ring of buckets, each covering one tick. A timeout is added to the bucket of the tick it
+ * expires in, together with the number of full rotations of the wheel that have to pass before it expires.
+ * Timeouts expire with a delay of at most one tick.
+ * <p>
+ * A timing wheel is not thread-safe. It is meant to be owned by a single event loop, which advances it after
+ * every selection.
+ *
+ * @param <T> the type of the objects whose timeouts are scheduled.
+ */
+final class TimingWheel<T> {
+
+    private final long tickNanos;
+    private final Timeout<T>[] buckets;
+    private final int mask;
+    private long currentTick;
+    private int size;
+
+    /**
+     * Constructs a new, empty timing wheel.
+     *
+     * @param tickMillis the duration of a tick in milliseconds, which is the resolution of the wheel.
+     * @param ticks      the number of buckets, which is rounded up to the next power of two.
+     * @param nowNanos   the current time in nanoseconds, as returned by {@link System#nanoTime()}.
+     */
+    @SuppressWarnings("unchecked")
+    TimingWheel(long tickMillis, int ticks, long nowNanos) {
+        int bucketCount = Integer.highestOneBit(Math.max(1, ticks - 1)) << 1;
+
+        this.tickNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, tickMillis));
+        this.buckets = new Timeout[bucketCount];
+        this.mask = bucketCount - 1;
+        this.currentTick = nowNanos / tickNanos;
+    }
+
+    /**
+     * Schedules a timeout. The returned handle has to be passed to {@link #cancel(Timeout)} if the timeout
+     * is no longer needed.
+     *
+     * @param target      the object that is passed to the expiry handler once the timeout expires.
+     * @param delayMillis the time in milliseconds after which the timeout expires.
+     * @param nowNanos    the current time in nanoseconds, as returned by {@link System#nanoTime()}.
+     * @return the handle of the scheduled timeout.
+     */
+    Timeout<T> schedule(T target, long delayMillis, long nowNanos) {
+
+        long deadlineTick = (nowNanos + TimeUnit.MILLISECONDS.toNanos(delayMillis) + tickNanos - 1) / tickNanos;
+        long ticks = Math.max(deadlineTick, currentTick + 1) - currentTick;
+
+        Timeout<T> timeout = new Timeout<>(target, (ticks - 1) / buckets.length);
+        int bucket = (int) ((currentTick + ticks) & mask);
+
+        timeout.next = buckets[bucket];
+        if (timeout.next != null) {
+            timeout.next.previous = timeout;
+        }
+        buckets[bucket] = timeout;
+        timeout.bucket = bucket;
+        size++;
+
+        return timeout;
+    }
+
+    /**
+     * Cancels a scheduled timeout. Cancelling a timeout that has expired or was cancelled before has no effect.
+     *
+     * @param timeout the handle of the timeout, or null.
+     */
+    void cancel(Timeout<T> timeout) {
+
+        if (timeout == null || timeout.bucket < 0) {
+            return;
+        }
+
+        if (timeout.previous != null) {
+            timeout.previous.next = timeout.next;
+        } else {
+            buckets[timeout.bucket] = timeout.next;
+        }
+
+        if (timeout.next != null) {
+            timeout.next.previous = timeout.previous;
+        }
+
+        timeout.previous = null;
+        timeout.next = null;
+        timeout.bucket = -1;
+        size--;
+    }
+
+    /**
+     * Advances the wheel to the current time and passes the targets of all expired timeouts to the given
+     * handler. The handler may schedule timeouts and cancel the timeout that just expired, but no others.
+     *
+     * @param nowNanos the current time in nanoseconds, as returned by {@link System#nanoTime()}.
+     * @param handler  the handler of expired timeouts.
+     */
+    void advance(long nowNanos, Consumer<T> handler) {
+
+        long nowTick = nowNanos / tickNanos;
+
+        while (currentTick < nowTick && size > 0) {
+            currentTick++;
+            int bucket = (int) (currentTick & mask);
+            Timeout<T> timeout = buckets[bucket];
+
+            while (timeout != null) {
+                Timeout<T> next = timeout.next;
+
+                if (timeout.remainingRounds > 0) {
+                    timeout.remainingRounds--;
+                } else {
+                    cancel(timeout);
+                    handler.accept(timeout.target);
+                }
+
+                timeout = next;
+            }
+        }
+
+        currentTick = Math.max(currentTick, nowTick);
+    }
+
+    /**
+     * Returns the time in milliseconds until the next tick, which is the longest time the owner of the wheel
+     * may wait before advancing it again.
+     *
+     * @param nowNanos the current time in nanoseconds, as returned by {@link System#nanoTime()}.
+     * @return the time until the next tick in milliseconds, at least one.
+     */
+    long millisUntilNextTick(long nowNanos) {
+        long nanos = (currentTick + 1) * tickNanos - nowNanos;
+        return Math.max(1, TimeUnit.NANOSECONDS.toMillis(nanos));
+    }
+
+    /**
+     * Returns the number of scheduled timeouts.
+     *
+     * @return the number of timeouts.
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * The handle of a scheduled timeout, linked into the bucket of the tick it expires in.
+     *
+     * @param <T> the type of the object whose timeout is scheduled.
+     */
+    static final class Timeout<T> {
+
+        private final T target;
+        private long remainingRounds;
+        private int bucket;
+        private Timeout<T> previous;
+        private Timeout<T> next;
+
+        private Timeout(T target, long remainingRounds) {
+            this.target = target;
+            this.remainingRounds = remainingRounds;
+        }
+    }
+}
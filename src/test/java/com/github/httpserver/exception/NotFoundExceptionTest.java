@@ -23,4 +23,19 @@ class NotFoundExceptionTest {
                 () -> assertTrue(new String(response.getBody()).contains(exception.getMessage()))
         );
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldCreateHttpResponseWithPrebuiltBodyWhenMessageIsMissing() {
+
+        NotFoundException exception = new NotFoundException();
+
+        HttpResponse response = exception.toHttpResponse();
+
+        assertAll(
+                () -> assertEquals(0, exception.getStackTrace().length),
+                () -> assertEquals(HttpStatus.HTTP_NOT_FOUND, response.getStatus()),
+                () -> assertEquals("<h1>" + HttpStatus.HTTP_NOT_FOUND + "</h1>", new String(response.getBody()).trim()),
+                () -> assertSame(response.getBody(), exception.toHttpResponse().getBody())
+        );
+    }
+}
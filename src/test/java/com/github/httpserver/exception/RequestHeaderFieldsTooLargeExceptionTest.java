@@ -0,0 +1,26 @@
+package com.github.httpserver.exception;
+
+import com.github.httpserver.protocol.HttpResponse;
+import com.github.httpserver.protocol.HttpStatus;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestHeaderFieldsTooLargeExceptionTest {
+
+    @Test
+    void shouldCorrectlyCreateHttpResponse() {
+
+        RequestHeaderFieldsTooLargeException exception = new RequestHeaderFieldsTooLargeException(8192);
+
+        HttpResponse response = exception.toHttpResponse();
+
+        assertAll(
+                () -> assertEquals(HttpStatus.HTTP_REQUEST_HEADER_FIELDS_TOO_LARGE, exception.getHttpStatus()),
+                () -> assertTrue(exception.getMessage().contains("8192")),
+                () -> assertEquals(HttpStatus.HTTP_REQUEST_HEADER_FIELDS_TOO_LARGE, response.getStatus()),
+                () -> assertTrue(new String(response.getBody())
+                        .contains(HttpStatus.HTTP_REQUEST_HEADER_FIELDS_TOO_LARGE.toString()))
+        );
+    }
+}
@@ -0,0 +1,172 @@
+package com.github.httpserver.file;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DocumentRootIndexTest {
+
+    @TempDir
+    Path documentRoot;
+
+    private DocumentRootIndex index;
+    private Set<Path> changedFiles;
+
+    @BeforeEach
+    void setUp() {
+        index = new DocumentRootIndex(documentRoot);
+        changedFiles = ConcurrentHashMap.newKeySet();
+        index.addListener(changedFiles::add);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        index.close();
+    }
+
+    @Test
+    void shouldReadAttributesFromFileSystemWhenNotStarted() throws IOException {
+
+        Path file = createFile("a.html", "<h1>a</h1>");
+
+        assertAll(
+                () -> assertFalse(index.isLive()),
+                () -> assertEquals(10, index.readAttributes(file).size()),
+                () -> assertThrows(NoSuchFileException.class, () -> index.readAttributes(documentRoot.resolve("b")))
+        );
+    }
+
+    @Test
+    void shouldIndexExistingFilesWhenStarted() throws IOException {
+
+        Path file = createFile("css/a.css", "body {}");
+
+        index.start();
+
+        assertAll(
+                () -> assertTrue(index.isLive()),
+                () -> assertEquals(3, index.size()),
+                () -> assertEquals(7, index.readAttributes(file).size()),
+                () -> assertTrue(index.readAttributes(file.getParent()).isDirectory()),
+                () -> assertThrows(NoSuchFileException.class, () -> index.readAttributes(documentRoot.resolve("b")))
+        );
+    }
+
+    @Test
+    @Timeout(value = 10)
+    void shouldIndexCreatedFilesAndDirectories() throws IOException, InterruptedException {
+
+        index.start();
+
+        Path file = createFile("a.html", "<h1>a</h1>");
+        Path nestedFile = createFile("css/fonts/b.txt", "b");
+
+        awaitUntil(() -> changedFiles.contains(file) && changedFiles.contains(nestedFile));
+
+        assertAll(
+                () -> assertEquals(10, index.readAttributes(file).size()),
+                () -> assertEquals(1, index.readAttributes(nestedFile).size())
+        );
+    }
+
+    @Test
+    @Timeout(value = 10)
+    void shouldUpdateAttributesOfModifiedFiles() throws IOException, InterruptedException {
+
+        Path file = createFile("a.html", "<h1>a</h1>");
+        index.start();
+
+        Files.write(file, "<h1>changed</h1>".getBytes());
+        Files.setLastModifiedTime(file, FileTime.from(Instant.now().plusSeconds(10)));
+
+        awaitUntil(() -> changedFiles.contains(file) && sizeOf(file) == 16);
+
+        assertEquals(16, index.readAttributes(file).size());
+    }
+
+    @Test
+    @Timeout(value = 10)
+    void shouldRemoveDeletedDirectoriesTogetherWithTheirFiles() throws IOException, InterruptedException {
+
+        Path file = createFile("css/a.css", "body {}");
+        index.start();
+
+        Files.delete(file);
+        Files.delete(file.getParent());
+
+        awaitUntil(() -> changedFiles.contains(file) && changedFiles.contains(file.getParent()));
+
+        assertAll(
+                () -> assertThrows(NoSuchFileException.class, () -> index.readAttributes(file)),
+                () -> assertThrows(NoSuchFileException.class, () -> index.readAttributes(file.getParent())),
+                () -> assertEquals(1, index.size())
+        );
+    }
+
+    @Test
+    @Timeout(value = 10)
+    void shouldIndexAndWatchFilesBelowSymbolicLinkToDirectory() throws IOException, InterruptedException {
+
+        Path target = createFile("shared/assets/a.css", "body {}").getParent();
+        Path link = Files.createSymbolicLink(documentRoot.resolve("assets"), target);
+        Files.createSymbolicLink(target.resolve("loop"), target);
+
+        index.start();
+
+        assertAll(
+                () -> assertTrue(index.readAttributes(link).isDirectory()),
+                () -> assertEquals(7, index.readAttributes(link.resolve("a.css")).size())
+        );
+
+        Files.write(target.resolve("b.css"), "b".getBytes());
+
+        awaitUntil(() -> sizeOf(link.resolve("b.css")) == 1 && sizeOf(target.resolve("b.css")) == 1);
+    }
+
+    @Test
+    void shouldReadAttributesOfSymbolicLinkToFileFromFileSystem() throws IOException {
+
+        Path target = createFile("shared/a.html", "<h1>a</h1>");
+        Path link = Files.createSymbolicLink(documentRoot.resolve("a.html"), target);
+
+        index.start();
+        Files.write(target, "<h1>changed</h1>".getBytes());
+
+        assertEquals(16, index.readAttributes(link).size());
+    }
+
+    private long sizeOf(Path file) {
+        try {
+            return index.readAttributes(file).size();
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    private Path createFile(String name, String contents) throws IOException {
+        Path file = documentRoot.resolve(name);
+        Files.createDirectories(file.getParent());
+        return Files.write(file, contents.getBytes());
+    }
+
+    private static void awaitUntil(BooleanSupplier condition) throws InterruptedException {
+        while (!condition.getAsBoolean()) {
+            TimeUnit.MILLISECONDS.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.github.httpserver.file;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DocumentRootWarmerTest {
+
+    @TempDir
+    Path documentRoot;
+
+    @Test
+    void shouldIndexETagsOfAllFilesInSubdirectories() throws IOException {
+
+        Path a = createFile("a.html", "<h1>a</h1>");
+        Path b = createFile("css/b.css", "body {}");
+        Path c = createFile("css/fonts/c.txt", "c");
+        ETagIndex eTagIndex = new ETagIndex();
+        StaticContentCache cache = new StaticContentCache(1024, 1024, eTagIndex);
+
+        int indexedFiles = new DocumentRootWarmer(documentRoot, Set.of(), 0, eTagIndex, cache).warmUp();
+
+        assertAll(
+                () -> assertEquals(3, indexedFiles),
+                () -> assertEquals(3, eTagIndex.size()),
+                () -> assertNotNull(eTagIndex.get(a, attributes(a))),
+                () -> assertNotNull(eTagIndex.get(b, attributes(b))),
+                () -> assertNotNull(eTagIndex.get(c, attributes(c))),
+                () -> assertEquals(0, cache.getUsedBytes())
+        );
+    }
+
+    @Test
+    void shouldPreloadSmallAndPinnedFiles() throws IOException {
+
+        Path small = createFile("small.html", "small");
+        Path large = createFile("large.html", "large contents");
+        Path pinned = createFile("pinned.html", "pinned contents");
+        ETagIndex eTagIndex = new ETagIndex();
+        StaticContentCache cache = new StaticContentCache(1024, 1024, eTagIndex);
+
+        new DocumentRootWarmer(documentRoot, Set.of(pinned), 10, eTagIndex, cache).warmUp();
+
+        assertAll(
+                () -> assertNotNull(cache.get(small, attributes(small))),
+                () -> assertNull(cache.get(large, attributes(large))),
+                () -> assertNotNull(cache.get(pinned, attributes(pinned))),
+                () -> assertEquals("small".length() + "pinned contents".length(), cache.getUsedBytes()),
+                () -> assertEquals(3, eTagIndex.size())
+        );
+    }
+
+    @Test
+    void shouldPreloadPinnedFileLargerThanMaxFileSizeOfCache() throws IOException {
+
+        Path pinned = createFile("pinned.html", "pinned contents");
+        Path large = createFile("large.html", "large contents");
+        ETagIndex eTagIndex = new ETagIndex();
+        StaticContentCache cache = new StaticContentCache(1024, 10, eTagIndex);
+
+        new DocumentRootWarmer(documentRoot, Set.of(pinned), 1024, eTagIndex, cache).warmUp();
+
+        assertAll(
+                () -> assertNotNull(cache.get(pinned, attributes(pinned))),
+                () -> assertNull(cache.get(large, attributes(large))),
+                () -> assertEquals("pinned contents".length(), cache.getUsedBytes())
+        );
+    }
+
+    @Test
+    void shouldSkipWarmUpWhenDocumentRootIsMissing() {
+
+        ETagIndex eTagIndex = new ETagIndex();
+        StaticContentCache cache = new StaticContentCache(1024, 1024, eTagIndex);
+
+        int indexedFiles = new DocumentRootWarmer(documentRoot.resolve("missing"), Set.of(), 0, eTagIndex, cache)
+                .warmUp();
+
+        assertEquals(0, indexedFiles);
+    }
+
+    private Path createFile(String name, String contents) throws IOException {
+        Path file = documentRoot.resolve(name);
+        Files.createDirectories(file.getParent());
+        return Files.write(file, contents.getBytes());
+    }
+
+    private static BasicFileAttributes attributes(Path file) throws IOException {
+        return Files.readAttributes(file, BasicFileAttributes.class);
+    }
+}
@@ -0,0 +1,124 @@
+package com.github.httpserver.file;
+
+import com.github.httpserver.configuration.ETagStrategy;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class ETagIndexTest {
+
+    private final static String MD5_HASH_FILE1 = "0AC8992824ABEB4A7062AE4A99FA0905".toLowerCase();
+    private final Path resourcePath = Path.of("src/test/resources");
+
+    @Test
+    void shouldReturnIndexedETagWhenFileUnchanged() throws IOException {
+
+        ETagIndex index = new ETagIndex();
+        Path testFile = resourcePath.resolve("file1.html");
+
+        String first = index.getETag(testFile);
+        String second = index.getETag(testFile);
+
+        assertAll(
+                () -> assertEquals(MD5_HASH_FILE1, first),
+                () -> assertSame(first, second),
+                () -> assertEquals(1, index.size())
+        );
+    }
+
+    @Test
+    void shouldRecalculateETagWhenFileModified() throws IOException {
+
+        Path testFile = Files.createTempFile("etag-index", ".html");
+
+        try {
+            Files.write(testFile, "<h1>a</h1>".getBytes());
+            ETagIndex index = new ETagIndex();
+            String first = index.getETag(testFile);
+
+            Files.write(testFile, "<h1>b</h1>".getBytes());
+            Files.setLastModifiedTime(testFile, FileTime.from(Instant.now().plusSeconds(10)));
+            String second = index.getETag(testFile);
+
+            assertNotEquals(first, second);
+        } finally {
+            Files.delete(testFile);
+        }
+    }
+
+    @Test
+    void shouldReturnPutETagUntilRemoved() throws IOException {
+
+        ETagIndex index = new ETagIndex();
+        Path testFile = resourcePath.resolve("file1.html");
+        BasicFileAttributes attributes = Files.readAttributes(testFile, BasicFileAttributes.class);
+
+        index.put(testFile, attributes, "abc");
+
+        assertEquals("abc", index.get(testFile, attributes));
+
+        index.remove(testFile);
+
+        assertNull(index.get(testFile, attributes));
+    }
+
+    @Test
+    void shouldBuildWeakETagFromAttributesWhenMetadataStrategy() throws IOException {
+
+        ETagIndex index = new ETagIndex(ETagStrategy.METADATA);
+        Path testFile = resourcePath.resolve("file1.html");
+        BasicFileAttributes attributes = Files.readAttributes(testFile, BasicFileAttributes.class);
+
+        String eTag = index.getETag(testFile);
+
+        assertAll(
+                () -> assertTrue(eTag.startsWith("W/\"" + Long.toHexString(attributes.size()) + "-"
+                        + Long.toHexString(attributes.lastModifiedTime().toMillis()))),
+                () -> assertTrue(eTag.endsWith("\"")),
+                () -> assertTrue(EntityTag.parse(eTag).isWeak())
+        );
+    }
+
+    @Test
+    void shouldEncodeFileKeyInWeakETagWhenMetadataStrategy() throws IOException {
+
+        ETagIndex index = new ETagIndex(ETagStrategy.METADATA);
+        Path testFile = resourcePath.resolve("file1.html");
+        Object fileKey = Files.readAttributes(testFile, BasicFileAttributes.class).fileKey();
+        assumeTrue(fileKey != null);
+
+        String opaqueTag = EntityTag.parse(index.getETag(testFile)).getOpaqueTag();
+        String encodedFileKey = opaqueTag.substring(opaqueTag.lastIndexOf('-') + 1);
+
+        assertAll(
+                () -> assertTrue(encodedFileKey.matches("[0-9A-Za-z]+(\\.[0-9A-Za-z]+)*")),
+                () -> assertEquals(fileKey.toString().replaceAll("[^0-9A-Za-z]+", ""),
+                        encodedFileKey.replace(".", ""))
+        );
+    }
+
+    @Test
+    void shouldCalculateSameFastHashFromFileAndContents() throws IOException {
+
+        ETagIndex fileIndex = new ETagIndex(ETagStrategy.FAST_HASH);
+        ETagIndex contentIndex = new ETagIndex(ETagStrategy.FAST_HASH);
+        Path testFile = resourcePath.resolve("file1.html");
+        BasicFileAttributes attributes = Files.readAttributes(testFile, BasicFileAttributes.class);
+
+        String fromFile = fileIndex.getETag(testFile);
+        String fromContents = contentIndex.getETag(testFile, attributes, Files.readAllBytes(testFile));
+
+        assertAll(
+                () -> assertEquals(fromFile, fromContents),
+                () -> assertNotEquals(MD5_HASH_FILE1, fromFile)
+        );
+    }
+}
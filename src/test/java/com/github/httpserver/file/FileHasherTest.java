@@ -0,0 +1,55 @@
+package com.github.httpserver.file;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FileHasherTest {
+
+    @ParameterizedTest
+    @CsvSource({
+            "'', ef46db3751d8e999",
+            "a, d24ec4f1a98c6e5b",
+            "abc, 44bc2cf5ad770999",
+            "Nobody inspects the spammish repetition, fbcea83c8a378bf1"
+    })
+    void shouldCalculateXxHash64WhenContentsFitIntoSingleChunk(String contents, String expectedHash) {
+        assertEquals(expectedHash, FileHasher.toHex(FileHasher.hash(contents.getBytes())));
+    }
+
+    @Test
+    void shouldCalculateSameHashFromFileAndContentsWhenSpanningMultipleChunks() throws IOException {
+
+        byte[] contents = new byte[FileHasher.CHUNK_SIZE * 2 + 12345];
+        new Random(42).nextBytes(contents);
+        Path file = Files.createTempFile("file-hasher", ".bin");
+
+        try {
+            Files.write(file, contents);
+
+            long hash = FileHasher.hash(contents);
+
+            assertAll(
+                    () -> assertEquals(hash, FileHasher.hash(file)),
+                    () -> assertNotEquals(FileHasher.xxHash64(contents, 0, contents.length, 0), hash)
+            );
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    void shouldEncodeBytesAsLowercaseHex() {
+        assertAll(
+                () -> assertEquals("00ff7f80", FileHasher.toHex(new byte[]{0x00, (byte) 0xff, 0x7f, (byte) 0x80})),
+                () -> assertEquals("000000000000abcd", FileHasher.toHex(0xabcdL))
+        );
+    }
+}
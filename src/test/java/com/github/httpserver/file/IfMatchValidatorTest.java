@@ -1,5 +1,6 @@
 package com.github.httpserver.file;
 
+import com.github.httpserver.configuration.ETagStrategy;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
@@ -86,4 +87,13 @@ class IfMatchValidatorTest {
             fail(e);
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldNotMatchIfFileETagWeak() throws IOException {
+        Path testFile = resourcePath.resolve("file1.html");
+        ETagIndex eTagIndex = new ETagIndex(ETagStrategy.METADATA);
+        IfMatchValidator validator = new IfMatchValidator(eTagIndex.getETag(testFile), eTagIndex);
+
+        assertFalse(validator.isValidFile(testFile));
+    }
+}
@@ -6,8 +6,13 @@ import org.junit.jupiter.params.provider.ValueSource;
 
 import java.io.IOException;
 import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 class IfModifiedSinceValidatorTest {
 
@@ -54,4 +59,20 @@ class IfModifiedSinceValidatorTest {
             fail(e);
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldCompareLastModifiedDateInWholeSeconds() {
+
+        FileTime lastModified = FileTime.from(Instant.parse("2021-05-23T20:00:00.500Z"));
+        BasicFileAttributes attributes = mock(BasicFileAttributes.class);
+        when(attributes.lastModifiedTime()).thenReturn(lastModified);
+
+        assertAll(
+                () -> assertFalse(new IfModifiedSinceValidator("Sun, 23 May 2021 20:00:00 GMT")
+                        .isValidFile(resourcePath, attributes)),
+                () -> assertTrue(new IfModifiedSinceValidator("Sun, 23 May 2021 19:59:59 GMT")
+                        .isValidFile(resourcePath, attributes)),
+                () -> assertTrue(new IfModifiedSinceValidator("not a date").isValidFile(resourcePath, attributes))
+        );
+    }
+}
@@ -1,5 +1,6 @@
 package com.github.httpserver.file;
 
+import com.github.httpserver.configuration.ETagStrategy;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
@@ -73,4 +74,14 @@ class IfNoneMatchValidatorTest {
             fail(e);
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldNotMatchIfWeakFileETagInCriterion() throws IOException {
+        Path testFile = resourcePath.resolve("file1.html");
+        ETagIndex eTagIndex = new ETagIndex(ETagStrategy.METADATA);
+        IfNoneMatchValidator validator = new IfNoneMatchValidator("\"a\", " + eTagIndex.getETag(testFile),
+                eTagIndex);
+
+        assertFalse(validator.isValidFile(testFile));
+    }
+}
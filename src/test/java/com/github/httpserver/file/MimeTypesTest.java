@@ -0,0 +1,48 @@
+package com.github.httpserver.file;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.nio.file.Paths;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MimeTypesTest {
+
+    @ParameterizedTest
+    @CsvSource({
+            "index.html, text/html",
+            "INDEX.HTM, text/html",
+            "css/app.css, text/css",
+            "js/app.min.js, text/javascript",
+            "img/logo.svg, image/svg+xml",
+            "fonts/font.woff2, font/woff2",
+            "module.wasm, application/wasm"
+    })
+    void shouldLookUpContentTypeByExtension(String file, String contentType) {
+        assertEquals(contentType, MimeTypes.DEFAULT.getContentType(Paths.get("www", file)));
+    }
+
+    @Test
+    void shouldPreferConfiguredMappings() {
+
+        MimeTypes mimeTypes = new MimeTypes(Map.of("HTML", "text/html; charset=utf-8", ".gmi", "text/gemini"));
+
+        assertAll(
+                () -> assertEquals("text/html; charset=utf-8", mimeTypes.getContentType(Paths.get("index.html"))),
+                () -> assertEquals("text/gemini", mimeTypes.getContentType(Paths.get("page.gmi"))),
+                () -> assertEquals("text/css", mimeTypes.getContentType(Paths.get("app.css")))
+        );
+    }
+
+    @Test
+    void shouldNeverReturnNullForUnknownExtensions() {
+        assertAll(
+                () -> assertNotNull(MimeTypes.DEFAULT.getContentType(Paths.get("README"))),
+                () -> assertNotNull(MimeTypes.DEFAULT.getContentType(Paths.get(".hidden"))),
+                () -> assertNotNull(MimeTypes.DEFAULT.getContentType(Paths.get("data.unknownextension")))
+        );
+    }
+}
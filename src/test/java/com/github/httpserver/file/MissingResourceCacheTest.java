@@ -0,0 +1,125 @@
+package com.github.httpserver.file;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MissingResourceCacheTest {
+
+    private final Path documentRoot = Paths.get(".", "www");
+    private final AtomicLong clock = new AtomicLong();
+
+    @Test
+    void shouldRememberMissingResourceUntilExpired() {
+
+        MissingResourceCache cache = new MissingResourceCache(documentRoot, "index.html", 1000, 10, clock::get);
+
+        cache.markMissing("/missing.html");
+
+        assertTrue(cache.isMissing("/missing.html"));
+        assertFalse(cache.isMissing("/other.html"));
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+
+        assertAll(
+                () -> assertFalse(cache.isMissing("/missing.html")),
+                () -> assertEquals(0, cache.size())
+        );
+    }
+
+    @Test
+    void shouldExpireMissingResourceThatIsRequestedRepeatedly() {
+
+        MissingResourceCache cache = new MissingResourceCache(documentRoot, "index.html", 1000, 10, clock::get);
+
+        cache.markMissing("/missing.html");
+
+        for (int i = 0; i < 9; i++) {
+            clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(100));
+            assertTrue(cache.isMissing("/missing.html"));
+            cache.markMissing("/missing.html");
+        }
+
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(100));
+
+        assertFalse(cache.isMissing("/missing.html"));
+    }
+
+    @Test
+    void shouldNotRememberMissingResourcesWhenDisabled() {
+
+        MissingResourceCache cache = new MissingResourceCache(documentRoot, "index.html", 0, 10, clock::get);
+
+        cache.markMissing("/missing.html");
+
+        assertFalse(cache.isMissing("/missing.html"));
+    }
+
+    @Test
+    void shouldEvictEntryWhenFull() {
+
+        MissingResourceCache cache = new MissingResourceCache(documentRoot, "index.html", 1000, 2, clock::get);
+
+        cache.markMissing("/a.html");
+        cache.markMissing("/b.html");
+        cache.markMissing("/c.html");
+
+        assertAll(
+                () -> assertEquals(2, cache.size()),
+                () -> assertTrue(cache.isMissing("/c.html"))
+        );
+    }
+
+    @Test
+    void shouldRejectUntrackedFilesWhenExistingFilesAreTracked() {
+
+        MissingResourceCache cache = new MissingResourceCache(documentRoot, "index.html", 0, 10, clock::get);
+
+        cache.trackExistingFiles(List.of(documentRoot.resolve("index.html"), documentRoot.resolve("css"),
+                documentRoot.resolve("css/app.css")));
+
+        assertAll(
+                () -> assertFalse(cache.isMissing("/")),
+                () -> assertFalse(cache.isMissing("/index.html")),
+                () -> assertFalse(cache.isMissing("/css/app.css")),
+                () -> assertTrue(cache.isMissing("/wp-login.php")),
+                () -> assertTrue(cache.isMissing("/css/missing.css"))
+        );
+    }
+
+    @Test
+    void shouldInvalidateMissingResourceWhenFileIsCreated() {
+
+        MissingResourceCache cache = new MissingResourceCache(documentRoot, "index.html", 1000, 10, clock::get);
+        cache.trackExistingFiles(List.of());
+        cache.markMissing("/new.html");
+
+        assertTrue(cache.isMissing("/new.html"));
+
+        cache.fileChanged(documentRoot.resolve("new.html"));
+
+        assertAll(
+                () -> assertFalse(cache.isMissing("/new.html")),
+                () -> assertEquals(0, cache.size())
+        );
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"/css//app.css", "/css/../missing.html", "/./missing.html", "/css/", "/a\\b"})
+    void shouldNeverReportNonCanonicalPathsMissing(String requestPath) {
+
+        MissingResourceCache cache = new MissingResourceCache(documentRoot, "index.html", 1000, 10, clock::get);
+        cache.trackExistingFiles(List.of());
+        cache.markMissing(requestPath);
+
+        assertFalse(cache.isMissing(requestPath));
+    }
+}
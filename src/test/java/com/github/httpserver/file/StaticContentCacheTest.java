@@ -0,0 +1,165 @@
+package com.github.httpserver.file;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StaticContentCacheTest {
+
+    private Path directory;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        directory = Files.createTempDirectory("content-cache");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        try (var files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    @Test
+    void shouldReturnCachedContentWhenFileUnchanged() throws IOException {
+
+        Path file = createFile("a.html", "<h1>a</h1>");
+        StaticContentCache cache = new StaticContentCache(1024, 1024, new ETagIndex());
+
+        StaticContent first = cache.getOrLoad(fileInfo(file), attributes(file));
+        StaticContent second = cache.getOrLoad(fileInfo(file), attributes(file));
+
+        assertAll(
+                () -> assertArrayEquals("<h1>a</h1>".getBytes(), first.getBody()),
+                () -> assertNotNull(first.getETag()),
+                () -> assertSame(first, second),
+                () -> assertEquals(10, cache.getUsedBytes())
+        );
+    }
+
+    @Test
+    void shouldReloadContentWhenFileModified() throws IOException {
+
+        Path file = createFile("a.html", "<h1>a</h1>");
+        StaticContentCache cache = new StaticContentCache(1024, 1024, new ETagIndex());
+
+        StaticContent first = cache.getOrLoad(fileInfo(file), attributes(file));
+
+        Files.write(file, "<h1>changed</h1>".getBytes());
+        Files.setLastModifiedTime(file, FileTime.from(Instant.now().plusSeconds(10)));
+
+        StaticContent second = cache.getOrLoad(fileInfo(file), attributes(file));
+
+        assertAll(
+                () -> assertNotSame(first, second),
+                () -> assertArrayEquals("<h1>changed</h1>".getBytes(), second.getBody()),
+                () -> assertEquals(16, cache.getUsedBytes())
+        );
+    }
+
+    @Test
+    void shouldNotCacheOrIndexContentWhenFileChangedWhileRead() throws IOException {
+
+        Path file = createFile("a.html", "<h1>a</h1>");
+        ETagIndex eTagIndex = new ETagIndex();
+        StaticContentCache cache = new StaticContentCache(1024, 1024, eTagIndex);
+        BasicFileAttributes previousAttributes = attributes(file);
+
+        Files.write(file, "<h1>changed</h1>".getBytes());
+
+        assertAll(
+                () -> assertNull(cache.getOrLoad(fileInfo(file), previousAttributes)),
+                () -> assertEquals(0, cache.getUsedBytes()),
+                () -> assertEquals(0, eTagIndex.size())
+        );
+    }
+
+    @Test
+    void shouldEvictLeastRecentlyUsedContentWhenCapacityExceeded() throws IOException {
+
+        Path a = createFile("a.html", "aaaaaaaaaa");
+        Path b = createFile("b.html", "bbbbbbbbbb");
+        Path c = createFile("c.html", "cccccccccc");
+        StaticContentCache cache = new StaticContentCache(20, 20, new ETagIndex());
+
+        cache.getOrLoad(fileInfo(a), attributes(a));
+        cache.getOrLoad(fileInfo(b), attributes(b));
+        // touch a, so that b becomes the least recently used entry
+        cache.getOrLoad(fileInfo(a), attributes(a));
+        cache.getOrLoad(fileInfo(c), attributes(c));
+
+        assertAll(
+                () -> assertNotNull(cache.get(a, attributes(a))),
+                () -> assertNull(cache.get(b, attributes(b))),
+                () -> assertNotNull(cache.get(c, attributes(c))),
+                () -> assertEquals(20, cache.getUsedBytes())
+        );
+    }
+
+    @Test
+    void shouldNotCacheFileWhenLargerThanMaxFileSize() throws IOException {
+
+        Path file = createFile("large.html", "0123456789");
+        StaticContentCache cache = new StaticContentCache(1024, 5, new ETagIndex());
+
+        assertAll(
+                () -> assertNull(cache.getOrLoad(fileInfo(file), attributes(file))),
+                () -> assertEquals(0, cache.getUsedBytes())
+        );
+    }
+
+    @Test
+    void shouldPreloadAndServeFileLargerThanMaxFileSize() throws IOException {
+
+        Path file = createFile("large.html", "0123456789");
+        StaticContentCache cache = new StaticContentCache(1024, 5, new ETagIndex());
+
+        StaticContent preloaded = cache.preload(fileInfo(file), attributes(file));
+        StaticContentCache smallCache = new StaticContentCache(8, 5, new ETagIndex());
+
+        assertAll(
+                () -> assertNotNull(preloaded),
+                () -> assertSame(preloaded, cache.getOrLoad(fileInfo(file), attributes(file))),
+                () -> assertEquals(10, cache.getUsedBytes()),
+                () -> assertNull(smallCache.preload(fileInfo(file), attributes(file)))
+        );
+    }
+
+    @Test
+    void shouldNotCacheEmptyFileWhenCapacityIsZero() throws IOException {
+
+        Path file = createFile("empty.html", "");
+        ETagIndex eTagIndex = new ETagIndex();
+        StaticContentCache cache = new StaticContentCache(0, 1024, eTagIndex);
+
+        assertNull(cache.getOrLoad(fileInfo(file), attributes(file)));
+        assertAll(
+                () -> assertNull(cache.get(file, attributes(file))),
+                () -> assertEquals(0, eTagIndex.size())
+        );
+    }
+
+    private Path createFile(String name, String contents) throws IOException {
+        return Files.write(directory.resolve(name), contents.getBytes());
+    }
+
+    private static FileInfo fileInfo(Path file) {
+        return new FileInfo(true, true, "text/html", "Wed, 21 Oct 2015 07:28:00 GMT", file);
+    }
+
+    private static BasicFileAttributes attributes(Path file) throws IOException {
+        return Files.readAttributes(file, BasicFileAttributes.class);
+    }
+}
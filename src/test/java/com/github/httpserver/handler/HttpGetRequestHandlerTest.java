@@ -18,6 +18,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.HashMap;
 
@@ -47,7 +48,7 @@ class HttpGetRequestHandlerTest {
         FileInfoRetriever fileRetrieverMock = mock(FileInfoRetriever.class);
 
         try {
-            when(fileRetrieverMock.retrieveFileInfo(any())).thenReturn(testFileInfo);
+            when(fileRetrieverMock.retrieveFileInfo(any(), any())).thenReturn(testFileInfo);
         } catch (IOException e) {
             fail(e);
         }
@@ -59,7 +60,10 @@ class HttpGetRequestHandlerTest {
 
             assertAll(
                     () -> assertEquals(HttpStatus.HTTP_OK, response.getStatus()),
-                    () -> assertArrayEquals("<h1>This is a test file</h1>".getBytes(), response.getBody()),
+                    () -> assertArrayEquals("<h1>This is a test file</h1>".getBytes(),
+                            Files.readAllBytes(response.getBodyFile())),
+                    () -> assertEquals(String.valueOf(response.getBodyFileSize()),
+                            response.getHeaders().get("Content-Length")),
                     () -> assertEquals("application/html", response.getHeaders().get("Content-Type")),
                     () -> assertTrue(response.getHeaders().containsKey("ETag")),
                     () -> assertEquals("Wed, 21 Oct 2015 07:28:00 GMT", response.getHeaders()
@@ -93,7 +97,7 @@ class HttpGetRequestHandlerTest {
         FileInfoRetriever fileRetrieverMock = mock(FileInfoRetriever.class);
 
         try {
-            when(fileRetrieverMock.retrieveFileInfo(any())).thenReturn(testFileInfo);
+            when(fileRetrieverMock.retrieveFileInfo(any(), any())).thenReturn(testFileInfo);
         } catch (IOException e) {
             fail(e);
         }
@@ -114,7 +118,7 @@ class HttpGetRequestHandlerTest {
         FileInfoRetriever fileRetrieverMock = mock(FileInfoRetriever.class);
 
         try {
-            when(fileRetrieverMock.retrieveFileInfo(any())).thenReturn(testFileInfo);
+            when(fileRetrieverMock.retrieveFileInfo(any(), any())).thenReturn(testFileInfo);
         } catch (IOException e) {
             fail(e);
         }
@@ -142,7 +146,10 @@ class HttpGetRequestHandlerTest {
 
             assertAll(
                     () -> assertEquals(HttpStatus.HTTP_OK, response.getStatus()),
-                    () -> assertArrayEquals("<h1>This is a test file</h1>".getBytes(), response.getBody()),
+                    () -> assertArrayEquals("<h1>This is a test file</h1>".getBytes(),
+                            Files.readAllBytes(response.getBodyFile())),
+                    () -> assertEquals(String.valueOf(response.getBodyFileSize()),
+                            response.getHeaders().get("Content-Length")),
                     () -> assertEquals("text/html", response.getHeaders().get("Content-Type"))
             );
         } catch (HttpException e) {
@@ -4,9 +4,11 @@ import com.github.httpserver.configuration.Configuration;
 import com.github.httpserver.exception.HttpException;
 import com.github.httpserver.exception.NotFoundException;
 import com.github.httpserver.exception.PreconditionFailedException;
+import com.github.httpserver.file.ETagIndex;
 import com.github.httpserver.file.FileInfo;
 import com.github.httpserver.file.FileInfoRetriever;
 import com.github.httpserver.file.HttpFileInfoRetriever;
+import com.github.httpserver.file.StaticContentCache;
 import com.github.httpserver.protocol.HttpMethod;
 import com.github.httpserver.protocol.HttpRequest;
 import com.github.httpserver.protocol.HttpResponse;
@@ -47,7 +49,7 @@ class HttpHeadRequestHandlerTest {
         FileInfoRetriever fileRetrieverMock = mock(FileInfoRetriever.class);
 
         try {
-            when(fileRetrieverMock.retrieveFileInfo(any())).thenReturn(testFileInfo);
+            when(fileRetrieverMock.retrieveFileInfo(any(), any())).thenReturn(testFileInfo);
         } catch (IOException e) {
             fail(e);
         }
@@ -69,6 +71,30 @@ class HttpHeadRequestHandlerTest {
         }
     }
 
+    @Test
+    void shouldNotLoadFileIntoContentCache() throws IOException, HttpException {
+
+        HttpRequest testRequest = new HttpRequest(HttpMethod.HEAD, ServerConstants.SUPPORTED_HTTP_VERSION, "/",
+                new HashMap<>());
+        FileInfo testFileInfo = new FileInfo(true, true, "application/html",
+                "Wed, 21 Oct 2015 07:28:00 GMT", resourcePath.resolve("file1.html"));
+        FileInfoRetriever fileRetrieverMock = mock(FileInfoRetriever.class);
+        when(fileRetrieverMock.retrieveFileInfo(any(), any())).thenReturn(testFileInfo);
+
+        ETagIndex eTagIndex = new ETagIndex();
+        StaticContentCache contentCache = new StaticContentCache(1024, 1024, eTagIndex);
+        HttpHeadRequestHandler requestHandler = new HttpHeadRequestHandler(testConfiguration, contentCache, eTagIndex);
+
+        HttpResponse response = requestHandler.handleRequest(testRequest, fileRetrieverMock);
+
+        assertAll(
+                () -> assertEquals(HttpStatus.HTTP_OK, response.getStatus()),
+                () -> assertTrue(response.getHeaders().containsKey("ETag")),
+                () -> assertEquals("28", response.getHeaders().get("Content-Length")),
+                () -> assertEquals(0, contentCache.getUsedBytes())
+        );
+    }
+
     @Test
     void shouldThrowExceptionIfFileMissing() {
 
@@ -92,7 +118,7 @@ class HttpHeadRequestHandlerTest {
         FileInfoRetriever fileRetrieverMock = mock(FileInfoRetriever.class);
 
         try {
-            when(fileRetrieverMock.retrieveFileInfo(any())).thenReturn(testFileInfo);
+            when(fileRetrieverMock.retrieveFileInfo(any(), any())).thenReturn(testFileInfo);
         } catch (IOException e) {
             fail(e);
         }
@@ -113,7 +139,7 @@ class HttpHeadRequestHandlerTest {
         FileInfoRetriever fileRetrieverMock = mock(FileInfoRetriever.class);
 
         try {
-            when(fileRetrieverMock.retrieveFileInfo(any())).thenReturn(testFileInfo);
+            when(fileRetrieverMock.retrieveFileInfo(any(), any())).thenReturn(testFileInfo);
         } catch (IOException e) {
             fail(e);
         }
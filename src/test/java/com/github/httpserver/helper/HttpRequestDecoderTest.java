@@ -0,0 +1,82 @@
+package com.github.httpserver.helper;
+
+import com.github.httpserver.exception.BadRequestException;
+import com.github.httpserver.exception.HttpException;
+import com.github.httpserver.exception.RequestHeaderFieldsTooLargeException;
+import com.github.httpserver.protocol.HttpMethod;
+import com.github.httpserver.protocol.HttpRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HttpRequestDecoderTest {
+
+    private HttpRequestDecoder decoder;
+
+    @BeforeEach
+    void setUp() {
+        decoder = new HttpRequestDecoder(new HttpRequestParser(), 256);
+    }
+
+    @Test
+    void shouldDecodeRequestWhenReceivedInOneRead() throws HttpException {
+        decoder.append(toBuffer("GET /test.html HTTP/1.1\r\nConnection: keep-alive\r\n\r\n"));
+
+        HttpRequest request = decoder.decode();
+
+        assertAll(
+                () -> assertEquals(HttpMethod.GET, request.getMethod()),
+                () -> assertEquals("/test.html", request.getPath()),
+                () -> assertEquals("keep-alive", request.getHeaders().get("Connection")),
+                () -> assertFalse(decoder.hasBufferedData())
+        );
+    }
+
+    @Test
+    void shouldRequestMoreDataUntilHeaderSectionIsComplete() throws HttpException {
+        String rawRequest = "HEAD /app.json HTTP/1.1\r\nAccept: application/json\r\n\r\n";
+
+        for (int i = 0; i < rawRequest.length() - 1; i++) {
+            decoder.append(toBuffer(rawRequest.substring(i, i + 1)));
+            assertNull(decoder.decode());
+        }
+
+        decoder.append(toBuffer(rawRequest.substring(rawRequest.length() - 1)));
+        HttpRequest request = decoder.decode();
+
+        assertAll(
+                () -> assertEquals(HttpMethod.HEAD, request.getMethod()),
+                () -> assertEquals("/app.json", request.getPath()),
+                () -> assertEquals("application/json", request.getHeaders().get("Accept"))
+        );
+    }
+
+    @Test
+    void shouldSkipRequestBodyAccordingToContentLength() throws HttpException {
+        decoder.append(toBuffer("GET /first HTTP/1.1\r\nContent-Length: 10\r\n\r\n01234"));
+        assertEquals("/first", decoder.decode().getPath());
+
+        decoder.append(toBuffer("56789GET /second HTTP/1.1\r\n\r\n"));
+        assertEquals("/second", decoder.decode().getPath());
+    }
+
+    @Test
+    void shouldThrowExceptionWhenHeaderSectionExceedsLimit() {
+        decoder.append(toBuffer("GET / HTTP/1.1\r\nCookie: " + "a".repeat(300)));
+        assertThrows(RequestHeaderFieldsTooLargeException.class, () -> decoder.decode());
+        assertFalse(decoder.hasBufferedData());
+    }
+
+    @Test
+    void shouldThrowExceptionWhenContentLengthInvalid() {
+        decoder.append(toBuffer("GET / HTTP/1.1\r\nContent-Length: abc\r\n\r\n"));
+        assertThrows(BadRequestException.class, () -> decoder.decode());
+    }
+
+    private ByteBuffer toBuffer(String text) {
+        return ByteBuffer.wrap(text.getBytes());
+    }
+}
@@ -9,6 +9,9 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
 
+import java.util.Arrays;
+import java.util.Map;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class HttpRequestParserTest {
@@ -75,6 +78,62 @@ class HttpRequestParserTest {
         }
     }
 
+    @Test
+    void shouldStoreKnownHeaderKeysUnderCanonicalNameWhenCaseDiffers() {
+        String requestLine = "GET / HTTP/1.1";
+        byte[] rawRequest = createRawRequest(requestLine, "if-none-match: \"abc\"", "x-custom:\tvalue ");
+
+        try {
+            HttpRequest request = parser.parseRequest(rawRequest);
+            Assertions.assertAll(
+                    () -> assertEquals("\"abc\"", request.getHeaders().get("If-None-Match")),
+                    () -> assertEquals("value", request.getHeaders().get("x-custom"))
+            );
+        } catch (HttpException e) {
+            fail(e);
+        }
+    }
+
+    @Test
+    void shouldDecodeHeaderValuesIndependentlyOfInputArray() throws HttpException {
+        byte[] rawRequest = createRawRequest("GET / HTTP/1.1", "Connection: keep-alive", "X-Custom: first",
+                "x-custom: lower", "X-Custom: second");
+
+        HttpRequest request = parser.parseRequest(rawRequest);
+        Arrays.fill(rawRequest, (byte) 'x');
+
+        Assertions.assertAll(
+                () -> assertEquals("keep-alive", request.getHeaders().get("Connection")),
+                () -> assertEquals("second", request.getHeaders().get("X-Custom")),
+                () -> assertEquals("lower", request.getHeaders().get("x-custom")),
+                () -> assertTrue(request.getHeaders().containsKey("X-Custom")),
+                () -> assertFalse(request.getHeaders().containsKey("Accept")),
+                () -> assertEquals(Map.of("Connection", "keep-alive", "X-Custom", "second", "x-custom", "lower"),
+                        request.getHeaders())
+        );
+    }
+
+    @Test
+    void shouldParseRequestWhenLinesEndWithLineFeedOnly() {
+        byte[] rawRequest = "GET /index.html HTTP/1.1\nConnection: close\n\n".getBytes();
+
+        try {
+            HttpRequest request = parser.parseRequest(rawRequest);
+            Assertions.assertAll(
+                    () -> assertEquals("/index.html", request.getPath()),
+                    () -> assertEquals("close", request.getHeaders().get("Connection"))
+            );
+        } catch (HttpException e) {
+            fail(e);
+        }
+    }
+
+    @Test
+    void shouldThrowExceptionWhenHeaderSectionNotTerminated() {
+        byte[] rawRequest = "GET / HTTP/1.1\r\nConnection: close\r\n".getBytes();
+        assertThrows(BadRequestException.class, () -> parser.parseRequest(rawRequest));
+    }
+
     @ParameterizedTest
     @ValueSource(strings = {
             "HEAD / HTTP/1.1 Other",
@@ -0,0 +1,38 @@
+package com.github.httpserver.protocol;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HttpDateTest {
+
+    @Test
+    void shouldFormatFileTimeAsFixedLengthDateTruncatingFractions() {
+
+        FileTime fileTime = FileTime.from(Instant.parse("2015-10-01T07:28:00.750Z"));
+
+        assertEquals("Thu, 01 Oct 2015 07:28:00 GMT", HttpDate.format(fileTime));
+    }
+
+    @Test
+    void shouldParseDateIntoEpochSeconds() {
+        assertAll(
+                () -> assertEquals(784111777, HttpDate.parseEpochSecond("Sun, 06 Nov 1994 08:49:37 GMT")),
+                () -> assertEquals(784111777, HttpDate.parseEpochSecond("Sun, 06 Nov 1994 08:49:37 GMT")),
+                () -> assertThrows(DateTimeParseException.class, () -> HttpDate.parseEpochSecond("yesterday"))
+        );
+    }
+
+    @Test
+    void shouldFormatCurrentDate() {
+
+        long before = Instant.now().getEpochSecond();
+        long now = HttpDate.parseEpochSecond(HttpDate.now());
+
+        assertTrue(now >= before && now <= Instant.now().getEpochSecond());
+    }
+}
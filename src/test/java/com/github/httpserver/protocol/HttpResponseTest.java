@@ -0,0 +1,50 @@
+package com.github.httpserver.protocol;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HttpResponseTest {
+
+    @Test
+    void shouldSplitHeaderAndBodyWhenConvertedToByteBuffers() {
+
+        byte[] body = "<h1>Title</h1>".getBytes();
+        Map<String, String> headers = new LinkedHashMap<>();
+        headers.put("Content-Length", String.valueOf(body.length));
+        HttpResponse response = new HttpResponse("HTTP/1.1", HttpStatus.HTTP_OK, headers, body);
+
+        ByteBuffer[] buffers = response.toByteBuffers();
+
+        assertAll(
+                () -> assertEquals(2, buffers.length),
+                () -> assertEquals("HTTP/1.1 200 OK\r\nContent-Length: 14\r\n\r\n", toString(buffers[0])),
+                () -> assertSame(body, buffers[1].array()),
+                () -> assertEquals(toString(response.toByteBuffer()), toString(buffers[0]) + toString(buffers[1]))
+        );
+    }
+
+    @Test
+    void shouldReturnOnlyHeaderWhenConvertedToByteBuffersWithoutBody() {
+
+        HttpResponse response = new HttpResponse("HTTP/1.1", HttpStatus.HTTP_NOT_MODIFIED, new LinkedHashMap<>(),
+                null);
+
+        ByteBuffer[] buffers = response.toByteBuffers();
+
+        assertAll(
+                () -> assertEquals(1, buffers.length),
+                () -> assertEquals("HTTP/1.1 304 Not Modified\r\n\r\n", toString(buffers[0]))
+        );
+    }
+
+    private static String toString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.duplicate().get(bytes);
+        return new String(bytes);
+    }
+}
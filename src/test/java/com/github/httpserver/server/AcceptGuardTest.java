@@ -0,0 +1,115 @@
+package com.github.httpserver.server;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.SocketException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class AcceptGuardTest {
+
+    private final AcceptGuard acceptGuard = new AcceptGuard();
+    private final ServerSocketChannel serverSocketChannel = mock(ServerSocketChannel.class);
+
+    @AfterEach
+    void tearDown() {
+        acceptGuard.close();
+    }
+
+    @Test
+    void shouldBackOffAndShedConnectionWhenFileDescriptorsAreExhausted() throws IOException {
+
+        SocketChannel client = mock(SocketChannel.class);
+        when(serverSocketChannel.accept())
+                .thenThrow(new IOException("Too many open files"))
+                .thenReturn(null)
+                .thenReturn(client);
+
+        assertNull(acceptGuard.accept(serverSocketChannel, 0));
+        assertAll(
+                () -> assertEquals(ListenerHealth.DEGRADED, acceptGuard.getHealth()),
+                () -> assertEquals(1, acceptGuard.getFailedAccepts()),
+                () -> assertTrue(acceptGuard.isBackingOff(0)),
+                () -> assertTrue(acceptGuard.millisUntilRetry(0) > 0),
+                () -> assertNull(acceptGuard.accept(serverSocketChannel, 0))
+        );
+        verify(serverSocketChannel, times(2)).accept();
+
+        long retryNanos = TimeUnit.MILLISECONDS.toNanos(acceptGuard.millisUntilRetry(0));
+
+        assertSame(client, acceptGuard.accept(serverSocketChannel, retryNanos));
+        assertAll(
+                () -> assertEquals(ListenerHealth.HEALTHY, acceptGuard.getHealth()),
+                () -> assertFalse(acceptGuard.isBackingOff(retryNanos))
+        );
+    }
+
+    @Test
+    void shouldDoubleBackoffWhileResourcesStayExhausted() throws IOException {
+
+        when(serverSocketChannel.accept()).thenThrow(new IOException("Too many open files in system"));
+
+        acceptGuard.accept(serverSocketChannel, 0);
+        long firstBackoff = acceptGuard.millisUntilRetry(0);
+
+        long retryNanos = TimeUnit.MILLISECONDS.toNanos(firstBackoff);
+        acceptGuard.accept(serverSocketChannel, retryNanos);
+
+        assertEquals(2 * firstBackoff, acceptGuard.millisUntilRetry(retryNanos));
+    }
+
+    @Test
+    void shouldKeepAcceptingAfterClientAbortedConnection() throws IOException {
+
+        when(serverSocketChannel.accept()).thenThrow(new SocketException("Connection aborted"));
+
+        assertNull(acceptGuard.accept(serverSocketChannel, 0));
+        assertAll(
+                () -> assertEquals(ListenerHealth.HEALTHY, acceptGuard.getHealth()),
+                () -> assertFalse(acceptGuard.isBackingOff(0)),
+                () -> assertEquals(1, acceptGuard.getFailedAccepts())
+        );
+    }
+
+    @Test
+    void shouldReportFailedListenerIfServerSocketIsClosed() throws IOException {
+
+        when(serverSocketChannel.accept()).thenThrow(new ClosedChannelException());
+
+        assertThrows(ClosedChannelException.class, () -> acceptGuard.accept(serverSocketChannel, 0));
+        assertEquals(ListenerHealth.FAILED, acceptGuard.getHealth());
+    }
+
+    @Test
+    void shouldNotShedConnectionsOnceClosed() throws IOException {
+
+        when(serverSocketChannel.accept()).thenThrow(new IOException("Too many open files"));
+
+        acceptGuard.close();
+        acceptGuard.close();
+
+        assertNull(acceptGuard.accept(serverSocketChannel, 0));
+        assertAll(
+                () -> assertEquals(ListenerHealth.DEGRADED, acceptGuard.getHealth()),
+                () -> assertEquals(0, acceptGuard.getShedConnections())
+        );
+        verify(serverSocketChannel, times(1)).accept();
+    }
+
+    @Test
+    void shouldClassifyResourceExhaustion() {
+        assertAll(
+                () -> assertTrue(AcceptGuard.isResourceExhaustion(new IOException("Too many open files"))),
+                () -> assertTrue(AcceptGuard.isResourceExhaustion(new IOException("No buffer space available"))),
+                () -> assertFalse(AcceptGuard.isResourceExhaustion(new IOException("Connection reset by peer"))),
+                () -> assertFalse(AcceptGuard.isResourceExhaustion(new IOException()))
+        );
+    }
+}
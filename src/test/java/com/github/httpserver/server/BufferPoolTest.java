@@ -0,0 +1,109 @@
+package com.github.httpserver.server;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BufferPoolTest {
+
+    private final BufferPool bufferPool = new BufferPool(true);
+
+    @Test
+    void shouldRoundCapacityUpToSizeClass() {
+
+        ByteBuffer small = bufferPool.acquire(100);
+        ByteBuffer medium = bufferPool.acquire(4097);
+
+        assertAll(
+                () -> assertTrue(small.isDirect()),
+                () -> assertEquals(BufferPool.MIN_BUFFER_SIZE, small.capacity()),
+                () -> assertEquals(100, small.limit()),
+                () -> assertEquals(8192, medium.capacity()),
+                () -> assertEquals(4097, medium.remaining())
+        );
+
+        bufferPool.release(small);
+        bufferPool.release(medium);
+    }
+
+    @Test
+    void shouldRecycleReleasedBuffers() {
+
+        ByteBuffer buffer = bufferPool.acquire(4096);
+        buffer.put((byte) 1);
+        bufferPool.release(buffer);
+
+        ByteBuffer recycled = bufferPool.acquire(3000);
+
+        assertAll(
+                () -> assertSame(buffer, recycled),
+                () -> assertEquals(0, recycled.position()),
+                () -> assertEquals(3000, recycled.limit())
+        );
+
+        bufferPool.release(recycled);
+        assertEquals(0, bufferPool.reportLeaks());
+    }
+
+    @Test
+    void shouldRecycleBuffersReleasedByShortLivedThreads() throws InterruptedException {
+
+        Set<ByteBuffer> buffers = Collections.synchronizedSet(Collections.newSetFromMap(new IdentityHashMap<>()));
+
+        for (int i = 0; i < 100; i++) {
+            Thread connectionThread = new Thread(() -> {
+                ByteBuffer buffer = bufferPool.acquire(4096);
+                buffers.add(buffer);
+                bufferPool.release(buffer);
+            });
+            connectionThread.start();
+            connectionThread.join();
+        }
+
+        assertAll(
+                () -> assertEquals(1, buffers.size()),
+                () -> assertEquals(0, bufferPool.reportLeaks())
+        );
+    }
+
+    @Test
+    void shouldRecycleBuffersFromThreadCache() {
+
+        bufferPool.enableThreadCache();
+
+        ByteBuffer buffer = bufferPool.acquire(4096);
+        bufferPool.release(buffer);
+
+        assertSame(buffer, bufferPool.acquire(4096));
+    }
+
+    @Test
+    void shouldNotPoolBuffersExceedingLargestSizeClass() {
+
+        ByteBuffer buffer = bufferPool.acquire(BufferPool.MAX_BUFFER_SIZE + 1);
+        bufferPool.release(buffer);
+
+        assertNotSame(buffer, bufferPool.acquire(BufferPool.MAX_BUFFER_SIZE + 1));
+    }
+
+    @Test
+    void shouldTrackOutstandingBuffers() {
+
+        ByteBuffer buffer = bufferPool.acquire(1024);
+
+        assertEquals(1, bufferPool.reportLeaks());
+
+        bufferPool.release(buffer);
+
+        assertAll(
+                () -> assertEquals(0, bufferPool.getOutstandingBuffers()),
+                () -> assertThrows(IllegalStateException.class, () -> bufferPool.release(buffer)),
+                () -> assertThrows(IllegalStateException.class, () -> bufferPool.release(ByteBuffer.allocate(16)))
+        );
+    }
+}
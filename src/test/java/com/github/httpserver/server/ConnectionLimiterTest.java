@@ -0,0 +1,76 @@
+package com.github.httpserver.server;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConnectionLimiterTest {
+
+    @Test
+    void shouldPauseAtMaximumAndResumeAtLowWatermark() {
+
+        ConnectionLimiter connectionLimiter = new ConnectionLimiter(20);
+        AtomicInteger resumptions = new AtomicInteger();
+        connectionLimiter.addResumeListener(resumptions::incrementAndGet);
+
+        for (int i = 0; i < 20; i++) {
+            assertTrue(connectionLimiter.tryAcquire());
+        }
+
+        assertAll(
+                () -> assertFalse(connectionLimiter.tryAcquire()),
+                () -> assertTrue(connectionLimiter.isPaused()),
+                () -> assertEquals(1, connectionLimiter.getPausedPeriods())
+        );
+
+        connectionLimiter.release();
+        assertAll(
+                () -> assertTrue(connectionLimiter.isPaused()),
+                () -> assertFalse(connectionLimiter.tryAcquire())
+        );
+
+        connectionLimiter.release();
+        assertAll(
+                () -> assertFalse(connectionLimiter.isPaused()),
+                () -> assertEquals(1, resumptions.get()),
+                () -> assertEquals(18, connectionLimiter.getOpenConnections()),
+                () -> assertTrue(connectionLimiter.tryAcquire())
+        );
+    }
+
+    @Test
+    void shouldCountEveryPausedPeriodOnce() {
+
+        ConnectionLimiter connectionLimiter = new ConnectionLimiter(1);
+
+        for (int i = 0; i < 3; i++) {
+            assertTrue(connectionLimiter.tryAcquire());
+            assertFalse(connectionLimiter.tryAcquire());
+            assertFalse(connectionLimiter.tryAcquire());
+            connectionLimiter.release();
+        }
+
+        assertAll(
+                () -> assertEquals(3, connectionLimiter.getPausedPeriods()),
+                () -> assertEquals(0, connectionLimiter.getOpenConnections())
+        );
+    }
+
+    @Test
+    void shouldNotLimitConnectionsIfMaximumIsZero() {
+
+        ConnectionLimiter connectionLimiter = new ConnectionLimiter(0);
+
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(connectionLimiter.tryAcquire());
+        }
+
+        assertAll(
+                () -> assertFalse(connectionLimiter.isPaused()),
+                () -> assertEquals(0, connectionLimiter.getPausedPeriods()),
+                () -> assertEquals(1000, connectionLimiter.getOpenConnections())
+        );
+    }
+}
@@ -9,13 +9,17 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import java.io.IOException;
 import java.lang.reflect.Field;
 import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
 import java.net.URI;
 import java.net.URL;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
 
-import static org.junit.jupiter.api.Assertions.fail;
+import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.verify;
@@ -106,4 +110,42 @@ class HttpClientHandlerTest {
         httpServer.stopServer();
     }
 
-}
\ No newline at end of file
+    @Test
+    void shouldKeepStateOfConnectionsSeparate() throws IOException {
+
+        Configuration testConfiguration = new Configuration(8081, "src/test/resources", "file1.html");
+        HttpClientHandler clientHandler = new HttpClientHandler(testConfiguration);
+
+        try (ServerSocketChannel serverSocket = ServerSocketChannel.open().bind(new InetSocketAddress(0));
+             SocketChannel first = SocketChannel.open(serverSocket.getLocalAddress());
+             SocketChannel second = SocketChannel.open(serverSocket.getLocalAddress())) {
+
+            HttpConnection firstConnection = clientHandler.acceptClient(serverSocket.accept());
+            HttpConnection secondConnection = clientHandler.acceptClient(serverSocket.accept());
+
+            first.write(ByteBuffer.wrap("GET /file1.html HTTP/1.1\r\nHost: a\r\n".getBytes()));
+            second.write(ByteBuffer.wrap("GET /missing.html HTTP/1.1\r\nHost: b\r\n\r\n".getBytes()));
+
+            assertFalse(clientHandler.handleRead(firstConnection));
+            assertTrue(clientHandler.handleRead(secondConnection));
+            assertTrue(clientHandler.handleWrite(secondConnection));
+
+            ByteBuffer response = ByteBuffer.allocate(1024);
+            second.read(response);
+
+            assertAll(
+                    () -> assertTrue(new String(response.array()).startsWith("HTTP/1.1 404")),
+                    () -> assertTrue(firstConnection.getPendingExchanges().isEmpty()),
+                    () -> assertTrue(firstConnection.getRequestDecoder().hasBufferedData())
+            );
+
+            clientHandler.closeClient(firstConnection);
+            clientHandler.closeClient(secondConnection);
+
+            assertAll(
+                    () -> assertFalse(firstConnection.getChannel().isOpen()),
+                    () -> assertEquals(0, clientHandler.getBufferPool().getOutstandingBuffers())
+            );
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.github.httpserver.server;
+
+import com.github.httpserver.helper.HttpRequestDecoder;
+import com.github.httpserver.helper.HttpRequestParser;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HttpConnectionTest {
+
+    private final BufferPool bufferPool = new BufferPool(true);
+
+    @Test
+    void shouldKeepOutboundDataPendingWhenClientAcceptsPartialWrites() throws IOException {
+
+        HttpConnection connection = newConnection();
+        connection.enqueue(ByteBuffer.wrap("HTTP/1.1 200 OK\r\n\r\n".getBytes()));
+        connection.enqueue(ByteBuffer.wrap("<h1>body</h1>".getBytes()));
+
+        ThrottledChannel channel = new ThrottledChannel(8);
+
+        int flushes = 1;
+        while (!connection.flush(channel)) {
+            assertTrue(connection.hasPendingWrites());
+            channel.allowBytes(8);
+            flushes++;
+        }
+
+        assertAll(
+                () -> assertFalse(connection.hasPendingWrites()),
+                () -> assertEquals("HTTP/1.1 200 OK\r\n\r\n<h1>body</h1>", channel.getWritten())
+        );
+        assertTrue(flushes > 1);
+    }
+
+    @Test
+    void shouldStopWritingWhenClientAcceptsNoData() throws IOException {
+
+        HttpConnection connection = newConnection();
+        connection.enqueue(ByteBuffer.wrap("response".getBytes()));
+
+        ThrottledChannel channel = new ThrottledChannel(0);
+
+        assertAll(
+                () -> assertFalse(connection.flush(channel)),
+                () -> assertTrue(connection.hasPendingWrites()),
+                () -> assertEquals("", channel.getWritten())
+        );
+    }
+
+    @Test
+    void shouldTransferFileRegionAfterHeadersWhenClientAcceptsPartialWrites() throws IOException {
+
+        Path file = Files.createTempFile("http-connection", ".html");
+        Files.write(file, "<h1>This is a file body</h1>".getBytes());
+
+        try {
+            HttpConnection connection = newConnection();
+            connection.enqueue(ByteBuffer.wrap("HTTP/1.1 200 OK\r\n\r\n".getBytes()));
+            connection.enqueue(new FileRegion(file, Files.size(file)));
+            connection.enqueue(ByteBuffer.wrap("HTTP/1.1 304 Not Modified\r\n\r\n".getBytes()));
+
+            ThrottledChannel channel = new ThrottledChannel(8);
+
+            while (!connection.flush(channel)) {
+                assertTrue(connection.hasPendingWrites());
+                channel.allowBytes(8);
+            }
+
+            assertEquals("HTTP/1.1 200 OK\r\n\r\n<h1>This is a file body</h1>HTTP/1.1 304 Not Modified\r\n\r\n",
+                    channel.getWritten());
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    void shouldReleasePooledBuffersWhenWrittenOrClosed() throws IOException {
+
+        HttpConnection connection = newConnection();
+        connection.enqueuePooled(pooledBuffer("HTTP/1.1 200 OK\r\n\r\n"));
+        connection.enqueuePooled(pooledBuffer("HTTP/1.1 304 Not Modified\r\n\r\n"));
+
+        ThrottledChannel channel = new ThrottledChannel(24);
+
+        assertFalse(connection.flush(channel));
+        assertEquals(1, bufferPool.getOutstandingBuffers());
+
+        connection.close();
+
+        assertEquals(0, bufferPool.reportLeaks());
+    }
+
+    private HttpConnection newConnection() {
+        return new HttpConnection(null, new HttpRequestDecoder(new HttpRequestParser(), 8192), bufferPool);
+    }
+
+    private ByteBuffer pooledBuffer(String content) {
+        ByteBuffer buffer = bufferPool.acquire(content.length());
+        buffer.put(content.getBytes()).flip();
+        return buffer;
+    }
+
+    /**
+     * Channel that accepts only a limited number of bytes, similar to a socket with a full send buffer.
+     */
+    private static class ThrottledChannel implements WritableByteChannel {
+
+        private final ByteArrayOutputStream written = new ByteArrayOutputStream();
+        private int allowedBytes;
+
+        ThrottledChannel(int allowedBytes) {
+            this.allowedBytes = allowedBytes;
+        }
+
+        void allowBytes(int bytes) {
+            allowedBytes += bytes;
+        }
+
+        String getWritten() {
+            return written.toString();
+        }
+
+        @Override
+        public int write(ByteBuffer src) {
+            int count = Math.min(allowedBytes, src.remaining());
+            for (int i = 0; i < count; i++) {
+                written.write(src.get());
+            }
+            allowedBytes -= count;
+            return count;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return true;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -1,16 +1,24 @@
 package com.github.httpserver.server;
 
+import com.github.httpserver.configuration.AcceptMode;
 import com.github.httpserver.configuration.Configuration;
+import com.github.httpserver.configuration.ConfigurationBuilder;
+import com.github.httpserver.configuration.ServerEngine;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.Timeout;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.net.Socket;
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -58,6 +66,407 @@ class HttpServerTest {
         }
     }
 
+    @Test
+    @Timeout(value = 5)
+    void shouldAcceptClientConnectionsWhenListenerSocketsShareThePort() throws IOException, InterruptedException {
+
+        Configuration reusePortConfiguration = new ConfigurationBuilder()
+                .setPort(8082)
+                .setSourcePath("src/test/resources")
+                .setRootResource("file1.html")
+                .setWorkerThreads(2)
+                .setAcceptMode(AcceptMode.REUSE_PORT)
+                .build();
+        HttpServer reusePortServer = new HttpServer(reusePortConfiguration);
+        new Thread(reusePortServer::startServer).start();
+
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create("http://localhost:8082/"))
+                .build();
+
+        try {
+            while (!reusePortServer.isReady()) {
+                TimeUnit.MILLISECONDS.sleep(10);
+            }
+
+            for (int i = 0; i < 4; i++) {
+                HttpResponse<String> response = HttpClient.newHttpClient()
+                        .send(request, HttpResponse.BodyHandlers.ofString());
+
+                assertAll(
+                        () -> assertEquals(200, response.statusCode()),
+                        () -> assertEquals("<h1>This is a test file</h1>", response.body())
+                );
+            }
+        } finally {
+            reusePortServer.stopServer();
+        }
+    }
+
+    @Test
+    @Timeout(value = 5)
+    void shouldAcceptReadAndWriteClientConnectionWithThreadPerConnectionEngine() throws IOException,
+            InterruptedException {
+
+        Configuration threadPerConnectionConfiguration = new ConfigurationBuilder()
+                .setPort(8083)
+                .setSourcePath("src/test/resources")
+                .setRootResource("file1.html")
+                .setEngine(ServerEngine.THREAD_PER_CONNECTION)
+                .build();
+        HttpServer threadPerConnectionServer = new HttpServer(threadPerConnectionConfiguration);
+        new Thread(threadPerConnectionServer::startServer).start();
+
+        HttpClient client = HttpClient.newHttpClient();
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create("http://localhost:8083/"))
+                .build();
+
+        try {
+            while (!threadPerConnectionServer.isReady()) {
+                TimeUnit.MILLISECONDS.sleep(10);
+            }
+
+            for (int i = 0; i < 4; i++) {
+                HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+
+                assertAll(
+                        () -> assertEquals(200, response.statusCode()),
+                        () -> assertEquals("<h1>This is a test file</h1>", response.body()),
+                        () -> assertTrue(response.headers().firstValue("ETag").isPresent())
+                );
+            }
+        } finally {
+            threadPerConnectionServer.stopServer();
+        }
+    }
+
+    @Test
+    @Timeout(value = 5)
+    void shouldServeConcurrentClientsWhenRequestHandlerQueueIsSaturated() throws IOException, InterruptedException {
+
+        Configuration dispatchConfiguration = new ConfigurationBuilder()
+                .setPort(8084)
+                .setSourcePath("src/test/resources")
+                .setRootResource("file1.html")
+                .setWorkerThreads(1)
+                .setRequestHandlerThreads(1)
+                .setRequestQueueCapacity(1)
+                .build();
+        HttpServer dispatchServer = new HttpServer(dispatchConfiguration);
+        new Thread(dispatchServer::startServer).start();
+
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create("http://localhost:8084/"))
+                .build();
+
+        try {
+            while (!dispatchServer.isReady()) {
+                TimeUnit.MILLISECONDS.sleep(10);
+            }
+
+            List<CompletableFuture<HttpResponse<String>>> responses = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                responses.add(HttpClient.newHttpClient().sendAsync(request, HttpResponse.BodyHandlers.ofString()));
+            }
+
+            for (CompletableFuture<HttpResponse<String>> response : responses) {
+                assertAll(
+                        () -> assertEquals(200, response.join().statusCode()),
+                        () -> assertEquals("<h1>This is a test file</h1>", response.join().body())
+                );
+            }
+        } finally {
+            dispatchServer.stopServer();
+        }
+    }
+
+    @Test
+    @Timeout(value = 5)
+    void shouldAnswerPipelinedRequestsInOrder() throws IOException {
+
+        String pipelinedRequests = "GET / HTTP/1.1\r\nHost: localhost\r\n\r\n"
+                + "GET /fileX.html HTTP/1.1\r\nHost: localhost\r\n\r\n"
+                + "HEAD / HTTP/1.1\r\nHost: localhost\r\n\r\n";
+
+        try (Socket socket = new Socket("localhost", 8081)) {
+            socket.getOutputStream().write(pipelinedRequests.getBytes());
+            socket.getOutputStream().flush();
+
+            InputStream input = socket.getInputStream();
+            StringBuilder received = new StringBuilder();
+            byte[] chunk = new byte[1024];
+
+            while (countOccurrences(received.toString(), "HTTP/1.1 ") < 3
+                    || !received.toString().endsWith("\r\n\r\n")) {
+                int count = input.read(chunk);
+                assertTrue(count > 0);
+                received.append(new String(chunk, 0, count));
+            }
+
+            String responses = received.toString();
+            int firstOk = responses.indexOf("HTTP/1.1 200 OK");
+            int notFound = responses.indexOf("HTTP/1.1 404 Not Found");
+            int secondOk = responses.indexOf("HTTP/1.1 200 OK", firstOk + 1);
+
+            assertAll(
+                    () -> assertEquals(0, firstOk),
+                    () -> assertTrue(notFound > firstOk),
+                    () -> assertTrue(secondOk > notFound)
+            );
+        }
+    }
+
+    @Test
+    @Timeout(value = 5)
+    void shouldReportReadinessAfterWarmUpAndServeFromWatchedDocumentRoot() throws IOException, InterruptedException {
+
+        Configuration warmUpConfiguration = new ConfigurationBuilder()
+                .setPort(8085)
+                .setSourcePath("src/test/resources")
+                .setRootResource("file1.html")
+                .setWarmUp(true)
+                .setWarmUpPinnedResources(List.of("file1.html"))
+                .setWatchDocumentRoot(true)
+                .setNotFoundCacheTtl(1000)
+                .build();
+        HttpServer warmUpServer = new HttpServer(warmUpConfiguration);
+
+        assertFalse(warmUpServer.isReady());
+
+        new Thread(warmUpServer::startServer).start();
+
+        try {
+            while (!warmUpServer.isReady()) {
+                TimeUnit.MILLISECONDS.sleep(10);
+            }
+
+            HttpClient client = HttpClient.newHttpClient();
+            HttpResponse<String> response = client.send(HttpRequest.newBuilder()
+                    .uri(URI.create("http://localhost:8085/"))
+                    .build(), HttpResponse.BodyHandlers.ofString());
+            HttpResponse<String> missingResponse = client.send(HttpRequest.newBuilder()
+                    .uri(URI.create("http://localhost:8085/missing.html"))
+                    .build(), HttpResponse.BodyHandlers.ofString());
+
+            assertAll(
+                    () -> assertEquals(200, response.statusCode()),
+                    () -> assertEquals("<h1>This is a test file</h1>", response.body()),
+                    () -> assertEquals(404, missingResponse.statusCode())
+            );
+        } finally {
+            warmUpServer.stopServer();
+        }
+
+        assertFalse(warmUpServer.isReady());
+    }
+
+    @Test
+    @Timeout(value = 5)
+    void shouldCloseSlowAndIdleClientConnections() throws IOException, InterruptedException {
+
+        Configuration timeoutConfiguration = new ConfigurationBuilder()
+                .setPort(8086)
+                .setSourcePath("src/test/resources")
+                .setRootResource("file1.html")
+                .setHeaderReadTimeout(300)
+                .setIdleTimeout(300)
+                .build();
+        HttpServer timeoutServer = new HttpServer(timeoutConfiguration);
+
+        new Thread(timeoutServer::startServer).start();
+
+        try {
+            while (!timeoutServer.isReady()) {
+                TimeUnit.MILLISECONDS.sleep(10);
+            }
+
+            try (Socket slowClient = new Socket("localhost", 8086);
+                 Socket idleClient = new Socket("localhost", 8086)) {
+
+                slowClient.getOutputStream().write("GET / HTTP/1.1\r\n".getBytes());
+
+                // the header read timeout is not extended by sending further bytes
+                try {
+                    for (int i = 0; i < 10; i++) {
+                        TimeUnit.MILLISECONDS.sleep(100);
+                        slowClient.getOutputStream().write('X');
+                    }
+                    fail("Slow client was not closed");
+                } catch (IOException e) {
+                    // the server closed the connection
+                }
+
+                assertEquals(-1, idleClient.getInputStream().read());
+            }
+        } finally {
+            timeoutServer.stopServer();
+        }
+    }
+
+    @Test
+    @Timeout(value = 5)
+    void shouldCloseConnectionAfterHttp10ResponseUnlessKeepAliveIsRequested() throws IOException {
+
+        try (Socket socket = new Socket("localhost", 8081)) {
+            socket.getOutputStream().write("GET / HTTP/1.0\r\n\r\n".getBytes());
+
+            String response = new String(socket.getInputStream().readAllBytes());
+
+            assertAll(
+                    () -> assertTrue(response.startsWith("HTTP/1.1 200 OK")),
+                    () -> assertTrue(response.contains("Connection: close")),
+                    () -> assertTrue(response.endsWith("<h1>This is a test file</h1>"))
+            );
+        }
+
+        try (Socket socket = new Socket("localhost", 8081)) {
+            socket.getOutputStream().write("HEAD / HTTP/1.0\r\nConnection: Keep-Alive\r\n\r\n".getBytes());
+
+            byte[] chunk = new byte[1024];
+            int count = socket.getInputStream().read(chunk);
+
+            assertTrue(new String(chunk, 0, count).contains("Connection: keep-alive"));
+        }
+    }
+
+    @Test
+    @Timeout(value = 5)
+    void shouldCloseConnectionAfterResponseToMalformedRequest() throws IOException {
+
+        try (Socket socket = new Socket("localhost", 8081)) {
+            socket.getOutputStream().write(("GET\r\nHost: localhost\r\n\r\n"
+                    + "HEAD / HTTP/1.1\r\nHost: localhost\r\n\r\n").getBytes());
+
+            String responses = new String(socket.getInputStream().readAllBytes());
+
+            assertAll(
+                    () -> assertTrue(responses.startsWith("HTTP/1.1 400 Bad Request")),
+                    () -> assertEquals(1, countOccurrences(responses, "HTTP/1.1 ")),
+                    () -> assertTrue(responses.contains("Connection: close"))
+            );
+        }
+    }
+
+    @Test
+    @Timeout(value = 5)
+    void shouldCloseConnectionAfterMaximumNumberOfRequests() throws IOException, InterruptedException {
+
+        Configuration limitedConfiguration = new ConfigurationBuilder()
+                .setPort(8087)
+                .setSourcePath("src/test/resources")
+                .setRootResource("file1.html")
+                .setMaxRequestsPerConnection(2)
+                .build();
+        HttpServer limitedServer = new HttpServer(limitedConfiguration);
+
+        new Thread(limitedServer::startServer).start();
+
+        try {
+            while (!limitedServer.isReady()) {
+                TimeUnit.MILLISECONDS.sleep(10);
+            }
+
+            try (Socket socket = new Socket("localhost", 8087)) {
+                socket.getOutputStream().write(("HEAD / HTTP/1.1\r\nHost: localhost\r\n\r\n"
+                        + "HEAD / HTTP/1.1\r\nHost: localhost\r\n\r\n"
+                        + "HEAD / HTTP/1.1\r\nHost: localhost\r\n\r\n").getBytes());
+
+                String responses = new String(socket.getInputStream().readAllBytes());
+
+                assertAll(
+                        () -> assertEquals(2, countOccurrences(responses, "HTTP/1.1 200 OK")),
+                        () -> assertEquals(1, countOccurrences(responses, "Connection: keep-alive")),
+                        () -> assertEquals(1, countOccurrences(responses, "Connection: close"))
+                );
+            }
+        } finally {
+            limitedServer.stopServer();
+        }
+    }
+
+    @Test
+    @Timeout(value = 10)
+    void shouldPauseAcceptingAtMaximumNumberOfConnections() throws IOException, InterruptedException {
+
+        Configuration admissionConfiguration = new ConfigurationBuilder()
+                .setPort(8088)
+                .setSourcePath("src/test/resources")
+                .setRootResource("file1.html")
+                .setMaxConnections(2)
+                .build();
+        HttpServer admissionServer = new HttpServer(admissionConfiguration);
+
+        new Thread(admissionServer::startServer).start();
+
+        try {
+            while (!admissionServer.isReady()) {
+                TimeUnit.MILLISECONDS.sleep(10);
+            }
+
+            String request = "HEAD / HTTP/1.1\r\nHost: localhost\r\n\r\n";
+
+            try (Socket firstSocket = new Socket("localhost", 8088);
+                 Socket secondSocket = new Socket("localhost", 8088);
+                 Socket thirdSocket = new Socket("localhost", 8088)) {
+
+                firstSocket.getOutputStream().write(request.getBytes());
+                secondSocket.getOutputStream().write(request.getBytes());
+                assertTrue(readResponseHeader(firstSocket.getInputStream()).startsWith("HTTP/1.1 200 OK"));
+                assertTrue(readResponseHeader(secondSocket.getInputStream()).startsWith("HTTP/1.1 200 OK"));
+
+                // the third client is connected by the kernel but not accepted while two connections are open
+                thirdSocket.getOutputStream().write(request.getBytes());
+                while (admissionServer.getPausedAcceptPeriods() == 0) {
+                    TimeUnit.MILLISECONDS.sleep(10);
+                }
+                assertEquals(2, admissionServer.getOpenConnections());
+
+                firstSocket.close();
+                assertTrue(readResponseHeader(thirdSocket.getInputStream()).startsWith("HTTP/1.1 200 OK"));
+                assertEquals(1, admissionServer.getPausedAcceptPeriods());
+            }
+        } finally {
+            admissionServer.stopServer();
+        }
+    }
+
+    @Test
+    @Timeout(value = 5)
+    void shouldCloseConnectionAfterOversizedRequestHeader() throws IOException, InterruptedException {
+
+        Configuration headerLimitConfiguration = new ConfigurationBuilder()
+                .setPort(8089)
+                .setSourcePath("src/test/resources")
+                .setRootResource("file1.html")
+                .setMaxRequestHeaderSize(128)
+                .build();
+        HttpServer headerLimitServer = new HttpServer(headerLimitConfiguration);
+
+        new Thread(headerLimitServer::startServer).start();
+
+        try {
+            while (!headerLimitServer.isReady()) {
+                TimeUnit.MILLISECONDS.sleep(10);
+            }
+
+            try (Socket socket = new Socket("localhost", 8089)) {
+                socket.getOutputStream().write(("GET / HTTP/1.1\r\nHost: localhost\r\nX-Padding: " + "a".repeat(256)
+                        + "\r\n\r\nHEAD / HTTP/1.1\r\nHost: localhost\r\n\r\n").getBytes());
+
+                String responses = new String(socket.getInputStream().readAllBytes());
+
+                assertAll(
+                        () -> assertTrue(responses.startsWith("HTTP/1.1 431 Request Header Fields Too Large")),
+                        () -> assertEquals(1, countOccurrences(responses, "HTTP/1.1 ")),
+                        () -> assertTrue(responses.contains("Connection: close"))
+                );
+            }
+        } finally {
+            headerLimitServer.stopServer();
+        }
+    }
+
     @Test
     void shouldNotRunServerMultipleTimes() throws InterruptedException {
         // running multiple servers in different threads create concurrency issues,
@@ -73,4 +482,26 @@ class HttpServerTest {
         TimeUnit.SECONDS.sleep(1);
         assertThrows(IllegalStateException.class, httpServer::startServer);
     }
-}
\ No newline at end of file
+
+    private static String readResponseHeader(InputStream inputStream) throws IOException {
+        StringBuilder header = new StringBuilder();
+        while (header.indexOf("\r\n\r\n") < 0) {
+            int b = inputStream.read();
+            if (b < 0) {
+                break;
+            }
+            header.append((char) b);
+        }
+        return header.toString();
+    }
+
+    private static int countOccurrences(String text, String pattern) {
+        int count = 0;
+        int index = text.indexOf(pattern);
+        while (index != -1) {
+            count++;
+            index = text.indexOf(pattern, index + 1);
+        }
+        return count;
+    }
+}
@@ -0,0 +1,66 @@
+package com.github.httpserver.server;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimingWheelTest {
+
+    private static final long TICK = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final List<String> expired = new ArrayList<>();
+    private final TimingWheel<String> wheel = new TimingWheel<>(100, 8, 0);
+
+    @Test
+    void shouldExpireTimeoutOnceItsDelayHasPassed() {
+
+        wheel.schedule("a", 250, 0);
+        wheel.schedule("b", 500, 0);
+
+        wheel.advance(2 * TICK, expired::add);
+        assertTrue(expired.isEmpty());
+
+        wheel.advance(3 * TICK, expired::add);
+        assertEquals(List.of("a"), expired);
+
+        wheel.advance(5 * TICK, expired::add);
+        assertAll(
+                () -> assertEquals(List.of("a", "b"), expired),
+                () -> assertEquals(0, wheel.size())
+        );
+    }
+
+    @Test
+    void shouldExpireTimeoutsSpanningMultipleRotations() {
+
+        wheel.schedule("late", 2500, 0);
+
+        wheel.advance(24 * TICK, expired::add);
+        assertTrue(expired.isEmpty());
+
+        wheel.advance(25 * TICK, expired::add);
+        assertEquals(List.of("late"), expired);
+    }
+
+    @Test
+    void shouldNotExpireCancelledTimeouts() {
+
+        TimingWheel.Timeout<String> first = wheel.schedule("a", 100, 0);
+        wheel.schedule("b", 100, 0);
+        TimingWheel.Timeout<String> third = wheel.schedule("c", 100, 0);
+
+        wheel.cancel(first);
+        wheel.cancel(third);
+        wheel.cancel(third);
+
+        assertEquals(1, wheel.size());
+
+        wheel.advance(TICK, expired::add);
+
+        assertEquals(List.of("b"), expired);
+    }
+}